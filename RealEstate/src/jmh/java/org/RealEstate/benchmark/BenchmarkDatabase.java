@@ -0,0 +1,82 @@
+package org.RealEstate.benchmark;
+
+import org.RealEstate.dataset.BulkLoader;
+import org.RealEstate.dataset.PortfolioProfile;
+import org.RealEstate.dto.BulkLoadResultDTO;
+import org.RealEstate.service.ShardedRealEstate;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Points HibernateUtil at a private in-memory H2 database and seeds it through the bulk loader.
+// Must be touched before anything loads HibernateUtil in the benchmark JVM.
+final class BenchmarkDatabase {
+    // fixed, so runs on different days measure the same portfolio and the same report ranges
+    static final LocalDate AS_OF = PortfolioProfile.DEFAULT_AS_OF;
+
+    static {
+        System.setProperty("hibernate.connection.driver_class", "org.h2.Driver");
+        System.setProperty("hibernate.connection.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+        System.setProperty("hibernate.connection.username", "sa");
+        System.setProperty("hibernate.connection.password", "");
+        System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        System.setProperty("hibernate.hbm2ddl.auto", "create");
+        System.setProperty("hibernate.show_sql", "false");
+        System.setProperty("hibernate.format_sql", "false");
+    }
+
+    private BenchmarkDatabase() {}
+
+    static void seed(int contracts, int paymentsPerContract, long seed) {
+        PortfolioProfile profile = new PortfolioProfile();
+        profile.setSeed(seed);
+        profile.setContracts(contracts);
+        profile.setAsOf(AS_OF);
+        profile.setMaxPaymentsPerContract(paymentsPerContract);
+
+        BulkLoadResultDTO result = new BulkLoader(HibernateUtil.getSessionFactory()).load(profile);
+
+        System.out.printf("Seeded %d contracts and %d payments in %d ms%n",
+                result.getContracts(), result.getPayments(), result.getElapsedMillis());
+    }
+
+    // one private in-memory H2 database per shard, loaded in parallel with the same portfolio split by id
+    static List<SessionFactory> seedShards(int shards, int contracts, long seed) {
+        PortfolioProfile profile = new PortfolioProfile();
+        profile.setSeed(seed);
+        profile.setContracts(contracts);
+        profile.setAsOf(AS_OF);
+
+        List<SessionFactory> factories = new ArrayList<>();
+
+        for (int i = 0; i < shards; i++) {
+            Configuration configuration = new Configuration().configure()
+                    .setProperty("hibernate.connection.driver_class", "org.h2.Driver")
+                    .setProperty("hibernate.connection.username", "sa")
+                    .setProperty("hibernate.connection.password", "")
+                    .setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                    .setProperty("hibernate.hbm2ddl.auto", "create")
+                    .setProperty("hibernate.show_sql", "false")
+                    .setProperty("hibernate.format_sql", "false");
+
+            factories.add(ShardedRealEstate.shardConfiguration(configuration, "jdbc:h2:mem:shard" + shards + "_" + i + ";DB_CLOSE_DELAY=-1", i, shards)
+                    .buildSessionFactory());
+            ShardedRealEstate.alignPaymentIds(factories.get(i), i, shards);
+        }
+
+        long began = System.nanoTime();
+
+        IntStream.range(0, shards).parallel()
+                .forEach(i -> new BulkLoader(factories.get(i), i, shards).load(profile, 1));
+
+        System.out.printf("Seeded %d contracts over %d shards in %d ms%n",
+                contracts, shards, (System.nanoTime() - began) / 1_000_000);
+
+        return factories;
+    }
+}
@@ -0,0 +1,111 @@
+package org.RealEstate.benchmark;
+
+import org.RealEstate.dto.*;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.models.Contract;
+import org.RealEstate.models.Payment;
+import org.RealEstate.service.RealEstate;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class RealEstateBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int contracts;
+
+    // caps each generated contract's payment history, as the original JDBC seeding did
+    @Param({"5"})
+    public int paymentsPerContract;
+
+    @Param({"42"})
+    public long seed;
+
+    private RealEstate service;
+    private FilterDTO narrowFilter;
+    private FilterDTO nameFilter;
+    private DateRangeDTO alignedRange;
+    private DateRangeDTO unalignedRange;
+    private UnfinishedSummaryFilterDTO unfinishedPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.seed(contracts, paymentsPerContract, seed);
+
+        service = RealEstate.getInstance();
+
+        narrowFilter = new FilterDTO(null);
+        narrowFilter.setPropertyType(PropertyType.OFFICE);
+        narrowFilter.setFromDate(BenchmarkDatabase.AS_OF.minusMonths(2));
+        narrowFilter.setToDate(BenchmarkDatabase.AS_OF.minusMonths(1));
+        narrowFilter.setFromAmount(new BigDecimal(1000));
+        narrowFilter.setToAmount(new BigDecimal(2000));
+
+        nameFilter = new FilterDTO("Lindqvist");
+
+        alignedRange = new DateRangeDTO(
+                BenchmarkDatabase.AS_OF.minusYears(5).withDayOfMonth(1),
+                BenchmarkDatabase.AS_OF.with(TemporalAdjusters.lastDayOfMonth())
+        );
+        unalignedRange = new DateRangeDTO(BenchmarkDatabase.AS_OF.minusYears(5).plusDays(1), BenchmarkDatabase.AS_OF);
+
+        unfinishedPage = new UnfinishedSummaryFilterDTO();
+        unfinishedPage.setPageSize(100);
+    }
+
+    @Benchmark
+    public Payment makePayment() {
+        long id = ThreadLocalRandom.current().nextLong(1, contracts + 1);
+
+        try {
+            return service.makePayment(new MakePaymentDTO(id, new BigDecimal("0.01")));
+        }
+        catch (RuntimeException completed) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public List<Contract> searchContractsWithFilters() {
+        return service.searchContractsWithFilters(narrowFilter);
+    }
+
+    @Benchmark
+    public List<ContractSearchRowDTO> searchContractRows() {
+        return service.searchContractRows(narrowFilter);
+    }
+
+    @Benchmark
+    public List<Contract> searchContractsByName() {
+        return service.searchContractsWithFilters(nameFilter);
+    }
+
+    @Benchmark
+    public List<FinishedContractSummaryDTO> getFinishedContractSummaryRollup() {
+        return service.getFinishedContractSummary(alignedRange);
+    }
+
+    @Benchmark
+    public List<FinishedContractSummaryDTO> getFinishedContractSummaryLive() {
+        return service.getFinishedContractSummary(unalignedRange);
+    }
+
+    @Benchmark
+    public List<UnfinishedContractSummaryDTO> getUnfinishedContractSummaryPage() {
+        return service.getUnfinishedContractSummary(unfinishedPage);
+    }
+
+    @Benchmark
+    public List<UnfinishedContractSummaryDTO> getUnfinishedContractSummary() {
+        return service.getUnfinishedContractSummary();
+    }
+}
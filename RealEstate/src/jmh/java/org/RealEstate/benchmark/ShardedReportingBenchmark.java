@@ -0,0 +1,84 @@
+package org.RealEstate.benchmark;
+
+import org.RealEstate.dto.*;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.service.ShardedRealEstate;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reporting latency against the same portfolio split over 1..8 shards. The in-memory shards share
+// this machine's cores, so the gain flattens once shards outnumber them.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ShardedReportingBenchmark {
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    @Param({"200000"})
+    public int contracts;
+
+    @Param({"42"})
+    public long seed;
+
+    private List<SessionFactory> factories;
+    private ShardedRealEstate service;
+    private FilterDTO narrowFilter;
+    private DateRangeDTO unalignedRange;
+    private BalanceFilterDTO arrears;
+    private UnfinishedSummaryFilterDTO unfinishedPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        factories = BenchmarkDatabase.seedShards(shards, contracts, seed);
+        service = new ShardedRealEstate(factories);
+
+        narrowFilter = new FilterDTO(null);
+        narrowFilter.setPropertyType(PropertyType.OFFICE);
+        narrowFilter.setFromDate(BenchmarkDatabase.AS_OF.minusMonths(2));
+        narrowFilter.setToDate(BenchmarkDatabase.AS_OF.minusMonths(1));
+        narrowFilter.setFromAmount(new BigDecimal(1000));
+        narrowFilter.setToAmount(new BigDecimal(2000));
+
+        unalignedRange = new DateRangeDTO(BenchmarkDatabase.AS_OF.minusYears(5).plusDays(1), BenchmarkDatabase.AS_OF);
+
+        arrears = new BalanceFilterDTO();
+        arrears.setMinOutstanding(BigDecimal.ONE);
+
+        unfinishedPage = new UnfinishedSummaryFilterDTO();
+        unfinishedPage.setPageSize(100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+        factories.forEach(SessionFactory::close);
+    }
+
+    @Benchmark
+    public List<FinishedContractSummaryDTO> finishedSummaryUnaligned() {
+        return service.getFinishedContractSummary(unalignedRange);
+    }
+
+    @Benchmark
+    public List<ContractSearchRowDTO> searchContractRows() {
+        return service.searchContractRows(narrowFilter);
+    }
+
+    @Benchmark
+    public ContractBalancePageDTO arrearsFirstPage() {
+        return service.searchContractBalances(arrears, null, 50);
+    }
+
+    @Benchmark
+    public List<UnfinishedContractSummaryDTO> unfinishedSummaryPage() {
+        return service.getUnfinishedContractSummary(unfinishedPage);
+    }
+}
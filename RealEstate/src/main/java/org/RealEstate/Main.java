@@ -2,34 +2,73 @@ package org.RealEstate;
 
 
 import org.RealEstate.dto.*;
+import org.RealEstate.enums.ExportFormat;
+import org.RealEstate.enums.ExportTable;
+import org.RealEstate.enums.PaymentOutcome;
 import org.RealEstate.enums.PropertyType;
-import org.RealEstate.models.Contract;
+import org.RealEstate.export.ExportFailedException;
+import org.RealEstate.export.Exporter;
+import org.RealEstate.service.OverdueSweeper;
+import org.RealEstate.service.PaymentStatementLoader;
 import org.RealEstate.service.RealEstate;
+import org.RealEstate.utils.HibernateUtil;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
 
 public class Main {
-    private static RealEstate service = RealEstate.getInstance();
+    private static final int PAGE_SIZE = 20;
+
+    // set once the session factory is up; with -Drealestate.startup.mode=background the menu shows before that
+    private static RealEstate service;
+    private static OverdueSweeper sweeper;
     private static Scanner sc = new Scanner(System.in);
 
     public static void main(String[] args) {
         boolean exit = false;
 
+        long sweepMinutes = Long.getLong("realestate.sweeper.interval_minutes", 0);
+
+        CompletableFuture<Void> ready = HibernateUtil.start().thenRun(() -> {
+            service = RealEstate.getInstance();
+            sweeper = new OverdueSweeper();
+
+            if (sweepMinutes > 0) sweeper.schedule(Duration.ofMinutes(sweepMinutes));
+        });
+
         while (!exit) {
             showMenu();
             int option = sc.nextInt();
 
+            if (option != 13) {
+                if (!ready.isDone()) System.out.println("Waiting for the database to start...");
+                ready.join();
+            }
+
             switch (option) {
                 case 1 -> makePayment();
                 case 2 -> searchContracts();
                 case 3 -> getFinishedContractSummary();
                 case 4 -> getUnfinishedContractSummary();
-                case 5 -> exit = true;
+                case 5 -> loadPaymentStatement();
+                case 6 -> showPoolStats();
+                case 7 -> getMonthlyRevenue();
+                case 8 -> rebuildRevenueRollup();
+                case 9 -> showCacheStats();
+                case 10 -> sweepOverdueContracts();
+                case 11 -> exportTable();
+                case 12 -> searchArrears();
+                case 13 -> exit = true;
                 default -> System.out.println("Non valid");
             }
         }
+
+        if (sweeper != null) sweeper.close();
     }
 
     private static void showMenu() {
@@ -38,7 +77,15 @@ public class Main {
         System.out.println("2. Search contracts with filters");
         System.out.println("3. Get finished contracts summary");
         System.out.println("4. Get unfinished contracts summary");
-        System.out.println("5. Exit");
+        System.out.println("5. Load payment statement");
+        System.out.println("6. Show connection pool stats");
+        System.out.println("7. Get monthly revenue by contract start month");
+        System.out.println("8. Rebuild revenue rollup");
+        System.out.println("9. Show cache stats");
+        System.out.println("10. Sweep overdue contracts");
+        System.out.println("11. Export contracts or payments");
+        System.out.println("12. Find contracts in arrears");
+        System.out.println("13. Exit");
     }
 
     private static void makePayment() {
@@ -63,6 +110,118 @@ public class Main {
         }
     }
 
+    private static void loadPaymentStatement() {
+        sc.nextLine();
+
+        System.out.print("Enter statement file path: ");
+        Path file = Path.of(sc.nextLine().trim());
+
+        try {
+            StatementSummaryDTO summary = new PaymentStatementLoader(service).load(file, result -> {
+                if (result.getOutcome() != PaymentOutcome.POSTED) {
+                    System.out.println("Line " + result.getLine() + ": " + result.getOutcome() + " " + result.getMessage());
+                }
+            });
+
+            System.out.println("Lines: " + summary.getLines());
+            System.out.println("Posted: " + summary.getPosted());
+            System.out.println("Rejected: " + summary.getRejected());
+            System.out.println("Unknown contract: " + summary.getUnknownContract());
+        }
+        catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private static void getMonthlyRevenue() {
+        sc.nextLine();
+
+        System.out.print("Enter from date (YYYY-MM-DD): ");
+        LocalDate fromDate = LocalDate.parse(sc.nextLine());
+
+        System.out.print("Enter to date (YYYY-MM-DD): ");
+        LocalDate toDate = LocalDate.parse(sc.nextLine());
+
+        for (RevenueRollupDTO dto : service.getMonthlyRevenue(new DateRangeDTO(fromDate, toDate))) {
+            System.out.println(dto.getMonth() + " " + dto.getPropertyType() + " " + dto.getStatus()
+                    + " contracts=" + dto.getContractCount()
+                    + " expected=" + dto.getExpectedRevenue()
+                    + " collected=" + dto.getCollectedRevenue());
+        }
+    }
+
+    private static void rebuildRevenueRollup() {
+        service.rebuildRevenueRollup();
+        System.out.println("Revenue rollup rebuilt");
+    }
+
+    private static void sweepOverdueContracts() {
+        SweepResultDTO result = sweeper.sweep();
+
+        System.out.println("Marked overdue: " + result.getMarked());
+        System.out.println("Chunks: " + result.getChunks());
+        System.out.println("Elapsed (ms): " + result.getElapsedMillis());
+    }
+
+    private static void exportTable() {
+        sc.nextLine();
+
+        System.out.print("Table (CONTRACTS/PAYMENTS): ");
+        ExportTable table = ExportTable.valueOf(sc.nextLine().trim().toUpperCase());
+
+        System.out.print("Format (CSV/COLUMNAR): ");
+        ExportRequestDTO request = new ExportRequestDTO(table, ExportFormat.valueOf(sc.nextLine().trim().toUpperCase()));
+
+        System.out.print("Gzip? Y/N: ");
+        request.setGzip(sc.nextLine().trim().equalsIgnoreCase("Y"));
+
+        System.out.print("Resume after id (blank for all): ");
+        String afterId = sc.nextLine().trim();
+        if (!afterId.isEmpty()) request.setAfterId(Long.parseLong(afterId));
+
+        System.out.print("Output file path: ");
+        Path file = Path.of(sc.nextLine().trim());
+
+        try {
+            ExportResultDTO result = new Exporter().export(request, file);
+
+            System.out.println("Rows: " + result.getRows());
+            System.out.println("Last id: " + result.getLastId());
+            System.out.println("Bytes: " + result.getBytes());
+        }
+        catch (ExportFailedException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println(e.getLastId() == null ? "Nothing was written, export again from the start"
+                    : "Resume after id " + e.getLastId() + " into a new file");
+        }
+        catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private static void showCacheStats() {
+        for (CacheStatsDTO dto : service.getCacheStats()) {
+            System.out.println(dto.getRegion()
+                    + " hits=" + dto.getHits()
+                    + " misses=" + dto.getMisses()
+                    + " puts=" + dto.getPuts()
+                    + " evictions=" + dto.getEvictions()
+                    + " size=" + dto.getSize());
+        }
+    }
+
+    private static void showPoolStats() {
+        PoolStatsDTO stats = HibernateUtil.getPoolStats();
+
+        System.out.println("Active: " + stats.getActive());
+        System.out.println("Idle: " + stats.getIdle());
+        System.out.println("Total: " + stats.getTotal() + "/" + stats.getMaxSize());
+        System.out.println("Waiting threads: " + stats.getWaiters());
+        System.out.println("Acquisitions: " + stats.getAcquisitions());
+        System.out.println("Avg acquire (us): " + stats.getAvgAcquireMicros());
+        System.out.println("Max acquire (us): " + stats.getMaxAcquireMicros());
+    }
+
     private static void searchContracts() {
         sc.nextLine();
 
@@ -105,17 +264,63 @@ public class Main {
             if (option.equals("Y")) {
                 System.out.print("To: ");
                 dto.setToAmount(BigDecimal.valueOf(sc.nextDouble()));
+                sc.nextLine();
             }
         }
 
-        for (Contract contract : service.searchContractsWithFilters(dto)) {
-            System.out.println("Contract ID: " + contract.getId());
-            System.out.println("Status: " + contract.getStatus());
-            System.out.println("Total: " + contract.getTotal());
-            System.out.println("Start: " + contract.getStartDate());
-            System.out.println("End: " + contract.getEndDate());
-            System.out.println("");
-        }
+        ContractCursorDTO cursor = null;
+
+        do {
+            ContractRowPageDTO page = service.searchContractRowsPage(dto, cursor, PAGE_SIZE);
+
+            for (ContractSearchRowDTO row : page.getRows()) {
+                System.out.println("Contract ID: " + row.getId());
+                System.out.println("Status: " + row.getStatus());
+                System.out.println("Total: " + row.getTotal());
+                System.out.println("Start: " + row.getStartDate());
+                System.out.println("End: " + row.getEndDate());
+                System.out.println("");
+            }
+
+            cursor = page.getNext();
+
+            if (cursor != null) {
+                System.out.print("Show more? Y/N: ");
+                if (!sc.nextLine().toUpperCase().equals("Y")) cursor = null;
+            }
+        } while (cursor != null);
+    }
+
+    private static void searchArrears() {
+        sc.nextLine();
+
+        BalanceFilterDTO filter = new BalanceFilterDTO();
+
+        System.out.print("Minimum outstanding: ");
+        filter.setMinOutstanding(new BigDecimal(sc.nextLine().trim()));
+
+        BalanceCursorDTO cursor = null;
+
+        do {
+            ContractBalancePageDTO page = service.searchContractBalances(filter, cursor, PAGE_SIZE);
+
+            for (ContractBalanceDTO row : page.getRows()) {
+                System.out.println("Contract ID: " + row.getId());
+                System.out.println("Tenant: " + row.getTenantName());
+                System.out.println("Status: " + row.getStatus());
+                System.out.println("Total: " + row.getTotal());
+                System.out.println("Paid: " + row.getPaidTotal());
+                System.out.println("Outstanding: " + row.getOutstanding());
+                System.out.println("");
+            }
+
+            cursor = page.getNext();
+
+            if (cursor != null) {
+                System.out.print("Show more? Y/N: ");
+                if (!sc.nextLine().toUpperCase().equals("Y")) cursor = null;
+            }
+        } while (cursor != null);
     }
 
     private static void getFinishedContractSummary() {
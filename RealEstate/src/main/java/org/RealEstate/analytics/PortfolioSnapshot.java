@@ -0,0 +1,485 @@
+package org.RealEstate.analytics;
+
+import org.RealEstate.dto.ContractSearchRowDTO;
+import org.RealEstate.dto.DateRangeDTO;
+import org.RealEstate.dto.FilterDTO;
+import org.RealEstate.dto.FinishedContractSummaryDTO;
+import org.RealEstate.dto.UnfinishedContractSummaryDTO;
+import org.RealEstate.dto.UnfinishedSummaryFilterDTO;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.search.TenantNameIndex;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+
+// Optional in-memory copy of rental_contract held as primitive columns: money in cents, dates as epoch days,
+// enums as ordinals and tenant names dictionary-encoded. Answers the search and summary reports with
+// fork/join scans over the arrays. Committed changes mark contract ids dirty and the next query reloads
+// only those rows; writes that bypass Hibernate call markDirty / markAllDirty.
+// A standalone API: RealEstate and Main don't route through it, callers opt in with forFactory().
+public class PortfolioSnapshot {
+    static final int SCAN_CHUNK = 1 << 16;
+
+    private static final int ID_CHUNK_SIZE = 1000;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final byte REMOVED = -1;
+    private static final PropertyType[] TYPES = PropertyType.values();
+    private static final Status[] STATUSES = Status.values();
+    // property_type is stored as a string, so the database orders summaries by name
+    private static final PropertyType[] TYPES_BY_NAME = Arrays.stream(TYPES).sorted(Comparator.comparing(PropertyType::name)).toArray(PropertyType[]::new);
+    private static final String ROW_QUERY = "select c.id, c.tenantName, c.propertyType, c.monthlyRent, c.startDate, c.endDate, " +
+            "c.status, c.total, c.paidTotal from Contract c";
+
+    private static final Map<SessionFactory, PortfolioSnapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    private final SessionFactory sessionFactory;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+    private volatile long fullLoads;
+
+    // row i of every column describes one contract; ids are kept ascending
+    private int size;
+    private long[] ids;
+    private int[] nameCodes;
+    private byte[] types;
+    private byte[] statuses;
+    private long[] rentCents;
+    private int[] startDays;
+    private int[] endDays;
+    private long[] totalCents;
+    private long[] paidCents;
+
+    private List<String> names;
+    private Map<String, Integer> nameCodesByName;
+
+    private PortfolioSnapshot(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    public static PortfolioSnapshot forFactory(SessionFactory sessionFactory) {
+        return SNAPSHOTS.computeIfAbsent(sessionFactory, PortfolioSnapshot::new);
+    }
+
+    public static void release(SessionFactory sessionFactory) {
+        SNAPSHOTS.remove(sessionFactory);
+    }
+
+    // no-ops until someone has asked for a snapshot of this factory
+    public static void markDirty(SessionFactory sessionFactory, Collection<Long> contractIds) {
+        PortfolioSnapshot snapshot = SNAPSHOTS.get(sessionFactory);
+
+        if (snapshot != null) snapshot.dirty.addAll(contractIds);
+    }
+
+    public static void markAllDirty(SessionFactory sessionFactory) {
+        PortfolioSnapshot snapshot = SNAPSHOTS.get(sessionFactory);
+
+        if (snapshot != null) snapshot.loaded = false;
+    }
+
+    public List<ContractSearchRowDTO> searchContracts(FilterDTO dto) {
+        refresh();
+        lock.readLock().lock();
+
+        try {
+            boolean[] nameMatches = nameMatches(dto.getClientName());
+            int type = dto.getPropertyType() == null ? -1 : dto.getPropertyType().ordinal();
+            int fromDay = dto.getFromDate() == null ? Integer.MIN_VALUE : (int) dto.getFromDate().toEpochDay();
+            int toDay = dto.getFromDate() == null || dto.getToDate() == null ? Integer.MAX_VALUE : (int) dto.getToDate().toEpochDay();
+            long fromRent = dto.getFromAmount() == null ? Long.MIN_VALUE : cents(dto.getFromAmount(), RoundingMode.CEILING);
+            long toRent = dto.getFromAmount() == null || dto.getToAmount() == null ? Long.MAX_VALUE : cents(dto.getToAmount(), RoundingMode.FLOOR);
+
+            // locals keep the scan loops on plain arrays the JIT can unroll
+            byte[] statuses = this.statuses;
+            byte[] types = this.types;
+            int[] startDays = this.startDays;
+            long[] rentCents = this.rentCents;
+            int[] nameCodes = this.nameCodes;
+
+            int[] rows = scan((lo, hi) -> {
+                int[] hits = new int[hi - lo];
+                int n = 0;
+
+                for (int i = lo; i < hi; i++) {
+                    boolean hit = statuses[i] != REMOVED
+                            & (type < 0 | types[i] == type)
+                            & startDays[i] >= fromDay & startDays[i] <= toDay
+                            & rentCents[i] >= fromRent & rentCents[i] <= toRent;
+
+                    if (hit && (nameMatches == null || nameMatches[nameCodes[i]])) hits[n++] = i;
+                }
+
+                return Arrays.copyOf(hits, n);
+            }, PortfolioSnapshot::concat);
+
+            // same order as the database search: start_date desc, id asc
+            Integer[] ordered = new Integer[rows.length];
+            for (int i = 0; i < rows.length; i++) ordered[i] = rows[i];
+            Arrays.sort(ordered, (a, b) -> startDays[a] != startDays[b] ? Integer.compare(startDays[b], startDays[a]) : Long.compare(ids[a], ids[b]));
+
+            List<ContractSearchRowDTO> result = new ArrayList<>(rows.length);
+
+            for (int i : ordered) {
+                result.add(new ContractSearchRowDTO(
+                        ids[i],
+                        names.get(nameCodes[i]),
+                        TYPES[types[i]],
+                        money(rentCents[i]),
+                        LocalDate.ofEpochDay(startDays[i]),
+                        LocalDate.ofEpochDay(endDays[i]),
+                        STATUSES[statuses[i]],
+                        money(totalCents[i])
+                ));
+            }
+
+            return result;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<FinishedContractSummaryDTO> getFinishedContractSummary(DateRangeDTO dto) {
+        refresh();
+        lock.readLock().lock();
+
+        try {
+            byte completed = (byte) Status.COMPLETED.ordinal();
+            int fromDay = (int) dto.getFromDate().toEpochDay();
+            int toDay = (int) dto.getToDate().toEpochDay();
+            byte[] statuses = this.statuses;
+            byte[] types = this.types;
+            int[] startDays = this.startDays;
+            long[] totalCents = this.totalCents;
+
+            // [type] = count, [TYPES.length + type] = total in cents
+            long[] sums = scan((lo, hi) -> {
+                long[] partial = new long[TYPES.length * 2];
+
+                for (int i = lo; i < hi; i++) {
+                    if (statuses[i] == completed & startDays[i] >= fromDay & startDays[i] <= toDay) {
+                        partial[types[i]]++;
+                        partial[TYPES.length + types[i]] += totalCents[i];
+                    }
+                }
+
+                return partial;
+            }, (a, b) -> {
+                for (int i = 0; i < a.length; i++) a[i] += b[i];
+
+                return a;
+            });
+
+            List<FinishedContractSummaryDTO> result = new ArrayList<>();
+
+            for (PropertyType type : TYPES_BY_NAME) {
+                if (sums[type.ordinal()] > 0) {
+                    result.add(new FinishedContractSummaryDTO(type, sums[type.ordinal()], money(sums[TYPES.length + type.ordinal()])));
+                }
+            }
+
+            return result;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<UnfinishedContractSummaryDTO> getUnfinishedContractSummary(UnfinishedSummaryFilterDTO filter) {
+        refresh();
+        lock.readLock().lock();
+
+        try {
+            byte active = (byte) Status.ACTIVE.ordinal();
+            byte overdue = (byte) Status.OVERDUE.ordinal();
+            int type = filter.getPropertyType() == null ? -1 : filter.getPropertyType().ordinal();
+            int endBefore = filter.isOverdueOnly() ? (int) LocalDate.now().toEpochDay() : Integer.MAX_VALUE;
+            int first = filter.getAfterId() == null ? 0 : firstAfter(filter.getAfterId());
+            int limit = filter.getPageSize() > 0 ? filter.getPageSize() : Integer.MAX_VALUE;
+            byte[] statuses = this.statuses;
+            byte[] types = this.types;
+            int[] endDays = this.endDays;
+
+            int[] rows;
+
+            if (limit < Integer.MAX_VALUE) {
+                // a page stops at the first pageSize hits, which a sequential walk from the cursor finds soonest
+                int[] hits = new int[Math.min(limit, size - first)];
+                int n = 0;
+
+                for (int i = first; i < size && n < hits.length; i++) {
+                    if ((statuses[i] == active | statuses[i] == overdue) & (type < 0 | types[i] == type) & endDays[i] < endBefore) hits[n++] = i;
+                }
+
+                rows = Arrays.copyOf(hits, n);
+            }
+            else {
+                rows = scan(first, size, (lo, hi) -> {
+                    int[] hits = new int[hi - lo];
+                    int n = 0;
+
+                    for (int i = lo; i < hi; i++) {
+                        if ((statuses[i] == active | statuses[i] == overdue) & (type < 0 | types[i] == type) & endDays[i] < endBefore) hits[n++] = i;
+                    }
+
+                    return Arrays.copyOf(hits, n);
+                }, PortfolioSnapshot::concat);
+            }
+
+            List<UnfinishedContractSummaryDTO> result = new ArrayList<>(rows.length);
+
+            for (int i : rows) result.add(new UnfinishedContractSummaryDTO(ids[i], money(totalCents[i]), money(paidCents[i])));
+
+            return result;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        refresh();
+        lock.readLock().lock();
+
+        try {
+            int live = 0;
+
+            for (int i = 0; i < size; i++) if (statuses[i] != REMOVED) live++;
+
+            return live;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getFullLoads() {
+        return fullLoads;
+    }
+
+    // applies pending changes; ids are drained before reading so commits that land meanwhile stay dirty
+    public void refresh() {
+        if (loaded && dirty.isEmpty()) return;
+
+        lock.writeLock().lock();
+
+        try {
+            try (Session session = sessionFactory.openSession()) {
+                session.setDefaultReadOnly(true);
+
+                if (!loaded) {
+                    dirty.clear();
+                    loaded = true;
+                    loadAll(session);
+                    return;
+                }
+
+                List<Long> pending = new ArrayList<>(dirty);
+                dirty.removeAll(pending);
+                Collections.sort(pending);
+
+                for (int from = 0; from < pending.size(); from += ID_CHUNK_SIZE) {
+                    List<Long> chunk = pending.subList(from, Math.min(from + ID_CHUNK_SIZE, pending.size()));
+                    Set<Long> missing = new HashSet<>(chunk);
+
+                    for (Object[] row : session.createQuery(ROW_QUERY + " where c.id in :ids", Object[].class)
+                            .setParameter("ids", chunk)
+                            .getResultList()) {
+                        missing.remove((Long) row[0]);
+
+                        if (!upsert(row)) {
+                            // an id below the newest one that was never seen: only a full reload keeps ids sorted
+                            loadAll(session);
+                            return;
+                        }
+                    }
+
+                    for (long id : missing) {
+                        int index = Arrays.binarySearch(ids, 0, size, id);
+
+                        if (index >= 0) statuses[index] = REMOVED;
+                    }
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            loaded = false;
+            throw e;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void loadAll(Session session) {
+        int capacity = Math.max(INITIAL_CAPACITY, session.createQuery("select count(c) from Contract c", Long.class).getSingleResult().intValue());
+
+        allocate(capacity);
+        names = new ArrayList<>();
+        nameCodesByName = new HashMap<>();
+
+        try (ScrollableResults<Object[]> rows = session.createQuery(ROW_QUERY + " order by c.id", Object[].class)
+                .setFetchSize(1000)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                append(rows.get());
+            }
+        }
+
+        fullLoads++;
+    }
+
+    private boolean upsert(Object[] row) {
+        long id = (Long) row[0];
+        int index = Arrays.binarySearch(ids, 0, size, id);
+
+        if (index >= 0) {
+            set(index, row);
+            return true;
+        }
+
+        if (-index - 1 < size) return false;
+
+        append(row);
+        return true;
+    }
+
+    private void append(Object[] row) {
+        if (size == ids.length) grow();
+
+        ids[size] = (Long) row[0];
+        set(size++, row);
+    }
+
+    private void set(int i, Object[] row) {
+        nameCodes[i] = nameCode((String) row[1]);
+        types[i] = (byte) ((PropertyType) row[2]).ordinal();
+        rentCents[i] = cents((BigDecimal) row[3], RoundingMode.HALF_UP);
+        startDays[i] = (int) ((LocalDate) row[4]).toEpochDay();
+        endDays[i] = (int) ((LocalDate) row[5]).toEpochDay();
+        statuses[i] = (byte) ((Status) row[6]).ordinal();
+        totalCents[i] = cents((BigDecimal) row[7], RoundingMode.HALF_UP);
+        paidCents[i] = cents((BigDecimal) row[8], RoundingMode.HALF_UP);
+    }
+
+    private int nameCode(String name) {
+        return nameCodesByName.computeIfAbsent(name, n -> {
+            names.add(n);
+            return names.size() - 1;
+        });
+    }
+
+    // LIKE '%fragment%' evaluated once per distinct name instead of once per row, case- and accent-insensitive
+    // like the production collation; the fragment is literal, as RealEstate escapes it
+    private boolean[] nameMatches(String fragment) {
+        if (fragment == null || fragment.isEmpty()) return null;
+
+        String folded = TenantNameIndex.fold(fragment);
+        boolean[] matches = new boolean[names.size()];
+
+        for (int code = 0; code < matches.length; code++) matches[code] = TenantNameIndex.fold(names.get(code)).contains(folded);
+
+        return matches;
+    }
+
+    private int firstAfter(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private void allocate(int capacity) {
+        size = 0;
+        ids = new long[capacity];
+        nameCodes = new int[capacity];
+        types = new byte[capacity];
+        statuses = new byte[capacity];
+        rentCents = new long[capacity];
+        startDays = new int[capacity];
+        endDays = new int[capacity];
+        totalCents = new long[capacity];
+        paidCents = new long[capacity];
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+
+        ids = Arrays.copyOf(ids, capacity);
+        nameCodes = Arrays.copyOf(nameCodes, capacity);
+        types = Arrays.copyOf(types, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        rentCents = Arrays.copyOf(rentCents, capacity);
+        startDays = Arrays.copyOf(startDays, capacity);
+        endDays = Arrays.copyOf(endDays, capacity);
+        totalCents = Arrays.copyOf(totalCents, capacity);
+        paidCents = Arrays.copyOf(paidCents, capacity);
+    }
+
+    private <T> T scan(ChunkScan<T> leaf, BinaryOperator<T> merge) {
+        return scan(0, size, leaf, merge);
+    }
+
+    private <T> T scan(int from, int to, ChunkScan<T> leaf, BinaryOperator<T> merge) {
+        return ForkJoinPool.commonPool().invoke(new ScanTask<>(from, to, leaf, merge));
+    }
+
+    private static long cents(BigDecimal amount, RoundingMode rounding) {
+        return amount.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] joined = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, joined, a.length, b.length);
+
+        return joined;
+    }
+
+    @FunctionalInterface
+    interface ChunkScan<T> {
+        T scan(int from, int to);
+    }
+
+    // splits [from, to) down to SCAN_CHUNK rows; results are merged left to right, so row order is kept
+    private static class ScanTask<T> extends RecursiveTask<T> {
+        private final int from;
+        private final int to;
+        private final ChunkScan<T> leaf;
+        private final BinaryOperator<T> merge;
+
+        ScanTask(int from, int to, ChunkScan<T> leaf, BinaryOperator<T> merge) {
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+            this.merge = merge;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from <= SCAN_CHUNK) return leaf.scan(from, to);
+
+            int middle = (from + to) >>> 1;
+            ScanTask<T> left = new ScanTask<>(from, middle, leaf, merge);
+            left.fork();
+            T right = new ScanTask<>(middle, to, leaf, merge).compute();
+
+            return merge.apply(left.join(), right);
+        }
+    }
+}
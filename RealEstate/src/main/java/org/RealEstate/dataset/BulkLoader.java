@@ -0,0 +1,270 @@
+package org.RealEstate.dataset;
+
+import org.RealEstate.dto.BulkLoadResultDTO;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.analytics.PortfolioSnapshot;
+import org.RealEstate.search.TenantNameIndex;
+import org.RealEstate.service.FinishedSummaryCache;
+import org.RealEstate.service.RevenueRollups;
+import org.RealEstate.service.ShardedRealEstate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Writes a generated portfolio with multi-row JDBC inserts, bypassing the persistence context
+// and the entity listeners. Derived state (rollup, name index, caches) is rebuilt once at the end.
+public class BulkLoader {
+    public static final int CONTRACT_ROWS_PER_STATEMENT = 500;
+    public static final int PAYMENT_ROWS_PER_STATEMENT = 1000;
+    public static final int ROWS_PER_COMMIT = 100_000;
+
+    private static final String CONTRACT_INSERT = "insert into rental_contract (contract_id, tenant_name, property_type, monthly_rent, " +
+            "start_date, end_date, status, total, paid_total, outstanding, version) values ";
+    private static final String CONTRACT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String PAYMENT_INSERT = "insert into rent_payment (contract_id, pay_date, amount, version) values ";
+    private static final String PAYMENT_ROW = "(?, ?, ?, 0)";
+
+    private final SessionFactory sessionFactory;
+    private final int shard;
+    private final int shards;
+
+    public BulkLoader(SessionFactory sessionFactory) {
+        this(sessionFactory, 0, 1);
+    }
+
+    // writes only the generated contracts (and their payments) that ShardedRealEstate places on this shard
+    public BulkLoader(SessionFactory sessionFactory, int shard, int shards) {
+        this.sessionFactory = sessionFactory;
+        this.shard = shard;
+        this.shards = shards;
+    }
+
+    public BulkLoadResultDTO load(PortfolioProfile profile) {
+        return load(profile, 0);
+    }
+
+    // firstId 0 continues after the highest stored id; shards of one portfolio share an explicit firstId
+    public BulkLoadResultDTO load(PortfolioProfile profile, long firstId) {
+        long began = System.nanoTime();
+        long[] result = new long[3];
+
+        try (Session session = sessionFactory.openSession()) {
+            session.doWork(connection -> {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+
+                try {
+                    long first = firstId > 0 ? firstId : nextContractId(connection);
+
+                    try (Writer writer = new Writer(connection, shard, shards)) {
+                        new PortfolioGenerator(profile).generate(first, writer);
+                        result[1] = writer.contractsWritten;
+                        result[2] = writer.paymentsWritten;
+                    }
+
+                    connection.commit();
+                    restartIdentity(connection, first + profile.getContracts());
+                    result[0] = first;
+                }
+                catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                }
+                finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            });
+        }
+
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            RevenueRollups.rebuild(session);
+            session.getTransaction().commit();
+        }
+
+        TenantNameIndex.forFactory(sessionFactory).invalidate();
+        PortfolioSnapshot.markAllDirty(sessionFactory);
+        FinishedSummaryCache.clear(sessionFactory);
+        sessionFactory.getCache().evictAllRegions();
+
+        return new BulkLoadResultDTO(result[0], result[1], result[2], (System.nanoTime() - began) / 1_000_000);
+    }
+
+    private long nextContractId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select coalesce(max(contract_id), 0) + 1 from rental_contract")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // MySQL moves auto_increment past explicit ids on its own; H2 keeps handing out the old sequence
+    private void restartIdentity(Connection connection, long next) throws SQLException {
+        if (!"H2".equals(connection.getMetaData().getDatabaseProductName())) return;
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table rental_contract alter column contract_id restart with " + next);
+        }
+    }
+
+    // Payments are only written after the contract chunk they reference, so the foreign key holds
+    private static final class Writer implements PortfolioSink, AutoCloseable {
+        private final Connection connection;
+        private final MultiRowInsert contracts;
+        private final MultiRowInsert payments;
+        private final int shard;
+        private final int shards;
+        private long uncommitted;
+        long contractsWritten;
+        long paymentsWritten;
+
+        Writer(Connection connection, int shard, int shards) throws SQLException {
+            this.connection = connection;
+            this.shard = shard;
+            this.shards = shards;
+            this.contracts = new MultiRowInsert(connection, CONTRACT_INSERT, CONTRACT_ROW, 10, CONTRACT_ROWS_PER_STATEMENT);
+            this.payments = new MultiRowInsert(connection, PAYMENT_INSERT, PAYMENT_ROW, 3, PAYMENT_ROWS_PER_STATEMENT);
+        }
+
+        @Override
+        public void contract(long id, String tenantName, PropertyType propertyType, BigDecimal monthlyRent,
+                             LocalDate startDate, LocalDate endDate, Status status, BigDecimal total, BigDecimal paidTotal) {
+            if (!owns(id)) return;
+
+            contractsWritten++;
+            contracts.add(id, tenantName, propertyType.name(), monthlyRent, startDate, endDate, status.name(),
+                    total, paidTotal, total.subtract(paidTotal));
+
+            try {
+                if (contracts.isFull()) {
+                    contracts.executeFull();
+                    payments.executeFull();
+                }
+
+                if (++uncommitted >= ROWS_PER_COMMIT) {
+                    contracts.flush();
+                    payments.flush();
+                    connection.commit();
+                    uncommitted = 0;
+                }
+            }
+            catch (SQLException e) {
+                throw new IllegalStateException("Bulk load failed", e);
+            }
+        }
+
+        @Override
+        public void payment(long contractId, LocalDate payDate, BigDecimal amount) {
+            if (!owns(contractId)) return;
+
+            paymentsWritten++;
+            payments.add(contractId, payDate, amount);
+        }
+
+        private boolean owns(long contractId) {
+            return shards == 1 || ShardedRealEstate.shardOf(contractId, shards) == shard;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                contracts.flush();
+                payments.flush();
+            }
+            finally {
+                contracts.close();
+                payments.close();
+            }
+        }
+    }
+
+    private static final class MultiRowInsert implements AutoCloseable {
+        private final Connection connection;
+        private final String insert;
+        private final String row;
+        private final int columns;
+        private final int rowsPerStatement;
+        private final PreparedStatement full;
+        private Object[] values;
+        private int rows;
+
+        MultiRowInsert(Connection connection, String insert, String row, int columns, int rowsPerStatement) throws SQLException {
+            this.connection = connection;
+            this.insert = insert;
+            this.row = row;
+            this.columns = columns;
+            this.rowsPerStatement = rowsPerStatement;
+            this.values = new Object[columns * rowsPerStatement];
+            this.full = connection.prepareStatement(sql(rowsPerStatement));
+        }
+
+        void add(Object... rowValues) {
+            if ((rows + 1) * columns > values.length) values = Arrays.copyOf(values, values.length * 2);
+
+            System.arraycopy(rowValues, 0, values, rows * columns, columns);
+            rows++;
+        }
+
+        boolean isFull() {
+            return rows >= rowsPerStatement;
+        }
+
+        // Writes every complete statement's worth of rows and keeps the remainder buffered
+        void executeFull() throws SQLException {
+            int done = 0;
+
+            for (; rows - done >= rowsPerStatement; done += rowsPerStatement) {
+                execute(full, done, rowsPerStatement);
+            }
+
+            System.arraycopy(values, done * columns, values, 0, (rows - done) * columns);
+            rows -= done;
+        }
+
+        void flush() throws SQLException {
+            executeFull();
+            if (rows == 0) return;
+
+            try (PreparedStatement tail = connection.prepareStatement(sql(rows))) {
+                execute(tail, 0, rows);
+            }
+
+            rows = 0;
+        }
+
+        private void execute(PreparedStatement ps, int fromRow, int count) throws SQLException {
+            int offset = fromRow * columns;
+
+            for (int i = 0; i < count * columns; i++) {
+                ps.setObject(i + 1, values[offset + i]);
+            }
+
+            ps.executeUpdate();
+        }
+
+        private String sql(int count) {
+            StringBuilder sql = new StringBuilder(insert.length() + count * (row.length() + 2)).append(insert);
+
+            for (int i = 0; i < count; i++) {
+                if (i > 0) sql.append(", ");
+                sql.append(row);
+            }
+
+            return sql.toString();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            full.close();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.RealEstate.dataset;
+
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+
+// Every contract draws from its own stream derived from (seed, id), so output only depends on the
+// profile and the first id, not on how much was generated before it.
+public class PortfolioGenerator {
+    private static final long ID_MIX = 0x9E3779B97F4A7C15L;
+    private static final BigDecimal TEN = BigDecimal.TEN;
+
+    private static final String[] FIRST_NAMES = {
+            "Mateo", "Sofia", "Liam", "Olivia", "Noah", "Emma", "Lucas", "Mia", "Elias", "Amelia",
+            "Hugo", "Chloe", "Leo", "Alice", "Arthur", "Nora", "Felix", "Clara", "Adam", "Ines"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Garcia", "Muller", "Rossi", "Silva", "Novak", "Kowalski", "Jensen", "Dubois", "Costa", "Horvat",
+            "Nielsen", "Moreau", "Bauer", "Santos", "Ivanov", "Lindqvist", "Petrov", "Marino", "Weber", "Lopez"
+    };
+
+    private final PortfolioProfile profile;
+    private final PropertyType[] types;
+    private final int[] cumulativeWeights;
+
+    public PortfolioGenerator(PortfolioProfile profile) {
+        this.profile = profile;
+        this.types = PropertyType.values();
+        this.cumulativeWeights = new int[types.length];
+
+        int sum = 0;
+
+        for (int i = 0; i < types.length; i++) {
+            sum += profile.getTypeWeights().getOrDefault(types[i], 0);
+            cumulativeWeights[i] = sum;
+        }
+
+        if (sum == 0) throw new IllegalArgumentException("At least one property type needs a positive weight");
+    }
+
+    public long generate(long firstId, PortfolioSink sink) {
+        long payments = 0;
+
+        for (long id = firstId; id < firstId + profile.getContracts(); id++) {
+            payments += generateContract(id, sink);
+        }
+
+        return payments;
+    }
+
+    private int generateContract(long id, PortfolioSink sink) {
+        SplittableRandom random = new SplittableRandom(profile.getSeed() ^ (id * ID_MIX));
+        LocalDate asOf = profile.getAsOf();
+
+        PropertyType propertyType = pickType(random);
+        BigDecimal rent = pickRent(random, profile.getRentRange(propertyType));
+        String tenantName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+
+        int term = random.nextInt(profile.getMinTermMonths(), profile.getMaxTermMonths() + 1);
+        LocalDate startDate = asOf.minusMonths(random.nextInt(profile.getHistoryMonths() + 1)).withDayOfMonth(random.nextInt(1, 29));
+        LocalDate endDate = startDate.plusMonths(term);
+        BigDecimal total = rent.multiply(BigDecimal.valueOf(ChronoUnit.MONTHS.between(startDate, endDate)));
+
+        boolean ended = endDate.isBefore(asOf);
+        int elapsed = (int) Math.min(Math.max(ChronoUnit.MONTHS.between(startDate, asOf), 0), term);
+        int paidMonths;
+        Status status;
+
+        if (!ended) {
+            paidMonths = 0;
+            for (int month = 0; month < elapsed; month++) {
+                if (random.nextDouble() < profile.getPaymentRegularity()) paidMonths++;
+            }
+            status = paidMonths == term ? Status.COMPLETED : Status.ACTIVE;
+        }
+        else if (random.nextDouble() < profile.getOverdueRatio()) {
+            paidMonths = random.nextInt(term);
+            status = Status.OVERDUE;
+        }
+        else {
+            paidMonths = term;
+            status = Status.COMPLETED;
+        }
+
+        if (paidMonths > profile.getMaxPaymentsPerContract()) {
+            paidMonths = profile.getMaxPaymentsPerContract();
+            status = ended ? Status.OVERDUE : Status.ACTIVE;
+        }
+
+        BigDecimal paidTotal = rent.multiply(BigDecimal.valueOf(paidMonths));
+
+        sink.contract(id, tenantName, propertyType, rent, startDate, endDate, status, total, paidTotal);
+
+        for (int month = 0; month < paidMonths; month++) {
+            int lateDays = random.nextDouble() < profile.getPaymentRegularity() ? random.nextInt(3) : random.nextInt(3, 25);
+
+            sink.payment(id, startDate.plusMonths(month).plusDays(lateDays), rent);
+        }
+
+        return paidMonths;
+    }
+
+    private PropertyType pickType(SplittableRandom random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+
+        for (int i = 0; i < types.length; i++) {
+            if (roll < cumulativeWeights[i]) return types[i];
+        }
+
+        return types[types.length - 1];
+    }
+
+    // Log-uniform, so cheap units are more common than expensive ones; rounded to tens
+    private BigDecimal pickRent(SplittableRandom random, BigDecimal[] range) {
+        double min = Math.log(range[0].doubleValue());
+        double max = Math.log(range[1].doubleValue());
+        double rent = Math.exp(min + random.nextDouble() * (max - min));
+
+        return BigDecimal.valueOf(rent).divide(TEN, 0, RoundingMode.HALF_UP).multiply(TEN).setScale(2);
+    }
+}
@@ -0,0 +1,138 @@
+package org.RealEstate.dataset;
+
+import org.RealEstate.enums.PropertyType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Shape of a generated portfolio. Defaults give a mixed book of five years of contracts.
+// asOf is a fixed date unless set, so a seed generates the same rows whatever day it runs on.
+public class PortfolioProfile {
+    public static final LocalDate DEFAULT_AS_OF = LocalDate.of(2025, 1, 1);
+
+    private long seed = 42;
+    private int contracts = 10_000;
+    private LocalDate asOf = DEFAULT_AS_OF;
+    private final Map<PropertyType, Integer> typeWeights = new EnumMap<>(PropertyType.class);
+    private final Map<PropertyType, BigDecimal[]> rentRanges = new EnumMap<>(PropertyType.class);
+    private int historyMonths = 60;
+    private int minTermMonths = 6;
+    private int maxTermMonths = 36;
+    private double paymentRegularity = 0.9;
+    private double overdueRatio = 0.1;
+    private int maxPaymentsPerContract = Integer.MAX_VALUE;
+
+    public PortfolioProfile() {
+        typeWeights.put(PropertyType.APARTMENT, 60);
+        typeWeights.put(PropertyType.HOUSE, 30);
+        typeWeights.put(PropertyType.OFFICE, 10);
+
+        rentRanges.put(PropertyType.APARTMENT, new BigDecimal[]{new BigDecimal(400), new BigDecimal(2500)});
+        rentRanges.put(PropertyType.HOUSE, new BigDecimal[]{new BigDecimal(800), new BigDecimal(4000)});
+        rentRanges.put(PropertyType.OFFICE, new BigDecimal[]{new BigDecimal(1500), new BigDecimal(12000)});
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getContracts() {
+        return contracts;
+    }
+
+    public void setContracts(int contracts) {
+        if (contracts < 0) throw new IllegalArgumentException("Contract count must not be negative");
+
+        this.contracts = contracts;
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDate asOf) {
+        this.asOf = asOf;
+    }
+
+    public Map<PropertyType, Integer> getTypeWeights() {
+        return typeWeights;
+    }
+
+    public void setTypeWeight(PropertyType propertyType, int weight) {
+        if (weight < 0) throw new IllegalArgumentException("Weight must not be negative");
+
+        typeWeights.put(propertyType, weight);
+    }
+
+    public BigDecimal[] getRentRange(PropertyType propertyType) {
+        return rentRanges.get(propertyType);
+    }
+
+    public void setRentRange(PropertyType propertyType, BigDecimal min, BigDecimal max) {
+        if (min.signum() <= 0 || max.compareTo(min) < 0) throw new IllegalArgumentException("Invalid rent range");
+
+        rentRanges.put(propertyType, new BigDecimal[]{min, max});
+    }
+
+    public int getHistoryMonths() {
+        return historyMonths;
+    }
+
+    public void setHistoryMonths(int historyMonths) {
+        this.historyMonths = historyMonths;
+    }
+
+    public int getMinTermMonths() {
+        return minTermMonths;
+    }
+
+    public int getMaxTermMonths() {
+        return maxTermMonths;
+    }
+
+    public void setTermMonths(int minTermMonths, int maxTermMonths) {
+        if (minTermMonths <= 0 || maxTermMonths < minTermMonths) throw new IllegalArgumentException("Invalid term range");
+
+        this.minTermMonths = minTermMonths;
+        this.maxTermMonths = maxTermMonths;
+    }
+
+    public double getPaymentRegularity() {
+        return paymentRegularity;
+    }
+
+    // Chance that a tenant pays any given month of a running contract
+    public void setPaymentRegularity(double paymentRegularity) {
+        if (paymentRegularity < 0 || paymentRegularity > 1) throw new IllegalArgumentException("Regularity must be between 0 and 1");
+
+        this.paymentRegularity = paymentRegularity;
+    }
+
+    public double getOverdueRatio() {
+        return overdueRatio;
+    }
+
+    // Share of ended contracts that still owe money
+    public void setOverdueRatio(double overdueRatio) {
+        if (overdueRatio < 0 || overdueRatio > 1) throw new IllegalArgumentException("Overdue ratio must be between 0 and 1");
+
+        this.overdueRatio = overdueRatio;
+    }
+
+    public int getMaxPaymentsPerContract() {
+        return maxPaymentsPerContract;
+    }
+
+    // Most payments any one contract gets. A contract cut short stays open: ACTIVE, or OVERDUE once it has ended
+    public void setMaxPaymentsPerContract(int maxPaymentsPerContract) {
+        if (maxPaymentsPerContract < 0) throw new IllegalArgumentException("Payments per contract must not be negative");
+
+        this.maxPaymentsPerContract = maxPaymentsPerContract;
+    }
+}
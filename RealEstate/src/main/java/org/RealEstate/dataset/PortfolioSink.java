@@ -0,0 +1,14 @@
+package org.RealEstate.dataset;
+
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface PortfolioSink {
+    void contract(long id, String tenantName, PropertyType propertyType, BigDecimal monthlyRent,
+                  LocalDate startDate, LocalDate endDate, Status status, BigDecimal total, BigDecimal paidTotal);
+
+    void payment(long contractId, LocalDate payDate, BigDecimal amount);
+}
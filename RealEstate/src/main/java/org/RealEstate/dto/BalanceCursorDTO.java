@@ -0,0 +1,21 @@
+package org.RealEstate.dto;
+
+import java.math.BigDecimal;
+
+public class BalanceCursorDTO {
+    private BigDecimal value;
+    private long id;
+
+    public BalanceCursorDTO(BigDecimal value, long id) {
+        this.value = value;
+        this.id = id;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
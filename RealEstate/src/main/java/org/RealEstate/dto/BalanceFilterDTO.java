@@ -0,0 +1,101 @@
+package org.RealEstate.dto;
+
+import org.RealEstate.enums.BalanceSort;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+
+import java.math.BigDecimal;
+
+// Bounds are inclusive and optional; rows come back ordered by sortBy, then id, both ascending or both descending
+public class BalanceFilterDTO {
+    private PropertyType propertyType;
+    private Status status;
+    private BigDecimal minTotal;
+    private BigDecimal maxTotal;
+    private BigDecimal minPaid;
+    private BigDecimal maxPaid;
+    private BigDecimal minOutstanding;
+    private BigDecimal maxOutstanding;
+    private BalanceSort sortBy = BalanceSort.OUTSTANDING;
+    private boolean descending = true;
+
+    public PropertyType getPropertyType() {
+        return propertyType;
+    }
+
+    public void setPropertyType(PropertyType propertyType) {
+        this.propertyType = propertyType;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public BigDecimal getMinTotal() {
+        return minTotal;
+    }
+
+    public void setMinTotal(BigDecimal minTotal) {
+        this.minTotal = minTotal;
+    }
+
+    public BigDecimal getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(BigDecimal maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public BigDecimal getMinPaid() {
+        return minPaid;
+    }
+
+    public void setMinPaid(BigDecimal minPaid) {
+        this.minPaid = minPaid;
+    }
+
+    public BigDecimal getMaxPaid() {
+        return maxPaid;
+    }
+
+    public void setMaxPaid(BigDecimal maxPaid) {
+        this.maxPaid = maxPaid;
+    }
+
+    public BigDecimal getMinOutstanding() {
+        return minOutstanding;
+    }
+
+    public void setMinOutstanding(BigDecimal minOutstanding) {
+        this.minOutstanding = minOutstanding;
+    }
+
+    public BigDecimal getMaxOutstanding() {
+        return maxOutstanding;
+    }
+
+    public void setMaxOutstanding(BigDecimal maxOutstanding) {
+        this.maxOutstanding = maxOutstanding;
+    }
+
+    public BalanceSort getSortBy() {
+        return sortBy;
+    }
+
+    public void setSortBy(BalanceSort sortBy) {
+        this.sortBy = sortBy;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public void setDescending(boolean descending) {
+        this.descending = descending;
+    }
+}
@@ -0,0 +1,31 @@
+package org.RealEstate.dto;
+
+public class BulkLoadResultDTO {
+    private long firstContractId;
+    private long contracts;
+    private long payments;
+    private long elapsedMillis;
+
+    public BulkLoadResultDTO(long firstContractId, long contracts, long payments, long elapsedMillis) {
+        this.firstContractId = firstContractId;
+        this.contracts = contracts;
+        this.payments = payments;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getFirstContractId() {
+        return firstContractId;
+    }
+
+    public long getContracts() {
+        return contracts;
+    }
+
+    public long getPayments() {
+        return payments;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
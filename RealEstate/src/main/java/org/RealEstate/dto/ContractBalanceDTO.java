@@ -0,0 +1,62 @@
+package org.RealEstate.dto;
+
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class ContractBalanceDTO {
+    private long id;
+    private String tenantName;
+    private PropertyType propertyType;
+    private Status status;
+    private LocalDate endDate;
+    private BigDecimal total;
+    private BigDecimal paidTotal;
+    private BigDecimal outstanding;
+
+    public ContractBalanceDTO(long id, String tenantName, PropertyType propertyType, Status status, LocalDate endDate,
+                              BigDecimal total, BigDecimal paidTotal, BigDecimal outstanding) {
+        this.id = id;
+        this.tenantName = tenantName;
+        this.propertyType = propertyType;
+        this.status = status;
+        this.endDate = endDate;
+        this.total = total;
+        this.paidTotal = paidTotal;
+        this.outstanding = outstanding;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTenantName() {
+        return tenantName;
+    }
+
+    public PropertyType getPropertyType() {
+        return propertyType;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public BigDecimal getPaidTotal() {
+        return paidTotal;
+    }
+
+    public BigDecimal getOutstanding() {
+        return outstanding;
+    }
+}
@@ -0,0 +1,25 @@
+package org.RealEstate.dto;
+
+import java.util.List;
+
+public class ContractBalancePageDTO {
+    private List<ContractBalanceDTO> rows;
+    private BalanceCursorDTO next;
+
+    public ContractBalancePageDTO(List<ContractBalanceDTO> rows, BalanceCursorDTO next) {
+        this.rows = rows;
+        this.next = next;
+    }
+
+    public List<ContractBalanceDTO> getRows() {
+        return rows;
+    }
+
+    public BalanceCursorDTO getNext() {
+        return next;
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
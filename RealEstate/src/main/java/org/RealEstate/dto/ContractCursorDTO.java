@@ -0,0 +1,21 @@
+package org.RealEstate.dto;
+
+import java.time.LocalDate;
+
+public class ContractCursorDTO {
+    private LocalDate startDate;
+    private long id;
+
+    public ContractCursorDTO(LocalDate startDate, long id) {
+        this.startDate = startDate;
+        this.id = id;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,27 @@
+package org.RealEstate.dto;
+
+import org.RealEstate.models.Contract;
+
+import java.util.List;
+
+public class ContractPageDTO {
+    private List<Contract> contracts;
+    private ContractCursorDTO next;
+
+    public ContractPageDTO(List<Contract> contracts, ContractCursorDTO next) {
+        this.contracts = contracts;
+        this.next = next;
+    }
+
+    public List<Contract> getContracts() {
+        return contracts;
+    }
+
+    public ContractCursorDTO getNext() {
+        return next;
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
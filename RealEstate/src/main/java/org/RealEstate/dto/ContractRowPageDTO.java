@@ -0,0 +1,25 @@
+package org.RealEstate.dto;
+
+import java.util.List;
+
+public class ContractRowPageDTO {
+    private List<ContractSearchRowDTO> rows;
+    private ContractCursorDTO next;
+
+    public ContractRowPageDTO(List<ContractSearchRowDTO> rows, ContractCursorDTO next) {
+        this.rows = rows;
+        this.next = next;
+    }
+
+    public List<ContractSearchRowDTO> getRows() {
+        return rows;
+    }
+
+    public ContractCursorDTO getNext() {
+        return next;
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,61 @@
+package org.RealEstate.dto;
+
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class ContractSearchRowDTO {
+    private long id;
+    private String tenantName;
+    private PropertyType propertyType;
+    private BigDecimal monthlyRent;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Status status;
+    private BigDecimal total;
+
+    public ContractSearchRowDTO(long id, String tenantName, PropertyType propertyType, BigDecimal monthlyRent, LocalDate startDate, LocalDate endDate, Status status, BigDecimal total) {
+        this.id = id;
+        this.tenantName = tenantName;
+        this.propertyType = propertyType;
+        this.monthlyRent = monthlyRent;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+        this.total = total;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTenantName() {
+        return tenantName;
+    }
+
+    public PropertyType getPropertyType() {
+        return propertyType;
+    }
+
+    public BigDecimal getMonthlyRent() {
+        return monthlyRent;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,89 @@
+package org.RealEstate.dto;
+
+import org.RealEstate.enums.ExportFormat;
+import org.RealEstate.enums.ExportTable;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+
+import java.time.LocalDate;
+
+public class ExportRequestDTO {
+    private ExportTable table;
+    private ExportFormat format;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Status status;
+    private PropertyType propertyType;
+    private Long afterId;
+    private Long untilId;
+    private boolean gzip;
+
+    public ExportRequestDTO(ExportTable table, ExportFormat format) {
+        this.table = table;
+        this.format = format;
+    }
+
+    public ExportTable getTable() {
+        return table;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public PropertyType getPropertyType() {
+        return propertyType;
+    }
+
+    public void setPropertyType(PropertyType propertyType) {
+        this.propertyType = propertyType;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public void setAfterId(Long afterId) {
+        this.afterId = afterId;
+    }
+
+    public Long getUntilId() {
+        return untilId;
+    }
+
+    public void setUntilId(Long untilId) {
+        this.untilId = untilId;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+}
@@ -0,0 +1,31 @@
+package org.RealEstate.dto;
+
+public class ExportResultDTO {
+    private long rows;
+    private Long lastId;
+    private long bytes;
+    private long elapsedMillis;
+
+    public ExportResultDTO(long rows, Long lastId, long bytes, long elapsedMillis) {
+        this.rows = rows;
+        this.lastId = lastId;
+        this.bytes = bytes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
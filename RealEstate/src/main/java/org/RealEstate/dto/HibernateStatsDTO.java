@@ -0,0 +1,106 @@
+package org.RealEstate.dto;
+
+public class HibernateStatsDTO {
+    private long sessionsOpened;
+    private long sessionsClosed;
+    private long transactions;
+    private long connections;
+    private long statementsPrepared;
+    private long queries;
+    private long queryMaxMillis;
+    private long entitiesLoaded;
+    private long entitiesFetched;
+    private long entitiesInserted;
+    private long entitiesUpdated;
+    private long secondLevelHits;
+    private long secondLevelMisses;
+    private long queryCacheHits;
+    private long queryCacheMisses;
+    private long optimisticFailures;
+
+    public HibernateStatsDTO(long sessionsOpened, long sessionsClosed, long transactions, long connections, long statementsPrepared,
+                             long queries, long queryMaxMillis, long entitiesLoaded, long entitiesFetched, long entitiesInserted,
+                             long entitiesUpdated, long secondLevelHits, long secondLevelMisses, long queryCacheHits,
+                             long queryCacheMisses, long optimisticFailures) {
+        this.sessionsOpened = sessionsOpened;
+        this.sessionsClosed = sessionsClosed;
+        this.transactions = transactions;
+        this.connections = connections;
+        this.statementsPrepared = statementsPrepared;
+        this.queries = queries;
+        this.queryMaxMillis = queryMaxMillis;
+        this.entitiesLoaded = entitiesLoaded;
+        this.entitiesFetched = entitiesFetched;
+        this.entitiesInserted = entitiesInserted;
+        this.entitiesUpdated = entitiesUpdated;
+        this.secondLevelHits = secondLevelHits;
+        this.secondLevelMisses = secondLevelMisses;
+        this.queryCacheHits = queryCacheHits;
+        this.queryCacheMisses = queryCacheMisses;
+        this.optimisticFailures = optimisticFailures;
+    }
+
+    public long getSessionsOpened() {
+        return sessionsOpened;
+    }
+
+    public long getSessionsClosed() {
+        return sessionsClosed;
+    }
+
+    public long getTransactions() {
+        return transactions;
+    }
+
+    public long getConnections() {
+        return connections;
+    }
+
+    public long getStatementsPrepared() {
+        return statementsPrepared;
+    }
+
+    public long getQueries() {
+        return queries;
+    }
+
+    public long getQueryMaxMillis() {
+        return queryMaxMillis;
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public long getEntitiesFetched() {
+        return entitiesFetched;
+    }
+
+    public long getEntitiesInserted() {
+        return entitiesInserted;
+    }
+
+    public long getEntitiesUpdated() {
+        return entitiesUpdated;
+    }
+
+    public long getSecondLevelHits() {
+        return secondLevelHits;
+    }
+
+    public long getSecondLevelMisses() {
+        return secondLevelMisses;
+    }
+
+    public long getQueryCacheHits() {
+        return queryCacheHits;
+    }
+
+    public long getQueryCacheMisses() {
+        return queryCacheMisses;
+    }
+
+    public long getOptimisticFailures() {
+        return optimisticFailures;
+    }
+}
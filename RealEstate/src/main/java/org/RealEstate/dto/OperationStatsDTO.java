@@ -0,0 +1,76 @@
+package org.RealEstate.dto;
+
+import org.RealEstate.enums.Operation;
+
+public class OperationStatsDTO {
+    private Operation operation;
+    private long calls;
+    private long p50Micros;
+    private long p99Micros;
+    private long p999Micros;
+    private long maxMicros;
+    private long sessions;
+    private long statements;
+    private long queries;
+    private long rows;
+    private long entities;
+
+    public OperationStatsDTO(Operation operation, long calls, long p50Micros, long p99Micros, long p999Micros, long maxMicros,
+                             long sessions, long statements, long queries, long rows, long entities) {
+        this.operation = operation;
+        this.calls = calls;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.p999Micros = p999Micros;
+        this.maxMicros = maxMicros;
+        this.sessions = sessions;
+        this.statements = statements;
+        this.queries = queries;
+        this.rows = rows;
+        this.entities = entities;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    public long getP999Micros() {
+        return p999Micros;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    public long getSessions() {
+        return sessions;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getQueries() {
+        return queries;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getEntities() {
+        return entities;
+    }
+}
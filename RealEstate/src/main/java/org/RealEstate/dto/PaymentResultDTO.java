@@ -0,0 +1,41 @@
+package org.RealEstate.dto;
+
+import org.RealEstate.enums.PaymentOutcome;
+
+import java.math.BigDecimal;
+
+public class PaymentResultDTO {
+    private long line;
+    private Long contractId;
+    private BigDecimal amount;
+    private PaymentOutcome outcome;
+    private String message;
+
+    public PaymentResultDTO(long line, Long contractId, BigDecimal amount, PaymentOutcome outcome, String message) {
+        this.line = line;
+        this.contractId = contractId;
+        this.amount = amount;
+        this.outcome = outcome;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public Long getContractId() {
+        return contractId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public PaymentOutcome getOutcome() {
+        return outcome;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
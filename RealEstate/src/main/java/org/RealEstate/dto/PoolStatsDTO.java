@@ -0,0 +1,55 @@
+package org.RealEstate.dto;
+
+public class PoolStatsDTO {
+    private int active;
+    private int idle;
+    private int total;
+    private int waiters;
+    private int maxSize;
+    private long acquisitions;
+    private long avgAcquireMicros;
+    private long maxAcquireMicros;
+
+    public PoolStatsDTO(int active, int idle, int total, int waiters, int maxSize, long acquisitions, long avgAcquireMicros, long maxAcquireMicros) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.waiters = waiters;
+        this.maxSize = maxSize;
+        this.acquisitions = acquisitions;
+        this.avgAcquireMicros = avgAcquireMicros;
+        this.maxAcquireMicros = maxAcquireMicros;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getWaiters() {
+        return waiters;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    public long getAvgAcquireMicros() {
+        return avgAcquireMicros;
+    }
+
+    public long getMaxAcquireMicros() {
+        return maxAcquireMicros;
+    }
+}
@@ -0,0 +1,49 @@
+package org.RealEstate.dto;
+
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class RevenueRollupDTO {
+    private LocalDate month;
+    private PropertyType propertyType;
+    private Status status;
+    private long contractCount;
+    private BigDecimal expectedRevenue;
+    private BigDecimal collectedRevenue;
+
+    public RevenueRollupDTO(LocalDate month, PropertyType propertyType, Status status, long contractCount, BigDecimal expectedRevenue, BigDecimal collectedRevenue) {
+        this.month = month;
+        this.propertyType = propertyType;
+        this.status = status;
+        this.contractCount = contractCount;
+        this.expectedRevenue = expectedRevenue;
+        this.collectedRevenue = collectedRevenue;
+    }
+
+    public LocalDate getMonth() {
+        return month;
+    }
+
+    public PropertyType getPropertyType() {
+        return propertyType;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getContractCount() {
+        return contractCount;
+    }
+
+    public BigDecimal getExpectedRevenue() {
+        return expectedRevenue;
+    }
+
+    public BigDecimal getCollectedRevenue() {
+        return collectedRevenue;
+    }
+}
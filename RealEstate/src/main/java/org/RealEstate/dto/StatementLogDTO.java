@@ -0,0 +1,57 @@
+package org.RealEstate.dto;
+
+public class StatementLogDTO {
+    private String sql;
+    private String bound;
+    private long rows;
+    private long executeMicros;
+    private long fetchMicros;
+    private String origin;
+    private boolean slow;
+    private String error;
+
+    public StatementLogDTO(String sql, String bound, long rows, long executeMicros, long fetchMicros, String origin, boolean slow, String error) {
+        this.sql = sql;
+        this.bound = bound;
+        this.rows = rows;
+        this.executeMicros = executeMicros;
+        this.fetchMicros = fetchMicros;
+        this.origin = origin;
+        this.slow = slow;
+        this.error = error;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    // the driver's rendering of the statement with its parameters, null for plain statements
+    public String getBound() {
+        return bound;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getExecuteMicros() {
+        return executeMicros;
+    }
+
+    public long getFetchMicros() {
+        return fetchMicros;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public boolean isSlow() {
+        return slow;
+    }
+
+    // null unless the execute threw
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,31 @@
+package org.RealEstate.dto;
+
+public class StatementSummaryDTO {
+    private long lines;
+    private long posted;
+    private long rejected;
+    private long unknownContract;
+
+    public StatementSummaryDTO(long lines, long posted, long rejected, long unknownContract) {
+        this.lines = lines;
+        this.posted = posted;
+        this.rejected = rejected;
+        this.unknownContract = unknownContract;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public long getPosted() {
+        return posted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getUnknownContract() {
+        return unknownContract;
+    }
+}
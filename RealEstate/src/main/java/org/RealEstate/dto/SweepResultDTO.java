@@ -0,0 +1,31 @@
+package org.RealEstate.dto;
+
+public class SweepResultDTO {
+    private int partitions;
+    private long chunks;
+    private long marked;
+    private long elapsedMillis;
+
+    public SweepResultDTO(int partitions, long chunks, long marked, long elapsedMillis) {
+        this.partitions = partitions;
+        this.chunks = chunks;
+        this.marked = marked;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public long getChunks() {
+        return chunks;
+    }
+
+    public long getMarked() {
+        return marked;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
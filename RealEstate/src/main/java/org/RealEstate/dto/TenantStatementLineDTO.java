@@ -0,0 +1,94 @@
+package org.RealEstate.dto;
+
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One payment of a contract with the contract's columns repeated; a contract without payments gets a
+// single line whose payment columns are null
+public class TenantStatementLineDTO {
+    private long contractId;
+    private String tenantName;
+    private PropertyType propertyType;
+    private BigDecimal monthlyRent;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Status status;
+    private BigDecimal total;
+    private BigDecimal paidTotal;
+    private BigDecimal outstanding;
+    private Long paymentId;
+    private LocalDate payDate;
+    private BigDecimal amount;
+
+    public TenantStatementLineDTO(long contractId, String tenantName, PropertyType propertyType, BigDecimal monthlyRent, LocalDate startDate, LocalDate endDate, Status status,
+                                  BigDecimal total, BigDecimal paidTotal, BigDecimal outstanding, Long paymentId, LocalDate payDate, BigDecimal amount) {
+        this.contractId = contractId;
+        this.tenantName = tenantName;
+        this.propertyType = propertyType;
+        this.monthlyRent = monthlyRent;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+        this.total = total;
+        this.paidTotal = paidTotal;
+        this.outstanding = outstanding;
+        this.paymentId = paymentId;
+        this.payDate = payDate;
+        this.amount = amount;
+    }
+
+    public long getContractId() {
+        return contractId;
+    }
+
+    public String getTenantName() {
+        return tenantName;
+    }
+
+    public PropertyType getPropertyType() {
+        return propertyType;
+    }
+
+    public BigDecimal getMonthlyRent() {
+        return monthlyRent;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public BigDecimal getPaidTotal() {
+        return paidTotal;
+    }
+
+    public BigDecimal getOutstanding() {
+        return outstanding;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public LocalDate getPayDate() {
+        return payDate;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+}
@@ -0,0 +1,17 @@
+package org.RealEstate.enums;
+
+public enum BalanceSort {
+    TOTAL("total"),
+    PAID_TOTAL("paidTotal"),
+    OUTSTANDING("outstanding");
+
+    private final String attribute;
+
+    BalanceSort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+}
@@ -0,0 +1,9 @@
+package org.RealEstate.enums;
+
+public enum ExportColumnType {
+    LONG,
+    STRING,
+    DECIMAL,
+    DATE,
+    ENUM
+}
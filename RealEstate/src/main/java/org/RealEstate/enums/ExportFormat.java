@@ -0,0 +1,6 @@
+package org.RealEstate.enums;
+
+public enum ExportFormat {
+    CSV,
+    COLUMNAR
+}
@@ -0,0 +1,19 @@
+package org.RealEstate.enums;
+
+public enum Operation {
+    MAKE_PAYMENT,
+    MAKE_PAYMENTS,
+    RECALCULATE_BALANCES,
+    SEARCH_CONTRACTS,
+    SEARCH_CONTRACTS_PAGE,
+    STREAM_CONTRACTS,
+    SEARCH_CONTRACT_ROWS,
+    SEARCH_CONTRACT_ROWS_PAGE,
+    FINISHED_SUMMARY,
+    MONTHLY_REVENUE,
+    REBUILD_REVENUE_ROLLUP,
+    CACHE_STATS,
+    UNFINISHED_SUMMARY,
+    TENANT_STATEMENT,
+    SEARCH_BALANCES
+}
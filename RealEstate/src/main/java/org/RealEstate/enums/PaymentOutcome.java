@@ -0,0 +1,7 @@
+package org.RealEstate.enums;
+
+public enum PaymentOutcome {
+    POSTED,
+    REJECTED,
+    UNKNOWN_CONTRACT
+}
@@ -0,0 +1,107 @@
+package org.RealEstate.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+// Fixed-size write buffer in front of a channel; the only memory an export holds besides one row group.
+// Writers mark the id of each row (or row group) they finish; getWrittenId() is the last marked id whose
+// bytes have all been handed to the channel, which is where a failed export resumes.
+final class ChannelSink implements Closeable {
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    // {end position, id} of marks still (partly) in the buffer
+    private final ArrayDeque<long[]> marks = new ArrayDeque<>();
+    private long drained;
+    private Long writtenId;
+    // a failed write leaves the buffer half consumed; nothing more is sent after it
+    private boolean failed;
+
+    ChannelSink(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    void put(byte value) throws IOException {
+        if (!buffer.hasRemaining()) drain();
+        buffer.put(value);
+    }
+
+    void put(byte[] bytes) throws IOException {
+        int offset = 0;
+
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) drain();
+
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    void putAscii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) put((byte) value.charAt(i));
+    }
+
+    void putUtf8(String value) throws IOException {
+        put(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void putVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        put((byte) value);
+    }
+
+    void putZigZag(long value) throws IOException {
+        putVarLong((value << 1) ^ (value >> 63));
+    }
+
+    // everything put so far completes the row with this id
+    void mark(long id) {
+        marks.add(new long[]{drained + buffer.position(), id});
+    }
+
+    Long getWrittenId() {
+        return writtenId;
+    }
+
+    void flush() throws IOException {
+        drain();
+    }
+
+    private void drain() throws IOException {
+        if (failed) return;
+
+        buffer.flip();
+
+        try {
+            while (buffer.hasRemaining()) drained += channel.write(buffer);
+            buffer.clear();
+        }
+        catch (IOException | RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+        finally {
+            while (!marks.isEmpty() && marks.peek()[0] <= drained) writtenId = marks.poll()[1];
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        }
+        finally {
+            channel.close();
+        }
+    }
+}
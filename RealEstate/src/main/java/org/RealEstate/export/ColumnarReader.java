@@ -0,0 +1,107 @@
+package org.RealEstate.export;
+
+import org.RealEstate.enums.ExportColumnType;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Reads the format written by ColumnarRowWriter back into rows. Enum columns come back as constant names.
+public final class ColumnarReader {
+    private ColumnarReader() {}
+
+    public static List<ExportColumn> read(InputStream input, Consumer<Object[]> rows) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input, ChannelSink.BUFFER_SIZE));
+
+        byte[] magic = new byte[ColumnarRowWriter.MAGIC.length];
+        in.readFully(magic);
+
+        if (!Arrays.equals(magic, ColumnarRowWriter.MAGIC) || in.readUnsignedByte() != ColumnarRowWriter.VERSION) {
+            throw new IOException("Not a columnar export");
+        }
+
+        List<ExportColumn> columns = new ArrayList<>();
+        int count = (int) readVarLong(in);
+
+        for (int i = 0; i < count; i++) {
+            String name = readString(in);
+            ExportColumnType type = ExportColumnType.values()[in.readUnsignedByte()];
+            List<String> constants = new ArrayList<>();
+
+            if (type == ExportColumnType.ENUM) {
+                int size = (int) readVarLong(in);
+                for (int c = 0; c < size; c++) constants.add(readString(in));
+            }
+
+            columns.add(new ExportColumn(name, type, constants));
+        }
+
+        for (int groupRows; (groupRows = (int) readVarLong(in)) > 0; ) {
+            Object[][] group = new Object[groupRows][count];
+
+            for (int i = 0; i < count; i++) {
+                ExportColumn column = columns.get(i);
+                long previous = 0;
+
+                for (int r = 0; r < groupRows; r++) {
+                    switch (column.getType()) {
+                        case LONG -> group[r][i] = previous += readZigZag(in);
+                        case DATE -> group[r][i] = LocalDate.ofEpochDay(previous += readZigZag(in));
+                        case DECIMAL -> group[r][i] = BigDecimal.valueOf(readZigZag(in), ColumnarRowWriter.DECIMAL_SCALE);
+                        case ENUM -> {
+                            int code = (int) readVarLong(in);
+                            group[r][i] = code == 0 ? null : column.getConstants().get(code - 1);
+                        }
+                        case STRING -> {
+                            int length = (int) readVarLong(in);
+                            if (length == 0) group[r][i] = null;
+                            else {
+                                byte[] bytes = new byte[length - 1];
+                                in.readFully(bytes);
+                                group[r][i] = new String(bytes, StandardCharsets.UTF_8);
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (Object[] row : group) rows.accept(row);
+        }
+
+        return columns;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long readZigZag(DataInputStream in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) throw new EOFException();
+
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+
+        throw new IOException("Malformed varint");
+    }
+}
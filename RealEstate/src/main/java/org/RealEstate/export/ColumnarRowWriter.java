@@ -0,0 +1,138 @@
+package org.RealEstate.export;
+
+import org.RealEstate.enums.ExportColumnType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+// Layout, all integers as unsigned LEB128 varints unless noted:
+//   header    "REXC", version byte, column count, then per column: name, type ordinal, enum constants (ENUM only)
+//   row group row count (> 0), then each column's values for the group:
+//             LONG, DATE  zigzag delta from the previous row (DATE as epoch day)
+//             DECIMAL     zigzag unscaled value at scale 2
+//             ENUM        constant index + 1, 0 for null
+//             STRING      UTF-8 length + 1 then bytes, 0 for null
+//   trailer   row count 0
+// LONG, DATE and DECIMAL have no null encoding; the exported columns are all NOT NULL, so a null there is
+// rejected with an IOException naming the column rather than written as a made-up value.
+// Only one row group (GROUP_SIZE rows) is buffered at a time.
+final class ColumnarRowWriter implements RowWriter {
+    static final byte[] MAGIC = {'R', 'E', 'X', 'C'};
+    static final int VERSION = 1;
+    static final int DECIMAL_SCALE = 2;
+    static final int GROUP_SIZE = 4096;
+
+    private final ChannelSink sink;
+    private final String[] names;
+    private final ExportColumnType[] types;
+    private final long[][] numbers;
+    private final String[][] strings;
+    private int rows;
+    private long lastId;
+
+    ColumnarRowWriter(ChannelSink sink, List<ExportColumn> columns) throws IOException {
+        this.sink = sink;
+        this.names = new String[columns.size()];
+        this.types = new ExportColumnType[columns.size()];
+        this.numbers = new long[columns.size()][];
+        this.strings = new String[columns.size()][];
+
+        sink.put(MAGIC);
+        sink.put((byte) VERSION);
+        sink.putVarLong(columns.size());
+
+        for (int i = 0; i < types.length; i++) {
+            ExportColumn column = columns.get(i);
+            names[i] = column.getName();
+            types[i] = column.getType();
+
+            putString(column.getName());
+            sink.put((byte) types[i].ordinal());
+
+            if (types[i] == ExportColumnType.ENUM) {
+                sink.putVarLong(column.getConstants().size());
+                for (String constant : column.getConstants()) putString(constant);
+            }
+
+            if (types[i] == ExportColumnType.STRING) strings[i] = new String[GROUP_SIZE];
+            else numbers[i] = new long[GROUP_SIZE];
+        }
+    }
+
+    @Override
+    public void write(Object[] row) throws IOException {
+        for (int i = 0; i < types.length; i++) {
+            Object value = row[i];
+
+            if (value == null && types[i] != ExportColumnType.ENUM && types[i] != ExportColumnType.STRING) {
+                throw new IOException("Column " + names[i] + " of row " + row[0] + " is null; " + types[i] + " columns have no null encoding");
+            }
+
+            switch (types[i]) {
+                case LONG -> numbers[i][rows] = ((Number) value).longValue();
+                case DATE -> numbers[i][rows] = ((LocalDate) value).toEpochDay();
+                case DECIMAL -> numbers[i][rows] = ((BigDecimal) value).setScale(DECIMAL_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+                case ENUM -> numbers[i][rows] = value == null ? 0 : ((Enum<?>) value).ordinal() + 1;
+                case STRING -> strings[i][rows] = (String) value;
+            }
+        }
+
+        lastId = (Long) row[0];
+
+        if (++rows == GROUP_SIZE) writeGroup();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (rows > 0) writeGroup();
+
+        sink.putVarLong(0);
+        sink.flush();
+    }
+
+    private void writeGroup() throws IOException {
+        sink.putVarLong(rows);
+
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case LONG, DATE -> {
+                    long previous = 0;
+                    for (int r = 0; r < rows; r++) {
+                        sink.putZigZag(numbers[i][r] - previous);
+                        previous = numbers[i][r];
+                    }
+                }
+                case DECIMAL -> {
+                    for (int r = 0; r < rows; r++) sink.putZigZag(numbers[i][r]);
+                }
+                case ENUM -> {
+                    for (int r = 0; r < rows; r++) sink.putVarLong(numbers[i][r]);
+                }
+                case STRING -> {
+                    for (int r = 0; r < rows; r++) {
+                        if (strings[i][r] == null) sink.putVarLong(0);
+                        else {
+                            byte[] bytes = strings[i][r].getBytes(StandardCharsets.UTF_8);
+                            sink.putVarLong(bytes.length + 1L);
+                            sink.put(bytes);
+                        }
+                        strings[i][r] = null;
+                    }
+                }
+            }
+        }
+
+        rows = 0;
+        sink.mark(lastId);
+    }
+
+    private void putString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        sink.putVarLong(bytes.length);
+        sink.put(bytes);
+    }
+}
@@ -0,0 +1,65 @@
+package org.RealEstate.export;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+// RFC 4180: comma separated, CRLF line ends, fields quoted only when they need it
+final class CsvRowWriter implements RowWriter {
+    private final ChannelSink sink;
+    private final int columns;
+
+    CsvRowWriter(ChannelSink sink, List<ExportColumn> columns) throws IOException {
+        this.sink = sink;
+        this.columns = columns.size();
+
+        for (int i = 0; i < this.columns; i++) {
+            if (i > 0) sink.put((byte) ',');
+            sink.putAscii(columns.get(i).getName());
+        }
+
+        sink.putAscii("\r\n");
+    }
+
+    @Override
+    public void write(Object[] row) throws IOException {
+        for (int i = 0; i < columns; i++) {
+            if (i > 0) sink.put((byte) ',');
+
+            Object value = row[i];
+
+            if (value == null) continue;
+
+            if (value instanceof String text) writeText(text);
+            else if (value instanceof BigDecimal decimal) sink.putAscii(decimal.toPlainString());
+            else if (value instanceof Enum<?> constant) sink.putAscii(constant.name());
+            else sink.putAscii(value.toString());
+        }
+
+        sink.putAscii("\r\n");
+        sink.mark((Long) row[0]);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        sink.flush();
+    }
+
+    private void writeText(String text) throws IOException {
+        boolean quote = false;
+
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+
+        if (!quote) {
+            sink.putUtf8(text);
+            return;
+        }
+
+        sink.put((byte) '"');
+        sink.putUtf8(text.replace("\"", "\"\""));
+        sink.put((byte) '"');
+    }
+}
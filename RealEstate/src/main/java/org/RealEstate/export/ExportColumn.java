@@ -0,0 +1,41 @@
+package org.RealEstate.export;
+
+import org.RealEstate.enums.ExportColumnType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExportColumn {
+    private final String name;
+    private final ExportColumnType type;
+    private final List<String> constants;
+
+    public ExportColumn(String name, ExportColumnType type) {
+        this(name, type, List.of());
+    }
+
+    public ExportColumn(String name, ExportColumnType type, List<String> constants) {
+        this.name = name;
+        this.type = type;
+        this.constants = constants;
+    }
+
+    static ExportColumn ofEnum(String name, Class<? extends Enum<?>> enumType) {
+        List<String> constants = new ArrayList<>();
+        for (Enum<?> constant : enumType.getEnumConstants()) constants.add(constant.name());
+
+        return new ExportColumn(name, ExportColumnType.ENUM, constants);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ExportColumnType getType() {
+        return type;
+    }
+
+    public List<String> getConstants() {
+        return constants;
+    }
+}
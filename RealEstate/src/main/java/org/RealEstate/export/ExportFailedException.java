@@ -0,0 +1,26 @@
+package org.RealEstate.export;
+
+import java.io.IOException;
+
+// An export that stopped partway. The file holds every row up to lastId, possibly followed by part of the
+// next row and without the columnar trailer; exporting again with afterId = lastId picks up from there.
+public class ExportFailedException extends IOException {
+    private final Long lastId;
+    private final long rows;
+
+    public ExportFailedException(Long lastId, long rows, Throwable cause) {
+        super("Export failed after " + (lastId == null ? "no rows" : "id " + lastId) + ": " + cause.getMessage(), cause);
+        this.lastId = lastId;
+        this.rows = rows;
+    }
+
+    // null when not a single row made it out
+    public Long getLastId() {
+        return lastId;
+    }
+
+    // rows handed to the writer, including any that were lost with the failure
+    public long getRows() {
+        return rows;
+    }
+}
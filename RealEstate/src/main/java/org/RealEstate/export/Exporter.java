@@ -0,0 +1,190 @@
+package org.RealEstate.export;
+
+import org.RealEstate.dto.ExportRequestDTO;
+import org.RealEstate.dto.ExportResultDTO;
+import org.RealEstate.enums.ExportColumnType;
+import org.RealEstate.enums.ExportFormat;
+import org.RealEstate.enums.ExportTable;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Streams rental_contract or rent_payment rows, in id order, to a CSV or columnar file.
+// Reads go through a stateless session in a read-only transaction with a forward-only cursor, so nothing
+// accumulates in a persistence context and no row locks are taken. Memory stays at one fetch batch plus
+// one row group whatever the table size.
+// An interrupted export is resumed by exporting again with afterId set to the last id that made it to disk.
+public class Exporter {
+    public static final int FETCH_SIZE = 1000;
+
+    static final List<ExportColumn> CONTRACT_COLUMNS = List.of(
+            new ExportColumn("contract_id", ExportColumnType.LONG),
+            new ExportColumn("tenant_name", ExportColumnType.STRING),
+            ExportColumn.ofEnum("property_type", PropertyType.class),
+            new ExportColumn("monthly_rent", ExportColumnType.DECIMAL),
+            new ExportColumn("start_date", ExportColumnType.DATE),
+            new ExportColumn("end_date", ExportColumnType.DATE),
+            ExportColumn.ofEnum("status", Status.class),
+            new ExportColumn("total", ExportColumnType.DECIMAL),
+            new ExportColumn("paid_total", ExportColumnType.DECIMAL),
+            new ExportColumn("outstanding", ExportColumnType.DECIMAL)
+    );
+
+    static final List<ExportColumn> PAYMENT_COLUMNS = List.of(
+            new ExportColumn("payment_id", ExportColumnType.LONG),
+            new ExportColumn("contract_id", ExportColumnType.LONG),
+            new ExportColumn("pay_date", ExportColumnType.DATE),
+            new ExportColumn("amount", ExportColumnType.DECIMAL)
+    );
+
+    private final SessionFactory sessionFactory;
+
+    public Exporter() {
+        this(HibernateUtil.getSessionFactory());
+    }
+
+    public Exporter(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    public ExportResultDTO export(ExportRequestDTO request, Path target) throws IOException {
+        long began = System.nanoTime();
+        long[] rows = new long[1];
+        Long lastId;
+
+        // the sink closes the file through the gzip stream as well; closing it twice is harmless
+        try (FileChannel file = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            lastId = export(request, request.isGzip() ? gzip(file) : file, rows);
+        }
+
+        return new ExportResultDTO(rows[0], lastId, Files.size(target), (System.nanoTime() - began) / 1_000_000);
+    }
+
+    public static List<ExportColumn> columnsOf(ExportTable table) {
+        return table == ExportTable.CONTRACTS ? CONTRACT_COLUMNS : PAYMENT_COLUMNS;
+    }
+
+    // a failure anywhere, database or disk, becomes an ExportFailedException carrying the last id that got out;
+    // rows still buffered are complete, so after a database failure they are flushed before giving up
+    Long export(ExportRequestDTO request, WritableByteChannel channel, long[] rows) throws IOException {
+        try (ChannelSink sink = new ChannelSink(channel)) {
+            try {
+                return export(request, sink, rows);
+            }
+            catch (IOException | RuntimeException e) {
+                try {
+                    sink.flush();
+                }
+                catch (IOException | RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+
+                throw new ExportFailedException(sink.getWrittenId(), rows[0], e);
+            }
+        }
+    }
+
+    private Long export(ExportRequestDTO request, ChannelSink sink, long[] rows) throws IOException {
+        List<ExportColumn> columns = columnsOf(request.getTable());
+        RowWriter writer = request.getFormat() == ExportFormat.CSV
+                ? new CsvRowWriter(sink, columns)
+                : new ColumnarRowWriter(sink, columns);
+        Long lastId = null;
+
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.beginTransaction();
+            // set before the first statement; the pool resets it when the connection is returned
+            session.doWork(connection -> connection.setReadOnly(true));
+
+            try (ScrollableResults<Object[]> results = query(session, request).scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    Object[] row = results.get();
+
+                    writer.write(row);
+                    lastId = (Long) row[0];
+                    rows[0]++;
+                }
+            }
+
+            session.getTransaction().commit();
+        }
+
+        writer.finish();
+        return lastId;
+    }
+
+    private SelectionQuery<Object[]> query(StatelessSession session, ExportRequestDTO request) {
+        boolean contracts = request.getTable() == ExportTable.CONTRACTS;
+        String id = contracts ? "c.id" : "p.id";
+        String date = contracts ? "c.startDate" : "p.payDate";
+        List<String> where = new ArrayList<>();
+
+        if (request.getFromDate() != null) where.add(date + " >= :fromDate");
+        if (request.getToDate() != null) where.add(date + " <= :toDate");
+        if (request.getStatus() != null) where.add("c.status = :status");
+        if (request.getPropertyType() != null) where.add("c.propertyType = :propertyType");
+        if (request.getAfterId() != null) where.add(id + " > :afterId");
+        if (request.getUntilId() != null) where.add(id + " <= :untilId");
+
+        String hql = contracts
+                ? "select c.id, c.tenantName, c.propertyType, c.monthlyRent, c.startDate, c.endDate, c.status, c.total, c.paidTotal, c.outstanding from Contract c"
+                : "select p.id, c.id, p.payDate, p.amount from Payment p join p.contract c";
+
+        if (!where.isEmpty()) hql += " where " + String.join(" and ", where);
+
+        SelectionQuery<Object[]> query = session.createSelectionQuery(hql + " order by " + id, Object[].class)
+                .setFetchSize(FETCH_SIZE);
+
+        if (request.getFromDate() != null) query.setParameter("fromDate", request.getFromDate());
+        if (request.getToDate() != null) query.setParameter("toDate", request.getToDate());
+        if (request.getStatus() != null) query.setParameter("status", request.getStatus());
+        if (request.getPropertyType() != null) query.setParameter("propertyType", request.getPropertyType());
+        if (request.getAfterId() != null) query.setParameter("afterId", request.getAfterId());
+        if (request.getUntilId() != null) query.setParameter("untilId", request.getUntilId());
+
+        return query;
+    }
+
+    // sync-flushed on every write, so whatever the sink has handed over is in the file should the export fail
+    private static WritableByteChannel gzip(FileChannel file) throws IOException {
+        OutputStream out = new GZIPOutputStream(Channels.newOutputStream(file), ChannelSink.BUFFER_SIZE, true);
+        WritableByteChannel channel = Channels.newChannel(out);
+
+        return new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                int written = channel.write(source);
+                out.flush();
+                return written;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+}
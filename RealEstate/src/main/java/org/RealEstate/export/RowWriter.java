@@ -0,0 +1,10 @@
+package org.RealEstate.export;
+
+import java.io.IOException;
+
+// Rows start with their id column; writers mark it on the sink once the row's bytes are all in it
+interface RowWriter {
+    void write(Object[] row) throws IOException;
+
+    void finish() throws IOException;
+}
@@ -0,0 +1,46 @@
+package org.RealEstate.listeners;
+
+import org.RealEstate.analytics.PortfolioSnapshot;
+import org.RealEstate.search.TenantNameIndex;
+import org.RealEstate.service.FinishedSummaryCache;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+public class ContractEventIntegrator implements Integrator {
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+
+        TenantNameIndexListener nameIndex = new TenantNameIndexListener();
+        registry.appendListeners(EventType.POST_INSERT, nameIndex);
+        registry.appendListeners(EventType.POST_UPDATE, nameIndex);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, nameIndex);
+
+        RevenueRollupListener rollup = new RevenueRollupListener();
+        registry.appendListeners(EventType.POST_INSERT, rollup);
+        registry.appendListeners(EventType.POST_UPDATE, rollup);
+        registry.appendListeners(EventType.POST_DELETE, rollup);
+
+        PortfolioSnapshotListener snapshot = new PortfolioSnapshotListener();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, snapshot);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, snapshot);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, snapshot);
+
+        FinishedSummaryListener finished = new FinishedSummaryListener();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, finished);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, finished);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, finished);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        TenantNameIndex.release(sessionFactory);
+        PortfolioSnapshot.release(sessionFactory);
+        FinishedSummaryCache.release(sessionFactory);
+    }
+}
@@ -0,0 +1,80 @@
+package org.RealEstate.listeners;
+
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.Contract;
+import org.RealEstate.service.FinishedSummaryCache;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+// Evicts the finished summaries a committed contract change can alter: only COMPLETED contracts are counted,
+// so a payment that leaves the contract open touches nothing. Runs after commit, so a summary read while the
+// change was still uncommitted is the one evicted, not one read afterwards.
+public class FinishedSummaryListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    private static final List<String> SUMMARIZED = List.of("startDate", "propertyType", "total");
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Contract contract && contract.getStatus() == Status.COMPLETED) {
+            FinishedSummaryCache.evictCovering(event.getFactory(), List.of(contract.getStartDate()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Contract contract)) return;
+
+        // without the loaded state there is nothing to say where the contract was counted before
+        if (event.getOldState() == null) {
+            FinishedSummaryCache.clear(event.getFactory());
+            return;
+        }
+
+        EntityPersister persister = event.getPersister();
+        Object[] before = event.getOldState();
+        Object[] after = event.getState();
+        int status = persister.getPropertyIndex("status");
+
+        if (before[status] != Status.COMPLETED && after[status] != Status.COMPLETED) return;
+
+        boolean changed = before[status] != after[status];
+
+        for (String property : SUMMARIZED) {
+            int index = persister.getPropertyIndex(property);
+            changed |= !Objects.equals(before[index], after[index]);
+        }
+
+        if (changed) {
+            int startDate = persister.getPropertyIndex("startDate");
+            FinishedSummaryCache.evictCovering(event.getFactory(), Arrays.asList((LocalDate) before[startDate], contract.getStartDate()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Contract contract && contract.getStatus() == Status.COMPLETED) {
+            FinishedSummaryCache.evictCovering(event.getFactory(), List.of(contract.getStartDate()));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Contract.class;
+    }
+}
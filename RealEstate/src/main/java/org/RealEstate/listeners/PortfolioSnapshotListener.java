@@ -0,0 +1,50 @@
+package org.RealEstate.listeners;
+
+import org.RealEstate.analytics.PortfolioSnapshot;
+import org.RealEstate.models.Contract;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.List;
+
+// Marks contracts dirty only after their transaction commits, so a snapshot refresh never reads a row
+// whose change is still uncommitted and then forgets about it.
+public class PortfolioSnapshotListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Contract) {
+            PortfolioSnapshot.markDirty(event.getFactory(), List.of((Long) event.getId()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Contract contract) {
+            PortfolioSnapshot.markDirty(event.getFactory(), List.of(contract.getId()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Contract contract) {
+            PortfolioSnapshot.markDirty(event.getFactory(), List.of(contract.getId()));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Contract.class;
+    }
+}
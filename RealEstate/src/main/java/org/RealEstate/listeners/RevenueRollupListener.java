@@ -0,0 +1,100 @@
+package org.RealEstate.listeners;
+
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.Contract;
+import org.RealEstate.service.RevenueRollups;
+import org.hibernate.Session;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Gathers contract inserts, updates and deletes per session and applies them to revenue_rollup just before the
+// transaction commits, through a child session that shares the writer's JDBC connection, so the rollup commits
+// or rolls back together with the contract change. Deferring to commit keeps the bucket row locks short and
+// takes them in one fixed order however many contracts the transaction touched.
+public class RevenueRollupListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+    private final Map<EventSource, RevenueRollups.Deltas> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Contract contract) {
+            deltas(event.getSession()).add(RevenueRollups.monthOf(contract.getStartDate()), contract.getPropertyType(), contract.getStatus(),
+                    1, contract.getTotal(), contract.getPaidTotal());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Contract) || event.getOldState() == null) return;
+
+        EntityPersister persister = event.getPersister();
+        Object[] before = event.getOldState();
+        Object[] after = event.getState();
+
+        LocalDate oldMonth = RevenueRollups.monthOf((LocalDate) before[persister.getPropertyIndex("startDate")]);
+        LocalDate newMonth = RevenueRollups.monthOf((LocalDate) after[persister.getPropertyIndex("startDate")]);
+        PropertyType oldType = (PropertyType) before[persister.getPropertyIndex("propertyType")];
+        PropertyType newType = (PropertyType) after[persister.getPropertyIndex("propertyType")];
+        Status oldStatus = (Status) before[persister.getPropertyIndex("status")];
+        Status newStatus = (Status) after[persister.getPropertyIndex("status")];
+        BigDecimal oldTotal = (BigDecimal) before[persister.getPropertyIndex("total")];
+        BigDecimal newTotal = (BigDecimal) after[persister.getPropertyIndex("total")];
+        BigDecimal oldPaid = (BigDecimal) before[persister.getPropertyIndex("paidTotal")];
+        BigDecimal newPaid = (BigDecimal) after[persister.getPropertyIndex("paidTotal")];
+
+        RevenueRollups.Deltas deltas = deltas(event.getSession());
+
+        if (oldMonth.equals(newMonth) && oldType == newType && oldStatus == newStatus) {
+            deltas.add(newMonth, newType, newStatus, 0, newTotal.subtract(oldTotal), newPaid.subtract(oldPaid));
+        }
+        else {
+            deltas.add(oldMonth, oldType, oldStatus, -1, oldTotal.negate(), oldPaid.negate());
+            deltas.add(newMonth, newType, newStatus, 1, newTotal, newPaid);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Contract contract) {
+            deltas(event.getSession()).add(RevenueRollups.monthOf(contract.getStartDate()), contract.getPropertyType(), contract.getStatus(),
+                    -1, contract.getTotal().negate(), contract.getPaidTotal().negate());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // the first change in a transaction registers the apply at commit and the cleanup after it
+    private RevenueRollups.Deltas deltas(EventSource session) {
+        return pending.computeIfAbsent(session, owner -> {
+            RevenueRollups.Deltas deltas = new RevenueRollups.Deltas();
+
+            owner.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completing -> {
+                if (deltas.isEmpty()) return;
+
+                try (Session child = child(owner)) {
+                    deltas.applyTo(child);
+                }
+            });
+            owner.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) -> pending.remove(owner));
+
+            return deltas;
+        });
+    }
+
+    private static Session child(EventSource session) {
+        return session.sessionWithOptions()
+                .connection()
+                .noInterceptor()
+                .openSession();
+    }
+}
@@ -0,0 +1,46 @@
+package org.RealEstate.listeners;
+
+import org.RealEstate.models.Contract;
+import org.RealEstate.search.TenantNameIndex;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Objects;
+
+// Inserts and renames only ever add postings, so a rolled-back transaction can leave extra candidates but never hide a row.
+// Postings are dropped once a delete has committed. Writes these events don't see are covered by TenantNameIndex's rebuilds.
+public class TenantNameIndexListener implements PostInsertEventListener, PostUpdateEventListener, PostCommitDeleteEventListener {
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Contract contract) {
+            TenantNameIndex.forFactory(event.getFactory()).add((Long) event.getId(), contract.getTenantName());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Contract contract) {
+            int index = event.getPersister().getPropertyIndex("tenantName");
+
+            if (event.getOldState() == null || !Objects.equals(event.getOldState()[index], event.getState()[index])) {
+                TenantNameIndex.forFactory(event.getFactory()).add(contract.getId(), contract.getTenantName());
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Contract contract) {
+            TenantNameIndex.forFactory(event.getFactory()).remove(contract.getId(), contract.getTenantName());
+        }
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
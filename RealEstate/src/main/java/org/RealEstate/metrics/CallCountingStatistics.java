@@ -0,0 +1,54 @@
+package org.RealEstate.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+// Standard Hibernate statistics that also charge each event to the service call running on this thread
+public class CallCountingStatistics extends StatisticsImpl {
+    public CallCountingStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void openSession() {
+        super.openSession();
+
+        OperationMetrics.CallContext call = OperationMetrics.current();
+        if (call != null) call.sessions++;
+    }
+
+    @Override
+    public void prepareStatement() {
+        super.prepareStatement();
+
+        OperationMetrics.CallContext call = OperationMetrics.current();
+        if (call != null) call.statements++;
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+
+        OperationMetrics.CallContext call = OperationMetrics.current();
+        if (call != null) {
+            call.queries++;
+            call.rows += rows;
+        }
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+        super.loadEntity(entityName);
+
+        OperationMetrics.CallContext call = OperationMetrics.current();
+        if (call != null) call.entities++;
+    }
+
+    @Override
+    public void fetchEntity(String entityName) {
+        super.fetchEntity(entityName);
+
+        OperationMetrics.CallContext call = OperationMetrics.current();
+        if (call != null) call.entities++;
+    }
+}
@@ -0,0 +1,13 @@
+package org.RealEstate.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+// Plugged in through hibernate.stats.factory
+public class CallCountingStatisticsFactory implements StatisticsFactory {
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new CallCountingStatistics(sessionFactory);
+    }
+}
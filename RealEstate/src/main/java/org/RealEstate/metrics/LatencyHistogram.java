@@ -0,0 +1,79 @@
+package org.RealEstate.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Log-linear histogram over nanoseconds: 32 linear sub-buckets per power of two, so any recorded value is
+// reported within ~3%. Recording is a couple of atomic increments and never allocates.
+// Reads are not atomic with respect to concurrent recording, which is fine for monitoring.
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+
+        counts.incrementAndGet(indexOf(value));
+        total.incrementAndGet();
+
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry until the larger value sticks
+        }
+    }
+
+    public long getCount() {
+        return total.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    // Upper bound of the bucket holding the given quantile, e.g. 0.99 for p99
+    public long valueAt(double quantile) {
+        long count = total.get();
+        if (count == 0) return 0;
+
+        long rank = Math.max((long) Math.ceil(quantile * count), 1);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+
+            if (seen >= rank) return Math.min(lowerBound(i + 1) - 1, max.get());
+        }
+
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+
+        total.set(0);
+        max.set(0);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int shift = msb - SUB_BITS;
+
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int group = index / SUB_BUCKETS;
+        long sub = index % SUB_BUCKETS;
+
+        return group > 58 ? Long.MAX_VALUE : (SUB_BUCKETS + sub) << (group - 1);
+    }
+}
@@ -0,0 +1,114 @@
+package org.RealEstate.metrics;
+
+import org.RealEstate.dto.OperationStatsDTO;
+import org.RealEstate.enums.Operation;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-operation latency and work counters. begin()/end() bracket a public service call; Hibernate reports
+// sessions, statements, queries, rows and entity loads for the calling thread through CallCountingStatistics.
+// Nested service calls are attributed to the outermost one.
+public final class OperationMetrics {
+    private static final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private static final ThreadLocal<CallContext> context = ThreadLocal.withInitial(CallContext::new);
+
+    static {
+        for (Operation operation : Operation.values()) recorders.put(operation, new Recorder());
+    }
+
+    private OperationMetrics() {}
+
+    public static long begin() {
+        CallContext call = context.get();
+
+        if (call.depth++ == 0) call.clear();
+
+        return System.nanoTime();
+    }
+
+    public static void end(Operation operation, long started) {
+        long elapsed = System.nanoTime() - started;
+        CallContext call = context.get();
+
+        if (--call.depth == 0) recorders.get(operation).record(elapsed, call);
+    }
+
+    static CallContext current() {
+        CallContext call = context.get();
+        return call.depth > 0 ? call : null;
+    }
+
+    public static List<OperationStatsDTO> snapshot() {
+        List<OperationStatsDTO> stats = new ArrayList<>();
+
+        recorders.forEach((operation, recorder) -> {
+            if (recorder.latency.getCount() > 0) stats.add(recorder.snapshot(operation));
+        });
+
+        return stats;
+    }
+
+    public static void reset() {
+        recorders.values().forEach(Recorder::reset);
+    }
+
+    static final class CallContext {
+        int depth;
+        long sessions;
+        long statements;
+        long queries;
+        long rows;
+        long entities;
+
+        void clear() {
+            sessions = statements = queries = rows = entities = 0;
+        }
+    }
+
+    private static final class Recorder {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder sessions = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder queries = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder entities = new LongAdder();
+
+        void record(long nanos, CallContext call) {
+            latency.record(nanos);
+            sessions.add(call.sessions);
+            statements.add(call.statements);
+            queries.add(call.queries);
+            rows.add(call.rows);
+            entities.add(call.entities);
+        }
+
+        OperationStatsDTO snapshot(Operation operation) {
+            return new OperationStatsDTO(
+                    operation,
+                    latency.getCount(),
+                    latency.valueAt(0.5) / 1000,
+                    latency.valueAt(0.99) / 1000,
+                    latency.valueAt(0.999) / 1000,
+                    latency.getMax() / 1000,
+                    sessions.sum(),
+                    statements.sum(),
+                    queries.sum(),
+                    rows.sum(),
+                    entities.sum()
+            );
+        }
+
+        void reset() {
+            latency.reset();
+            sessions.reset();
+            statements.reset();
+            queries.reset();
+            rows.reset();
+            entities.reset();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.RealEstate.metrics;
+
+import org.RealEstate.dto.HibernateStatsDTO;
+import org.RealEstate.dto.OperationStatsDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+// Published as org.RealEstate:type=RealEstateMetrics
+public class RealEstateMetrics implements RealEstateMetricsMXBean {
+    public static final String OBJECT_NAME = "org.RealEstate:type=RealEstateMetrics";
+
+    private static final Logger log = LoggerFactory.getLogger(RealEstateMetrics.class);
+
+    private final SessionFactory sessionFactory;
+
+    public RealEstateMetrics(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    public static void register(SessionFactory sessionFactory) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            server.registerMBean(new RealEstateMetrics(sessionFactory), new ObjectName(OBJECT_NAME));
+        }
+        catch (InstanceAlreadyExistsException ignored) {
+            // a second service instance in the same JVM reports through the first registration
+        }
+        catch (JMException e) {
+            log.warn("Could not register {}", OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public List<OperationStatsDTO> getOperations() {
+        return OperationMetrics.snapshot();
+    }
+
+    @Override
+    public HibernateStatsDTO getHibernateStatistics() {
+        Statistics stats = sessionFactory.getStatistics();
+
+        return new HibernateStatsDTO(
+                stats.getSessionOpenCount(),
+                stats.getSessionCloseCount(),
+                stats.getTransactionCount(),
+                stats.getConnectCount(),
+                stats.getPrepareStatementCount(),
+                stats.getQueryExecutionCount(),
+                stats.getQueryExecutionMaxTime(),
+                stats.getEntityLoadCount(),
+                stats.getEntityFetchCount(),
+                stats.getEntityInsertCount(),
+                stats.getEntityUpdateCount(),
+                stats.getSecondLevelCacheHitCount(),
+                stats.getSecondLevelCacheMissCount(),
+                stats.getQueryCacheHitCount(),
+                stats.getQueryCacheMissCount(),
+                stats.getOptimisticFailureCount()
+        );
+    }
+
+    @Override
+    public List<OperationStatsDTO> snapshot() {
+        return OperationMetrics.snapshot();
+    }
+
+    @Override
+    public void reset() {
+        OperationMetrics.reset();
+        sessionFactory.getStatistics().clear();
+    }
+}
@@ -0,0 +1,16 @@
+package org.RealEstate.metrics;
+
+import org.RealEstate.dto.HibernateStatsDTO;
+import org.RealEstate.dto.OperationStatsDTO;
+
+import java.util.List;
+
+public interface RealEstateMetricsMXBean {
+    List<OperationStatsDTO> getOperations();
+
+    HibernateStatsDTO getHibernateStatistics();
+
+    List<OperationStatsDTO> snapshot();
+
+    void reset();
+}
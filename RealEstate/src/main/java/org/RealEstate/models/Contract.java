@@ -3,20 +3,47 @@ package org.RealEstate.models;
 import jakarta.persistence.*;
 import org.RealEstate.enums.PropertyType;
 import org.RealEstate.enums.Status;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "rental_contract")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(
+        name = "rental_contract",
+        indexes = {
+                // search: type + start range, newest first
+                @Index(name = "idx_contract_type_start", columnList = "property_type, start_date"),
+                // search by start range only, and the default start_date desc ordering
+                @Index(name = "idx_contract_start", columnList = "start_date"),
+                // search by rent range
+                @Index(name = "idx_contract_rent", columnList = "monthly_rent"),
+                // exact tenant name equality in getTenantStatement(name); the %fragment% search can't use it
+                @Index(name = "idx_contract_tenant", columnList = "tenant_name"),
+                // finished summary and rollup aggregation: status + start range
+                @Index(name = "idx_contract_status_start", columnList = "status, start_date"),
+                // unfinished summary and overdue sweep: status + end date
+                @Index(name = "idx_contract_status_end", columnList = "status, end_date"),
+                // balance queries: outstanding range, ordered by arrears
+                @Index(name = "idx_contract_outstanding", columnList = "outstanding")
+        }
+)
 public class Contract {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "contract_id")
     private long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Column(name = "tenant_name", length = 80, nullable = false)
     private String tenantName;
 
@@ -36,8 +63,22 @@ public class Contract {
     @Enumerated(EnumType.STRING)
     private Status status;
 
-    @OneToMany
-    List<Payment> payments;
+    @ColumnDefault("0")
+    @Column(name = "total", nullable = false, precision = 12, scale = 2)
+    private BigDecimal total = BigDecimal.ZERO;
+
+    @ColumnDefault("0")
+    @Column(name = "paid_total", nullable = false, precision = 12, scale = 2)
+    private BigDecimal paidTotal = BigDecimal.ZERO;
+
+    @ColumnDefault("0")
+    @Column(name = "outstanding", nullable = false, precision = 12, scale = 2)
+    private BigDecimal outstanding = BigDecimal.ZERO;
+
+    // inverse side of Payment.contract: reuses rent_payment.contract_id, loaded lazily in batches
+    @OneToMany(mappedBy = "contract")
+    @OrderBy("payDate, id")
+    private List<Payment> payments = new ArrayList<>();
 
     public Contract() {}
 
@@ -48,12 +89,29 @@ public class Contract {
         this.startDate = startDate;
         this.endDate = endDate;
         this.status = status;
+        refreshBalance();
     }
 
     public BigDecimal getTotal() {
-        long months = ChronoUnit.MONTHS.between(startDate, endDate);
+        return total;
+    }
+
+    public void addPayment(BigDecimal amount) {
+        this.paidTotal = this.paidTotal.add(amount);
+        refreshBalance();
+    }
+
+    // total and outstanding are stored so reports never recompute months x rent or aggregate rent_payment
+    @PrePersist
+    @PreUpdate
+    public void refreshBalance() {
+        if (startDate != null && endDate != null && monthlyRent != null) {
+            long months = ChronoUnit.MONTHS.between(startDate, endDate);
+
+            this.total = BigDecimal.valueOf(months).multiply(this.monthlyRent);
+        }
 
-        return BigDecimal.valueOf(months).multiply(this.monthlyRent);
+        this.outstanding = this.total.subtract(this.paidTotal);
     }
 
     public long getId() {
@@ -64,6 +122,10 @@ public class Contract {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public String getTenantName() {
         return tenantName;
     }
@@ -86,6 +148,7 @@ public class Contract {
 
     public void setMonthlyRent(BigDecimal monthlyRent) {
         this.monthlyRent = monthlyRent;
+        refreshBalance();
     }
 
     public LocalDate getStartDate() {
@@ -94,6 +157,7 @@ public class Contract {
 
     public void setStartDate(LocalDate startDate) {
         this.startDate = startDate;
+        refreshBalance();
     }
 
     public LocalDate getEndDate() {
@@ -102,6 +166,7 @@ public class Contract {
 
     public void setEndDate(LocalDate endDate) {
         this.endDate = endDate;
+        refreshBalance();
     }
 
     public Status getStatus() {
@@ -112,6 +177,19 @@ public class Contract {
         this.status = status;
     }
 
+    public BigDecimal getPaidTotal() {
+        return paidTotal;
+    }
+
+    public void setPaidTotal(BigDecimal paidTotal) {
+        this.paidTotal = paidTotal;
+        refreshBalance();
+    }
+
+    public BigDecimal getOutstanding() {
+        return outstanding;
+    }
+
     public List<Payment> getPayments() {
         return payments;
     }
@@ -0,0 +1,82 @@
+package org.RealEstate.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "job_checkpoint")
+public class JobCheckpoint {
+    @Id
+    @Column(name = "checkpoint_key", length = 80)
+    private String key;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDate asOf;
+
+    @Column(name = "first_id", nullable = false)
+    private long firstId;
+
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    @Column(name = "done_through", nullable = false)
+    private long doneThrough;
+
+    @Column(name = "finished", nullable = false)
+    private boolean finished;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public JobCheckpoint() {}
+
+    public JobCheckpoint(String key, LocalDate asOf, long firstId, long lastId) {
+        this.key = key;
+        restart(asOf, firstId, lastId);
+    }
+
+    public void restart(LocalDate asOf, long firstId, long lastId) {
+        this.asOf = asOf;
+        this.firstId = firstId;
+        this.lastId = lastId;
+        this.doneThrough = firstId - 1;
+        this.finished = false;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void advance(long doneThrough) {
+        this.doneThrough = doneThrough;
+        this.finished = doneThrough >= lastId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public long getFirstId() {
+        return firstId;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public long getDoneThrough() {
+        return doneThrough;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
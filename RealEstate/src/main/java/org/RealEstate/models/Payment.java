@@ -6,13 +6,21 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "rent_payment")
+@Table(
+        name = "rent_payment",
+        // payments of a contract, summed by recalculateBalances
+        indexes = @Index(name = "idx_payment_contract_date", columnList = "contract_id, pay_date")
+)
 public class Payment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "payment_id")
     private long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @ManyToOne
     @JoinColumn(name = "contract_id")
     private Contract contract;
@@ -39,6 +47,10 @@ public class Payment {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public Contract getContract() {
         return contract;
     }
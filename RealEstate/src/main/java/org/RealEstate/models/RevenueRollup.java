@@ -0,0 +1,79 @@
+package org.RealEstate.models;
+
+import jakarta.persistence.*;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(
+        name = "revenue_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_bucket", columnNames = {"rollup_month", "property_type", "status"})
+)
+public class RevenueRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private long id;
+
+    @Column(name = "rollup_month", nullable = false)
+    private LocalDate month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "property_type", nullable = false)
+    private PropertyType propertyType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "contract_count", nullable = false)
+    private long contractCount;
+
+    @Column(name = "expected_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal expectedRevenue;
+
+    @Column(name = "collected_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal collectedRevenue;
+
+    public RevenueRollup() {}
+
+    public RevenueRollup(LocalDate month, PropertyType propertyType, Status status, long contractCount, BigDecimal expectedRevenue, BigDecimal collectedRevenue) {
+        this.month = month;
+        this.propertyType = propertyType;
+        this.status = status;
+        this.contractCount = contractCount;
+        this.expectedRevenue = expectedRevenue;
+        this.collectedRevenue = collectedRevenue;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public LocalDate getMonth() {
+        return month;
+    }
+
+    public PropertyType getPropertyType() {
+        return propertyType;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getContractCount() {
+        return contractCount;
+    }
+
+    public BigDecimal getExpectedRevenue() {
+        return expectedRevenue;
+    }
+
+    public BigDecimal getCollectedRevenue() {
+        return collectedRevenue;
+    }
+}
@@ -0,0 +1,287 @@
+package org.RealEstate.search;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// In-memory trigram index over tenant_name, built from the primary. It only hears about writes that go through
+// this JVM's Hibernate listeners, so it narrows a search only when realestate.search.single_writer says this JVM
+// is the only writer; otherwise, or when cold, stale, empty or too broad, a lookup returns null and the caller
+// runs the plain LIKE. Even then an insert that bypassed the listeners gets a higher id than highestId(), and
+// callers keep those rows. Names are folded the way MySQL's accent- and case-insensitive collation compares
+// them, so a non-null result is a superset of what the LIKE matches among indexed rows and callers still apply it.
+public class TenantNameIndex {
+    public static final int GRAM = 3;
+    // true only when no other application instance or tool writes rental_contract; off by default
+    public static final String SINGLE_WRITER = "realestate.search.single_writer";
+
+    // after this long the index is rebuilt, which bounds how long a write it never saw goes unnoticed
+    static final long MAX_AGE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private static final Logger log = LoggerFactory.getLogger(TenantNameIndex.class);
+    private static final Map<SessionFactory, TenantNameIndex> INDEXES = new ConcurrentHashMap<>();
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final long[] NONE = new long[0];
+
+    private final SessionFactory primary;
+    private final Map<Long, long[]> postings = new ConcurrentHashMap<>();
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private final AtomicLong highestId = new AtomicLong();
+    private volatile boolean singleWriter;
+    // names added while a rebuild is scanning, replayed onto the rebuilt postings
+    private final Queue<Object[]> addedDuringLoad = new ConcurrentLinkedQueue<>();
+    private long generation;
+    private volatile long loadedAt;
+    private volatile boolean loaded;
+
+    private TenantNameIndex(SessionFactory primary) {
+        this.primary = primary;
+        this.singleWriter = ConfigurationHelper.getBoolean(SINGLE_WRITER, primary.getProperties(), false);
+    }
+
+    public static TenantNameIndex forFactory(SessionFactory sessionFactory) {
+        return INDEXES.computeIfAbsent(sessionFactory, TenantNameIndex::new);
+    }
+
+    public static void release(SessionFactory sessionFactory) {
+        INDEXES.remove(sessionFactory);
+    }
+
+    public boolean isSingleWriter() {
+        return singleWriter;
+    }
+
+    public void setSingleWriter(boolean singleWriter) {
+        this.singleWriter = singleWriter;
+    }
+
+    // highest contract id the index has seen; rows above it are unknown to the index and must not be filtered out
+    public long highestId() {
+        return highestId.get();
+    }
+
+    // sorted ids of contracts that may match, or null when the index can't narrow the search to at most limit rows
+    public long[] candidates(String fragment, int limit) {
+        if (!singleWriter || fragment == null || fragment.length() < GRAM || !isFresh()) return null;
+
+        long[] grams = grams(fragment);
+
+        if (grams.length == 0) return null;
+
+        List<long[]> lists = new ArrayList<>(grams.length);
+
+        for (long gram : grams) {
+            long[] ids = postings.get(gram);
+
+            // a gram nobody has: either there is no match or the row arrived behind the index's back
+            if (ids == null || ids.length == 0) return null;
+
+            lists.add(ids);
+        }
+
+        lists.sort(Comparator.comparingInt(ids -> ids.length));
+
+        return intersect(lists, limit);
+    }
+
+    public void add(long contractId, String tenantName) {
+        if (tenantName == null) return;
+
+        if (loading.get()) addedDuringLoad.add(new Object[]{contractId, tenantName});
+
+        addPostings(contractId, tenantName);
+    }
+
+    public void remove(long contractId, String tenantName) {
+        if (tenantName == null) return;
+
+        for (long gram : grams(tenantName)) {
+            postings.computeIfPresent(gram, (g, ids) -> delete(ids, contractId));
+        }
+    }
+
+    // call after writes that bypass Hibernate (bulk loads, native SQL) so the next lookup rebuilds
+    public synchronized void invalidate() {
+        postings.clear();
+        generation++;
+        loaded = false;
+    }
+
+    // a cold or stale index starts a rebuild from the primary in the background; the lookup itself doesn't wait
+    private boolean isFresh() {
+        if (loaded && System.nanoTime() - loadedAt < MAX_AGE_NANOS) return true;
+
+        if (loading.compareAndSet(false, true)) {
+            Thread loader = new Thread(this::load, "tenant-name-index");
+            loader.setDaemon(true);
+            loader.start();
+        }
+
+        return false;
+    }
+
+    private void load() {
+        try {
+            long started;
+
+            synchronized (this) {
+                started = generation;
+            }
+
+            Map<Long, long[]> built = new HashMap<>();
+            long highest = 0;
+            Map<Long, Integer> sizes = new HashMap<>();
+
+            try (Session session = primary.openSession();
+                 ScrollableResults<Object[]> rows = session.createQuery("select c.id, c.tenantName from Contract c order by c.id", Object[].class)
+                         .setFetchSize(1000)
+                         .setReadOnly(true)
+                         .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) {
+                    Object[] row = rows.get();
+
+                    if (row[1] == null) continue;
+
+                    long id = (long) row[0];
+                    highest = id;
+
+                    // ids arrive in order, so appending keeps every posting list sorted
+                    for (long gram : grams((String) row[1])) {
+                        long[] ids = built.getOrDefault(gram, NONE);
+                        int size = sizes.getOrDefault(gram, 0);
+
+                        if (size > 0 && ids[size - 1] == id) continue;
+
+                        if (size == ids.length) {
+                            ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+                            built.put(gram, ids);
+                        }
+
+                        ids[size] = id;
+                        sizes.put(gram, size + 1);
+                    }
+                }
+            }
+
+            synchronized (this) {
+                // invalidated while scanning: what was read may predate the bulk write, leave it cold
+                if (started != generation) return;
+
+                postings.clear();
+                highestId.set(highest);
+                built.forEach((gram, ids) -> postings.put(gram, Arrays.copyOf(ids, sizes.get(gram))));
+
+                for (Object[] added; (added = addedDuringLoad.poll()) != null; ) addPostings((long) added[0], (String) added[1]);
+
+                loadedAt = System.nanoTime();
+                loaded = true;
+            }
+        }
+        catch (RuntimeException e) {
+            log.warn("Could not build the tenant name index, searches use LIKE alone", e);
+        }
+        finally {
+            loading.set(false);
+            addedDuringLoad.clear();
+        }
+    }
+
+    private void addPostings(long contractId, String tenantName) {
+        highestId.accumulateAndGet(contractId, Math::max);
+
+        for (long gram : grams(tenantName)) {
+            postings.compute(gram, (g, ids) -> insert(ids == null ? NONE : ids, contractId));
+        }
+    }
+
+    // walks the shortest list and probes the others; gives up as soon as the result would pass limit
+    private static long[] intersect(List<long[]> lists, int limit) {
+        long[] shortest = lists.get(0);
+        long[] result = new long[Math.min(shortest.length, limit)];
+        int[] from = new int[lists.size()];
+        int size = 0;
+
+        candidates:
+        for (long id : shortest) {
+            for (int i = 1; i < lists.size(); i++) {
+                long[] ids = lists.get(i);
+                int at = Arrays.binarySearch(ids, from[i], ids.length, id);
+
+                if (at < 0) {
+                    from[i] = -at - 1;
+                    continue candidates;
+                }
+
+                from[i] = at + 1;
+            }
+
+            if (size == limit) return null;
+
+            result[size++] = id;
+        }
+
+        return size == 0 ? null : Arrays.copyOf(result, size);
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+
+        if (at >= 0) return ids;
+
+        at = -at - 1;
+        long[] grown = new long[ids.length + 1];
+
+        System.arraycopy(ids, 0, grown, 0, at);
+        grown[at] = id;
+        System.arraycopy(ids, at, grown, at + 1, ids.length - at);
+
+        return grown;
+    }
+
+    private static long[] delete(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+
+        if (at < 0) return ids;
+
+        if (ids.length == 1) return null;
+
+        long[] shrunk = new long[ids.length - 1];
+
+        System.arraycopy(ids, 0, shrunk, 0, at);
+        System.arraycopy(ids, at + 1, shrunk, at, ids.length - at - 1);
+
+        return shrunk;
+    }
+
+    // lower case with accents stripped, close to how utf8mb4_0900_ai_ci compares
+    public static String fold(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] grams(String text) {
+        String value = fold(text);
+
+        if (value.length() < GRAM) return NONE;
+
+        long[] grams = new long[value.length() - GRAM + 1];
+
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2);
+        }
+
+        return grams;
+    }
+}
@@ -0,0 +1,60 @@
+package org.RealEstate.service;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Lock striping keyed by contract id: postings to one contract are serialized, unrelated contracts rarely share a stripe
+class ContractLocks {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    ContractLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1;
+
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) this.stripes[i] = new ReentrantLock();
+    }
+
+    ReentrantLock lockFor(long contractId) {
+        return stripes[stripe(contractId)];
+    }
+
+    // stripes are always taken in ascending order so two batches can never deadlock each other
+    int[] lockAll(Collection<Long> contractIds) {
+        boolean[] used = new boolean[stripes.length];
+        int count = 0;
+
+        for (long id : contractIds) {
+            int stripe = stripe(id);
+
+            if (!used[stripe]) {
+                used[stripe] = true;
+                count++;
+            }
+        }
+
+        int[] taken = new int[count];
+        int next = 0;
+
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                stripes[i].lock();
+                taken[next++] = i;
+            }
+        }
+
+        return taken;
+    }
+
+    void unlockAll(int[] taken) {
+        for (int i = taken.length - 1; i >= 0; i--) stripes[taken[i]].unlock();
+    }
+
+    private int stripe(long contractId) {
+        long h = contractId * 0x9E3779B97F4A7C15L;
+
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,134 @@
+package org.RealEstate.service;
+
+import org.RealEstate.dto.CacheStatsDTO;
+import org.RealEstate.dto.DateRangeDTO;
+import org.RealEstate.dto.FinishedContractSummaryDTO;
+import org.hibernate.SessionFactory;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Finished-contract summaries keyed by their date range. The query cache would drop every summary whenever
+// rental_contract or revenue_rollup is written, which every payment does; a summary only changes when a
+// COMPLETED contract inside its range appears, disappears or changes, so FinishedSummaryListener evicts just
+// the ranges covering that contract's start date, after commit. Writes that bypass Hibernate call clear().
+public final class FinishedSummaryCache {
+    public static final String REGION = "finished-summaries";
+
+    // same bounds as the summaries region in ehcache.xml
+    static final int MAX_ENTRIES = 500;
+    static final long TTL_NANOS = Duration.ofMinutes(5).toNanos();
+
+    private static final Map<SessionFactory, FinishedSummaryCache> CACHES = new ConcurrentHashMap<>();
+
+    private final Map<List<LocalDate>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<LocalDate>, Entry> eldest) {
+            if (size() <= MAX_ENTRIES) return false;
+
+            evictions.increment();
+            return true;
+        }
+    };
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // bumped by every eviction; a load that overlapped one doesn't store what it read
+    private long generation;
+
+    private FinishedSummaryCache() {}
+
+    public static FinishedSummaryCache forFactory(SessionFactory sessionFactory) {
+        return CACHES.computeIfAbsent(sessionFactory, factory -> new FinishedSummaryCache());
+    }
+
+    public static void release(SessionFactory sessionFactory) {
+        CACHES.remove(sessionFactory);
+    }
+
+    // no-ops until a summary of this factory has been cached
+    public static void evictCovering(SessionFactory sessionFactory, Collection<LocalDate> startDates) {
+        FinishedSummaryCache cache = CACHES.get(sessionFactory);
+
+        if (cache != null) cache.evictCovering(startDates);
+    }
+
+    public static void clear(SessionFactory sessionFactory) {
+        FinishedSummaryCache cache = CACHES.get(sessionFactory);
+
+        if (cache != null) cache.clear();
+    }
+
+    public List<FinishedContractSummaryDTO> get(DateRangeDTO range, Supplier<List<FinishedContractSummaryDTO>> load) {
+        List<LocalDate> key = Arrays.asList(range.getFromDate(), range.getToDate());
+        long seen;
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+
+            if (entry != null && System.nanoTime() - entry.storedAt < TTL_NANOS) {
+                hits.increment();
+                return entry.rows;
+            }
+
+            if (entry != null) entries.remove(key);
+
+            misses.increment();
+            seen = generation;
+        }
+
+        List<FinishedContractSummaryDTO> rows = List.copyOf(load.get());
+
+        synchronized (this) {
+            if (generation == seen) {
+                entries.put(key, new Entry(rows, System.nanoTime()));
+                puts.increment();
+            }
+        }
+
+        return rows;
+    }
+
+    public synchronized void evictCovering(Collection<LocalDate> startDates) {
+        generation++;
+
+        entries.keySet().removeIf(key -> {
+            for (LocalDate date : startDates) {
+                if (covers(key.get(0), key.get(1), date)) return true;
+            }
+
+            return false;
+        });
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized CacheStatsDTO stats() {
+        return new CacheStatsDTO(REGION, hits.sum(), misses.sum(), puts.sum(), evictions.sum(), entries.size());
+    }
+
+    // a missing bound counts as open, so an odd range is evicted too often rather than never
+    private static boolean covers(LocalDate from, LocalDate to, LocalDate date) {
+        if (date == null) return true;
+
+        return (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+    }
+
+    private static class Entry {
+        final List<FinishedContractSummaryDTO> rows;
+        final long storedAt;
+
+        Entry(List<FinishedContractSummaryDTO> rows, long storedAt) {
+            this.rows = rows;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package org.RealEstate.service;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import org.RealEstate.analytics.PortfolioSnapshot;
+import org.RealEstate.dto.SweepResultDTO;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.JobCheckpoint;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StaleStateException;
+import org.hibernate.exception.LockAcquisitionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+// Flags ACTIVE contracts that ended with money still owed as OVERDUE.
+// The id space is split into partitions, each walked in short chunk transactions that lock at most
+// chunkSize contract rows, so payment posting is only ever blocked for one chunk. Every chunk commits
+// together with its checkpoint row, and an interrupted run for the same day resumes where it stopped.
+public class OverdueSweeper implements AutoCloseable {
+    public static final String JOB_NAME = "overdue-sweep";
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final int MAX_ATTEMPTS = 10;
+    private static final Logger log = LoggerFactory.getLogger(OverdueSweeper.class);
+
+    private final SessionFactory sessionFactory;
+    private final int chunkSize;
+    private final int partitions;
+    private ScheduledExecutorService scheduler;
+
+    public OverdueSweeper() {
+        this(HibernateUtil.getSessionFactory(), DEFAULT_CHUNK_SIZE, 1);
+    }
+
+    public OverdueSweeper(SessionFactory sessionFactory, int chunkSize, int partitions) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive");
+        if (partitions <= 0) throw new IllegalArgumentException("Partitions must be positive");
+
+        this.sessionFactory = sessionFactory;
+        this.chunkSize = chunkSize;
+        this.partitions = partitions;
+    }
+
+    public SweepResultDTO sweep() {
+        return sweep(LocalDate.now());
+    }
+
+    public synchronized SweepResultDTO sweep(LocalDate asOf) {
+        long began = System.nanoTime();
+        List<JobCheckpoint> pending = plan(asOf);
+        long chunks = 0;
+        long marked = 0;
+
+        if (pending.size() == 1) {
+            long[] done = sweepPartition(pending.get(0));
+            chunks = done[0];
+            marked = done[1];
+        }
+        else if (!pending.isEmpty()) {
+            ExecutorService pool = Executors.newFixedThreadPool(pending.size());
+
+            try {
+                List<Future<long[]>> futures = new ArrayList<>();
+
+                for (JobCheckpoint checkpoint : pending) {
+                    futures.add(pool.submit(() -> sweepPartition(checkpoint)));
+                }
+
+                for (Future<long[]> future : futures) {
+                    long[] done = future.get();
+                    chunks += done[0];
+                    marked += done[1];
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Sweep interrupted", e);
+            }
+            catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+            }
+            finally {
+                pool.shutdownNow();
+            }
+        }
+
+        return new SweepResultDTO(pending.size(), chunks, marked, (System.nanoTime() - began) / 1_000_000);
+    }
+
+    public synchronized void schedule(Duration interval) {
+        if (scheduler != null) throw new IllegalStateException("Sweeper is already scheduled");
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, JOB_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // an exception escaping the task would cancel every later run
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                SweepResultDTO result = sweep();
+                log.info("Overdue sweep marked {} contracts in {} ms", result.getMarked(), result.getElapsedMillis());
+            }
+            catch (RuntimeException e) {
+                log.warn("Overdue sweep failed, will retry on the next run", e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // Returns the partitions still to do: the unfinished ones of an interrupted run for the same day,
+    // otherwise a fresh split of the current id range.
+    private List<JobCheckpoint> plan(LocalDate asOf) {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+
+            List<JobCheckpoint> checkpoints = new ArrayList<>();
+            boolean sameRun = true;
+            boolean unfinished = false;
+
+            for (int p = 0; p < partitions; p++) {
+                JobCheckpoint checkpoint = session.get(JobCheckpoint.class, checkpointKey(p));
+                checkpoints.add(checkpoint);
+
+                sameRun &= checkpoint != null && checkpoint.getAsOf().equals(asOf);
+                unfinished |= checkpoint != null && !checkpoint.isFinished();
+            }
+
+            boolean resumable = sameRun && unfinished;
+
+            if (!resumable) {
+                Object[] range = session.createQuery("select min(c.id), max(c.id) from Contract c", Object[].class).getSingleResult();
+
+                if (range[0] == null) {
+                    session.getTransaction().commit();
+                    return new ArrayList<>();
+                }
+
+                long min = (Long) range[0];
+                long max = (Long) range[1];
+                long width = Math.max((max - min + partitions) / partitions, 1);
+
+                for (int p = 0; p < partitions; p++) {
+                    long first = min + p * width;
+                    long last = p == partitions - 1 ? max : Math.min(first + width - 1, max);
+                    JobCheckpoint checkpoint = checkpoints.get(p);
+
+                    if (checkpoint == null) {
+                        checkpoint = new JobCheckpoint(checkpointKey(p), asOf, first, last);
+                        session.persist(checkpoint);
+                        checkpoints.set(p, checkpoint);
+                    }
+                    else {
+                        checkpoint.restart(asOf, first, last);
+                    }
+
+                    if (first > max) checkpoint.advance(last);
+                }
+            }
+
+            session.getTransaction().commit();
+
+            List<JobCheckpoint> pending = new ArrayList<>();
+
+            for (JobCheckpoint checkpoint : checkpoints) {
+                if (checkpoint != null && !checkpoint.isFinished()) pending.add(checkpoint);
+            }
+
+            return pending;
+        }
+    }
+
+    private long[] sweepPartition(JobCheckpoint checkpoint) {
+        long chunks = 0;
+        long marked = 0;
+
+        for (long from = checkpoint.getDoneThrough() + 1; from <= checkpoint.getLastId(); from += chunkSize) {
+            long to = Math.min(from + chunkSize - 1, checkpoint.getLastId());
+            long chunkFrom = from;
+
+            marked += withRetry(() -> sweepChunk(checkpoint.getKey(), checkpoint.getAsOf(), chunkFrom, to));
+            chunks++;
+        }
+
+        return new long[]{chunks, marked};
+    }
+
+    private int sweepChunk(String key, LocalDate asOf, long from, long to) {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+
+            // locks only the rows about to change, so the rollup deltas below match what the update flips
+            List<Object[]> rows = session.createQuery(
+                            "select c.id, c.startDate, c.propertyType, c.total, c.paidTotal from Contract c " +
+                                    "where c.id between :from and :to and c.status = :active " +
+                                    "and c.endDate < :asOf and c.outstanding > 0 " +
+                                    "order by c.id", Object[].class)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .setParameter("active", Status.ACTIVE)
+                    .setParameter("asOf", asOf)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList();
+
+            int updated = 0;
+            List<Long> ids = new ArrayList<>(rows.size());
+
+            if (!rows.isEmpty()) {
+                RevenueRollups.Deltas deltas = new RevenueRollups.Deltas();
+
+                for (Object[] row : rows) {
+                    LocalDate month = RevenueRollups.monthOf((LocalDate) row[1]);
+                    PropertyType type = (PropertyType) row[2];
+                    BigDecimal total = (BigDecimal) row[3];
+                    BigDecimal paid = (BigDecimal) row[4];
+
+                    ids.add((Long) row[0]);
+                    deltas.add(month, type, Status.ACTIVE, -1, total.negate(), paid.negate());
+                    deltas.add(month, type, Status.OVERDUE, 1, total, paid);
+                }
+
+                updated = session.createMutationQuery("update versioned Contract c set c.status = :overdue where c.id in :ids")
+                        .setParameter("overdue", Status.OVERDUE)
+                        .setParameter("ids", ids)
+                        .executeUpdate();
+
+                // bulk updates skip RevenueRollupListener; Deltas applies the buckets in the same fixed order
+                // the listener uses, so partitions and payments lock rollup rows the same way round
+                deltas.applyTo(session);
+            }
+
+            session.get(JobCheckpoint.class, key).advance(to);
+            session.getTransaction().commit();
+            PortfolioSnapshot.markDirty(sessionFactory, ids);
+
+            return updated;
+        }
+    }
+
+    private String checkpointKey(int partition) {
+        return JOB_NAME + "/" + partitions + "/" + partition;
+    }
+
+    private static <T> T withRetry(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            }
+            catch (RuntimeException e) {
+                if (!isLockFailure(e) || attempt >= MAX_ATTEMPTS) throw e;
+
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(attempt * 1_000_000L));
+            }
+        }
+    }
+
+    private static boolean isLockFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof PessimisticLockException || t instanceof LockTimeoutException || t instanceof LockAcquisitionException
+                    || t instanceof org.hibernate.PessimisticLockException
+                    || t instanceof OptimisticLockException || t instanceof StaleStateException) return true;
+
+            // another transaction created the same rollup bucket first
+            if (RevenueRollups.isBucketRace(t)) return true;
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package org.RealEstate.service;
+
+import org.RealEstate.dto.MakePaymentDTO;
+import org.RealEstate.dto.PaymentResultDTO;
+import org.RealEstate.dto.StatementSummaryDTO;
+import org.RealEstate.enums.PaymentOutcome;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Reads "contract_id,amount" lines and posts them chunk by chunk, so memory is bounded by the chunk size
+public class PaymentStatementLoader {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final RealEstate service;
+    private final int chunkSize;
+
+    public PaymentStatementLoader(RealEstate service) {
+        this(service, DEFAULT_CHUNK_SIZE);
+    }
+
+    public PaymentStatementLoader(RealEstate service, int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive");
+
+        this.service = service;
+        this.chunkSize = chunkSize;
+    }
+
+    public StatementSummaryDTO load(Path file, Consumer<PaymentResultDTO> sink) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return load(reader, sink);
+        }
+    }
+
+    public StatementSummaryDTO load(Reader source, Consumer<PaymentResultDTO> sink) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        Counter counter = new Counter(sink);
+
+        List<MakePaymentDTO> chunk = new ArrayList<>(chunkSize);
+        long[] lines = new long[chunkSize];
+        long lineNumber = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+
+            if (line.isBlank()) continue;
+
+            String[] columns = line.split(",");
+            MakePaymentDTO dto;
+
+            try {
+                dto = new MakePaymentDTO(
+                        Long.parseLong(columns[0].trim()),
+                        new BigDecimal(columns[1].trim())
+                );
+            }
+            catch (RuntimeException e) {
+                if (lineNumber == 1) continue;
+
+                counter.accept(new PaymentResultDTO(lineNumber, null, null, PaymentOutcome.REJECTED, "Malformed line"));
+                continue;
+            }
+
+            lines[chunk.size()] = lineNumber;
+            chunk.add(dto);
+
+            if (chunk.size() == chunkSize) {
+                service.postPayments(chunk, lines).forEach(counter);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) service.postPayments(chunk, lines).forEach(counter);
+
+        return new StatementSummaryDTO(lineNumber, counter.posted, counter.rejected, counter.unknownContract);
+    }
+
+    private static class Counter implements Consumer<PaymentResultDTO> {
+        private final Consumer<PaymentResultDTO> sink;
+        private long posted;
+        private long rejected;
+        private long unknownContract;
+
+        Counter(Consumer<PaymentResultDTO> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(PaymentResultDTO result) {
+            switch (result.getOutcome()) {
+                case POSTED -> posted++;
+                case REJECTED -> rejected++;
+                case UNKNOWN_CONTRACT -> unknownContract++;
+            }
+
+            sink.accept(result);
+        }
+    }
+}
@@ -1,25 +1,83 @@
 package org.RealEstate.service;
 
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.criteria.*;
+import org.RealEstate.analytics.PortfolioSnapshot;
+import org.RealEstate.enums.BalanceSort;
+import org.RealEstate.enums.ConcurrencyMode;
+import org.RealEstate.enums.Operation;
+import org.RealEstate.enums.PaymentOutcome;
 import org.RealEstate.enums.PropertyType;
 import org.RealEstate.enums.Status;
 import org.RealEstate.models.*;
 import org.RealEstate.dto.*;
+import org.RealEstate.metrics.OperationMetrics;
+import org.RealEstate.metrics.RealEstateMetrics;
+import org.RealEstate.search.TenantNameIndex;
+import org.RealEstate.utils.CacheMetrics;
 import org.RealEstate.utils.HibernateUtil;
+import org.RealEstate.utils.SessionRouter;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StaleStateException;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public final class RealEstate {
+    private static final int ID_CHUNK_SIZE = 1000;
+    private static final int MAX_ATTEMPTS = 10;
+    // contracts per batch transaction, small next to the cores * 16 stripes makePayment shares with batches
+    private static final int LOCK_GROUP_SIZE = 32;
+    private static final int MAX_NAME_CANDIDATES = 1000;
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // the unfinished summary's query cache region. Hibernate invalidates it per table, and every payment writes
+    // rental_contract, so any payment drops every cached unfinished summary: it only pays off between payments.
+    // Finished summaries live in FinishedSummaryCache instead, evicted per date range
+    public static final String SUMMARY_CACHE_REGION = "summaries";
+
+    // contract columns joined to Payment through the mapped Contract.payments association
+    private static final String STATEMENT_QUERY = """
+            select new org.RealEstate.dto.TenantStatementLineDTO(
+                c.id, c.tenantName, c.propertyType, c.monthlyRent, c.startDate, c.endDate, c.status,
+                c.total, c.paidTotal, c.outstanding, p.id, p.payDate, p.amount
+            )
+            from Contract c left join c.payments p""";
+    private static final String STATEMENT_ORDER = " order by c.id, p.payDate, p.id";
+
     private static volatile RealEstate instance;
 
-    private RealEstate() {}
+    // looked up per call so HibernateUtil can swap routers (tests do); shard instances get a fixed one
+    private final Supplier<SessionRouter> router;
+    private final ContractLocks locks = new ContractLocks(Runtime.getRuntime().availableProcessors() * 16);
+    private volatile ConcurrencyMode concurrencyMode = ConcurrencyMode.STRIPED;
+
+    private RealEstate() {
+        this.router = HibernateUtil::getRouter;
+        RealEstateMetrics.register(HibernateUtil.getSessionFactory());
+    }
+
+    // one instance per shard database, see ShardedRealEstate
+    RealEstate(SessionFactory sessionFactory) {
+        SessionRouter fixed = new SessionRouter(sessionFactory, List.of());
+        this.router = () -> fixed;
+    }
+
+    SessionRouter getRouter() {
+        return router.get();
+    }
 
     public static RealEstate getInstance() {
         if (instance == null) {
@@ -32,181 +90,792 @@ public final class RealEstate {
         return instance;
     }
 
+    public ConcurrencyMode getConcurrencyMode() {
+        return concurrencyMode;
+    }
+
+    public void setConcurrencyMode(ConcurrencyMode concurrencyMode) {
+        this.concurrencyMode = Objects.requireNonNull(concurrencyMode);
+    }
+
     public Payment makePayment(MakePaymentDTO dto) {
-        Contract contract;
+        long started = OperationMetrics.begin();
+
+        try {
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) return withRetry(() -> postPayment(dto));
 
-        try (Session session = HibernateUtil.getSession()) {
-            contract = session.get(Contract.class, dto.getContractId());
+            ReentrantLock lock = locks.lockFor(dto.getContractId());
+            lock.lock();
 
-            if (contract == null) throw new IllegalArgumentException("Not found contract with id: " + dto.getContractId());
+            try {
+                return withRetry(() -> postPayment(dto));
+            }
+            finally {
+                lock.unlock();
+            }
         }
+        finally {
+            OperationMetrics.end(Operation.MAKE_PAYMENT, started);
+        }
+    }
 
-        if (contract.getStatus() == Status.COMPLETED) throw new RuntimeException("Contract paid fully");
+    private Payment postPayment(MakePaymentDTO dto) {
+        try (Session session = router.get().openSession()) {
+            Transaction tx = session.beginTransaction();
 
-        Payment payment = new Payment(
-                contract,
-                LocalDate.now(),
-                dto.getAmount()
-        );
+            try {
+                Contract contract = session.get(Contract.class, dto.getContractId());
+
+                if (contract == null) throw new IllegalArgumentException("Not found contract with id: " + dto.getContractId());
+
+                if (contract.getStatus() == Status.COMPLETED) throw new RuntimeException("Contract paid fully");
+
+                Payment payment = new Payment(
+                        contract,
+                        LocalDate.now(),
+                        dto.getAmount()
+                );
+
+                session.persist(payment);
+
+                contract.addPayment(dto.getAmount());
+                updateStatus(contract);
+
+                tx.commit();
+                router.get().afterWrite();
+
+                return payment;
+            }
+            catch (RuntimeException e) {
+                if (tx.isActive()) tx.rollback();
+                throw e;
+            }
+        }
+    }
+
+    public List<PaymentResultDTO> makePayments(Collection<MakePaymentDTO> dtos) {
+        long started = OperationMetrics.begin();
+
+        try {
+            List<MakePaymentDTO> payments = new ArrayList<>(dtos);
+            long[] lines = new long[payments.size()];
+
+            for (int i = 0; i < lines.length; i++) lines[i] = i + 1;
+
+            return postPayments(payments, lines);
+        }
+        finally {
+            OperationMetrics.end(Operation.MAKE_PAYMENTS, started);
+        }
+    }
+
+    // Contracts are posted LOCK_GROUP_SIZE at a time, each group in its own transaction holding only its own
+    // stripes, so a large batch never blocks makePayment on most of the stripes for its whole run. A group
+    // that fails rejects its own lines; groups already committed stay posted.
+    List<PaymentResultDTO> postPayments(List<MakePaymentDTO> payments, long[] lines) {
+        PaymentResultDTO[] results = new PaymentResultDTO[payments.size()];
+        Map<Long, List<Integer>> byContract = new LinkedHashMap<>();
+
+        for (int i = 0; i < payments.size(); i++) {
+            byContract.computeIfAbsent(payments.get(i).getContractId(), id -> new ArrayList<>()).add(i);
+        }
+
+        Map<Long, List<Integer>> group = new LinkedHashMap<>();
+
+        for (Map.Entry<Long, List<Integer>> entry : byContract.entrySet()) {
+            group.put(entry.getKey(), entry.getValue());
+
+            if (group.size() == LOCK_GROUP_SIZE) {
+                postGroup(payments, lines, group, results);
+                group.clear();
+            }
+        }
+
+        if (!group.isEmpty()) postGroup(payments, lines, group, results);
+
+        return Arrays.asList(results);
+    }
+
+    private void postGroup(List<MakePaymentDTO> payments, long[] lines, Map<Long, List<Integer>> group, PaymentResultDTO[] results) {
+        int[] taken = concurrencyMode == ConcurrencyMode.STRIPED ? locks.lockAll(group.keySet()) : null;
+
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    postPaymentsOnce(payments, lines, group, results);
+                    break;
+                }
+                catch (RuntimeException e) {
+                    if (isRetryable(e) && attempt < MAX_ATTEMPTS) {
+                        backOff(attempt);
+                        continue;
+                    }
+
+                    for (List<Integer> indexes : group.values()) {
+                        for (int i : indexes) {
+                            if (results[i] == null || results[i].getOutcome() == PaymentOutcome.POSTED) {
+                                results[i] = result(lines[i], payments.get(i), PaymentOutcome.REJECTED, "Batch failed: " + e.getMessage());
+                            }
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+        finally {
+            if (taken != null) locks.unlockAll(taken);
+        }
+    }
+
+    private void postPaymentsOnce(List<MakePaymentDTO> payments, long[] lines, Map<Long, List<Integer>> byContract, PaymentResultDTO[] results) {
+        try (Session session = router.get().openSession()) {
+            Transaction tx = session.beginTransaction();
+
+            try {
+                Map<Long, Contract> contracts = loadContracts(session, byContract.keySet());
+                List<Payment> accepted = new ArrayList<>();
+
+                for (Map.Entry<Long, List<Integer>> entry : byContract.entrySet()) {
+                    Contract contract = contracts.get(entry.getKey());
+
+                    for (int i : entry.getValue()) {
+                        MakePaymentDTO dto = payments.get(i);
+
+                        if (contract == null) {
+                            results[i] = result(lines[i], dto, PaymentOutcome.UNKNOWN_CONTRACT, "Not found contract with id: " + dto.getContractId());
+                        }
+                        else if (dto.getAmount() == null || dto.getAmount().signum() <= 0) {
+                            results[i] = result(lines[i], dto, PaymentOutcome.REJECTED, "Invalid amount");
+                        }
+                        else if (contract.getStatus() == Status.COMPLETED || contract.getPaidTotal().compareTo(contract.getTotal()) >= 0) {
+                            results[i] = result(lines[i], dto, PaymentOutcome.REJECTED, "Contract paid fully");
+                        }
+                        else {
+                            accepted.add(new Payment(contract, LocalDate.now(), dto.getAmount()));
+                            contract.addPayment(dto.getAmount());
+                            results[i] = result(lines[i], dto, PaymentOutcome.POSTED, null);
+                        }
+                    }
+
+                    if (contract != null) updateStatus(contract);
+                }
+
+                insertPayments(session, accepted);
+
+                tx.commit();
+                router.get().afterWrite();
+            }
+            catch (RuntimeException e) {
+                if (tx.isActive()) tx.rollback();
+                throw e;
+            }
+        }
+    }
 
-        try (Session session = HibernateUtil.getSession()) {
-            session.beginTransaction();
-            session.persist(payment);
-            session.getTransaction().commit();
+    private Map<Long, Contract> loadContracts(Session session, Collection<Long> ids) {
+        Map<Long, Contract> contracts = new HashMap<>();
+        List<Long> pending = new ArrayList<>(ids);
+
+        for (int from = 0; from < pending.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = pending.subList(from, Math.min(from + ID_CHUNK_SIZE, pending.size()));
+
+            for (Contract contract : session.createQuery("from Contract c where c.id in :ids", Contract.class)
+                    .setParameter("ids", chunk)
+                    .getResultList()) {
+                contracts.put(contract.getId(), contract);
+            }
         }
 
-        BigDecimal paid;
+        return contracts;
+    }
+
+    // IDENTITY ids disable Hibernate's insert batching, so payments go through a plain JDBC batch
+    private void insertPayments(Session session, List<Payment> payments) {
+        if (payments.isEmpty()) return;
+
+        SessionFactoryImplementor factory = session.getSessionFactory().unwrap(SessionFactoryImplementor.class);
+        int batchSize = Math.max(factory.getSessionFactoryOptions().getJdbcBatchSize(), 1);
+
+        session.doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "insert into rent_payment (contract_id, pay_date, amount, version) values (?, ?, ?, 0)")) {
+                int pending = 0;
+
+                for (Payment payment : payments) {
+                    ps.setLong(1, payment.getContract().getId());
+                    ps.setObject(2, payment.getPayDate());
+                    ps.setBigDecimal(3, payment.getAmount());
+                    ps.addBatch();
+
+                    if (++pending == batchSize) {
+                        ps.executeBatch();
+                        pending = 0;
+                    }
+                }
+
+                if (pending > 0) ps.executeBatch();
+            }
+        });
+    }
+
+    private <T> T withRetry(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            }
+            catch (RuntimeException e) {
+                if (!isRetryable(e) || attempt >= MAX_ATTEMPTS) throw e;
+
+                backOff(attempt);
+            }
+        }
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockException || t instanceof StaleStateException) return true;
+        }
+
+        // a concurrent first write to the same rollup bucket; the rerun finds the row and adds to it
+        return RevenueRollups.isBucketRace(e);
+    }
+
+    private static void backOff(int attempt) {
+        LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(attempt * 1_000_000L));
+    }
+
+    private PaymentResultDTO result(long line, MakePaymentDTO dto, PaymentOutcome outcome, String message) {
+        return new PaymentResultDTO(line, dto.getContractId(), dto.getAmount(), outcome, message);
+    }
+
+    public void recalculateBalances() {
+        long started = OperationMetrics.begin();
+
+        try {
+            try (Session session = router.get().openSession()) {
+                session.beginTransaction();
+
+                session.createMutationQuery(
+                        "update Contract c set c.paidTotal = coalesce((select sum(p.amount) from Payment p where p.contract = c), 0)"
+                ).executeUpdate();
+
+                try (ScrollableResults<Contract> contracts = session.createQuery("from Contract", Contract.class).scroll(ScrollMode.FORWARD_ONLY)) {
+                    int count = 0;
 
-        try (Session session = HibernateUtil.getSession()) {
-            CriteriaBuilder cb = session.getCriteriaBuilder();
-            CriteriaQuery<BigDecimal> cq = cb.createQuery(BigDecimal.class);
-            Root<Payment> root = cq.from(Payment.class);
+                    while (contracts.next()) {
+                        contracts.get().refreshBalance();
 
-            cq.select(
-                    cb.sum(root.get("amount"))
-            ).where(
-                    cb.equal(root.get("contract").get("id"), dto.getContractId())
-            ).groupBy(
-                    root.get("contract").get("id")
-            );
+                        if (++count % 500 == 0) {
+                            session.flush();
+                            session.clear();
+                        }
+                    }
+                }
+
+                session.flush();
+                RevenueRollups.rebuild(session);
 
-            paid = session.createQuery(cq).getSingleResult();
+                session.getTransaction().commit();
+                PortfolioSnapshot.markAllDirty(session.getSessionFactory());
+                FinishedSummaryCache.clear(session.getSessionFactory());
+            }
+        }
+        finally {
+            OperationMetrics.end(Operation.RECALCULATE_BALANCES, started);
         }
+    }
 
-        if (paid.compareTo(contract.getTotal()) >= 0) {
+    private void updateStatus(Contract contract) {
+        if (contract.getPaidTotal().compareTo(contract.getTotal()) >= 0) {
             contract.setStatus(Status.COMPLETED);
         }
         else if (contract.getEndDate().isBefore(LocalDate.now())) {
             contract.setStatus(Status.OVERDUE);
         }
+    }
+
+    public List<Contract> searchContractsWithFilters(FilterDTO dto) {
+        long started = OperationMetrics.begin();
 
-        try (Session session = HibernateUtil.getSession()) {
-            session.beginTransaction();
-            session.merge(payment);
-            session.getTransaction().commit();
+        try {
+            try (Session session = router.get().openReadSession(Operation.SEARCH_CONTRACTS)) {
+                CriteriaBuilder cb = session.getCriteriaBuilder();
+                CriteriaQuery<Contract> cq = cb.createQuery(Contract.class);
+                Root<Contract> root = cq.from(Contract.class);
+
+                applySearch(session, cb, cq, root, dto, null);
+
+                return session.createQuery(cq).getResultList();
+            }
+        }
+        finally {
+            OperationMetrics.end(Operation.SEARCH_CONTRACTS, started);
         }
+    }
+
+    public ContractPageDTO searchContractsPage(FilterDTO dto, ContractCursorDTO after, int pageSize) {
+        long started = OperationMetrics.begin();
+
+        try {
+            if (pageSize <= 0) throw new IllegalArgumentException("Page size must be positive");
+
+            try (Session session = router.get().openReadSession(Operation.SEARCH_CONTRACTS_PAGE)) {
+                CriteriaBuilder cb = session.getCriteriaBuilder();
+                CriteriaQuery<Contract> cq = cb.createQuery(Contract.class);
+                Root<Contract> root = cq.from(Contract.class);
 
-        return payment;
+                applySearch(session, cb, cq, root, dto, after);
+
+                List<Contract> contracts = session.createQuery(cq)
+                        .setMaxResults(pageSize + 1)
+                        .getResultList();
+
+                if (contracts.size() <= pageSize) return new ContractPageDTO(contracts, null);
+
+                contracts = new ArrayList<>(contracts.subList(0, pageSize));
+                Contract last = contracts.get(pageSize - 1);
+
+                return new ContractPageDTO(contracts, new ContractCursorDTO(last.getStartDate(), last.getId()));
+            }
+        }
+        finally {
+            OperationMetrics.end(Operation.SEARCH_CONTRACTS_PAGE, started);
+        }
     }
 
-    public List<Contract> searchContractsWithFilters(FilterDTO dto) {
-        try (Session session = HibernateUtil.getSession()) {
-            CriteriaBuilder cb = session.getCriteriaBuilder();
-            CriteriaQuery<Contract> cq = cb.createQuery(Contract.class);
-            Root<Contract> root = cq.from(Contract.class);
+    public long streamContractsWithFilters(FilterDTO dto, Consumer<Contract> consumer) {
+        long started = OperationMetrics.begin();
 
-            List<Predicate> predicates = new ArrayList<>();
+        try {
+            try (Session session = router.get().openReadSession(Operation.STREAM_CONTRACTS)) {
+                CriteriaBuilder cb = session.getCriteriaBuilder();
+                CriteriaQuery<Contract> cq = cb.createQuery(Contract.class);
+                Root<Contract> root = cq.from(Contract.class);
 
-            predicates.add(cb.like(root.get("tenantName"), "%" + dto.getClientName() + "%"));
+                applySearch(session, cb, cq, root, dto, null);
 
-            if (dto.getPropertyType() != null) predicates.add(cb.equal(root.get("propertyType"), dto.getPropertyType()));
+                long count = 0;
 
-            if (dto.getFromDate() != null) {
-                if (dto.getToDate() != null) {
-                    predicates.add(cb.between(root.get("startDate"), dto.getFromDate(), dto.getToDate()));
-                }
-                else {
-                    predicates.add(cb.greaterThanOrEqualTo(root.get("startDate"), dto.getFromDate()));
+                try (ScrollableResults<Contract> contracts = session.createQuery(cq)
+                        .setFetchSize(STREAM_FETCH_SIZE)
+                        .setReadOnly(true)
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (contracts.next()) {
+                        consumer.accept(contracts.get());
+
+                        if (++count % STREAM_FETCH_SIZE == 0) session.clear();
+                    }
                 }
+
+                return count;
             }
+        }
+        finally {
+            OperationMetrics.end(Operation.STREAM_CONTRACTS, started);
+        }
+    }
 
-            if (dto.getFromAmount() != null) {
-                if (dto.getToAmount() != null) {
-                    predicates.add(cb.between(root.get("monthlyRent"), dto.getFromAmount(), dto.getToAmount()));
-                }
-                else {
-                    predicates.add(cb.greaterThanOrEqualTo(root.get("monthlyRent"), dto.getFromAmount()));
-                }
+    public List<ContractSearchRowDTO> searchContractRows(FilterDTO dto) {
+        long started = OperationMetrics.begin();
+
+        try {
+            try (Session session = router.get().openReadSession(Operation.SEARCH_CONTRACT_ROWS)) {
+                CriteriaBuilder cb = session.getCriteriaBuilder();
+                CriteriaQuery<ContractSearchRowDTO> cq = cb.createQuery(ContractSearchRowDTO.class);
+                Root<Contract> root = cq.from(Contract.class);
+
+                applySearch(session, cb, cq, root, dto, null);
+
+                cq.select(searchRow(cb, root));
+
+                return session.createQuery(cq).getResultList();
             }
+        }
+        finally {
+            OperationMetrics.end(Operation.SEARCH_CONTRACT_ROWS, started);
+        }
+    }
 
-            cq.where(predicates.toArray(new Predicate[predicates.size()]));
-            cq.orderBy(cb.desc(root.get("startDate")));
+    public ContractRowPageDTO searchContractRowsPage(FilterDTO dto, ContractCursorDTO after, int pageSize) {
+        long started = OperationMetrics.begin();
 
-            return session.createQuery(cq).getResultList();
+        try {
+            if (pageSize <= 0) throw new IllegalArgumentException("Page size must be positive");
+
+            try (Session session = router.get().openReadSession(Operation.SEARCH_CONTRACT_ROWS_PAGE)) {
+                CriteriaBuilder cb = session.getCriteriaBuilder();
+                CriteriaQuery<ContractSearchRowDTO> cq = cb.createQuery(ContractSearchRowDTO.class);
+                Root<Contract> root = cq.from(Contract.class);
+
+                applySearch(session, cb, cq, root, dto, after);
+
+                cq.select(searchRow(cb, root));
+
+                List<ContractSearchRowDTO> rows = session.createQuery(cq)
+                        .setMaxResults(pageSize + 1)
+                        .getResultList();
+
+                if (rows.size() <= pageSize) return new ContractRowPageDTO(rows, null);
+
+                rows = new ArrayList<>(rows.subList(0, pageSize));
+                ContractSearchRowDTO last = rows.get(pageSize - 1);
+
+                return new ContractRowPageDTO(rows, new ContractCursorDTO(last.getStartDate(), last.getId()));
+            }
+        }
+        finally {
+            OperationMetrics.end(Operation.SEARCH_CONTRACT_ROWS_PAGE, started);
         }
     }
 
-    public List<FinishedContractSummaryDTO> getFinishedContractSummary(DateRangeDTO dto) {
-        List<Object[]> queryResult = new ArrayList<>();
-
-        try (Session session = HibernateUtil.getSession()) {
-            CriteriaBuilder cb = session.getCriteriaBuilder();
-            CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
-            Root<Contract> root = cq.from(Contract.class);
-
-            cq.multiselect(
-                    root.get("propertyType"),
-                    cb.count(root),
-                    root.get("monthlyRent"),
-                    root.get("startDate"),
-                    root.get("endDate")
-            ).where(
-                    cb.equal(root.get("status"), Status.COMPLETED),
-                    cb.between(root.get("startDate"), dto.getFromDate(), dto.getToDate())
-            ).groupBy(
-                    root.get("id")
-            );
-
-            queryResult = session.createQuery(cq).getResultList();
-        }
-
-        List<FinishedContractSummaryDTO> result = new ArrayList<>();
-
-        for (Object[] object : queryResult) {
-            BigDecimal monthlyRent = (BigDecimal) object[2];
-            LocalDate from = (LocalDate) object[3];
-            LocalDate to = (LocalDate) object[4];
-
-            BigDecimal months = new BigDecimal(ChronoUnit.MONTHS.between(from, to));
-
-            result.add(new FinishedContractSummaryDTO(
-                    (PropertyType) object[0],
-                    (long) object[1],
-                    monthlyRent.multiply(months)
+    // constructor expression: rows come back as plain DTOs, no managed entities or dirty-checking snapshots
+    private CompoundSelection<ContractSearchRowDTO> searchRow(CriteriaBuilder cb, Root<Contract> root) {
+        return cb.construct(
+                ContractSearchRowDTO.class,
+                root.get("id"),
+                root.get("tenantName"),
+                root.get("propertyType"),
+                root.get("monthlyRent"),
+                root.get("startDate"),
+                root.get("endDate"),
+                root.get("status"),
+                root.get("total")
+        );
+    }
+
+    private void applySearch(Session session, CriteriaBuilder cb, CriteriaQuery<?> cq, Root<Contract> root, FilterDTO dto, ContractCursorDTO after) {
+        List<Predicate> predicates = filterPredicates(cb, root, dto);
+
+        // seek past the cursor on (start_date desc, id asc) instead of skipping rows with OFFSET
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(root.get("startDate"), after.getStartDate()),
+                    cb.and(
+                            cb.equal(root.get("startDate"), after.getStartDate()),
+                            cb.greaterThan(root.get("id"), after.getId())
+                    )
             ));
         }
 
-        return result;
+        cq.where(predicates.toArray(new Predicate[predicates.size()]));
+        cq.orderBy(cb.desc(root.get("startDate")), cb.asc(root.get("id")));
+    }
+
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Contract> root, FilterDTO dto) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        String name = dto.getClientName();
+
+        if (name != null && !name.isEmpty()) {
+            // keyed on the primary, whose listeners keep it current, even when this search reads from a replica;
+            // null unless single-writer mode lets it vouch for a short candidate list, and the LIKE below decides alone.
+            // Ids past what the index has seen are always kept, so a row it never heard of can't drop out.
+            TenantNameIndex index = TenantNameIndex.forFactory(router.get().getPrimary());
+            long indexedUpTo = index.highestId();
+            long[] candidates = index.candidates(name, MAX_NAME_CANDIDATES);
+
+            if (candidates != null) {
+                predicates.add(cb.or(
+                        root.get("id").in(Arrays.stream(candidates).boxed().toList()),
+                        cb.greaterThan(root.get("id"), indexedUpTo)
+                ));
+            }
+
+            // the fragment is matched literally, as the index reads it
+            predicates.add(cb.like(root.get("tenantName"), "%" + escapeLike(name) + "%", '\\'));
+        }
+
+        if (dto.getPropertyType() != null) predicates.add(cb.equal(root.get("propertyType"), dto.getPropertyType()));
+
+        if (dto.getFromDate() != null) {
+            if (dto.getToDate() != null) {
+                predicates.add(cb.between(root.get("startDate"), dto.getFromDate(), dto.getToDate()));
+            }
+            else {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("startDate"), dto.getFromDate()));
+            }
+        }
+
+        if (dto.getFromAmount() != null) {
+            if (dto.getToAmount() != null) {
+                predicates.add(cb.between(root.get("monthlyRent"), dto.getFromAmount(), dto.getToAmount()));
+            }
+            else {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("monthlyRent"), dto.getFromAmount()));
+            }
+        }
+
+        return predicates;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // filtered, ordered and paged on the stored total / paid_total / outstanding columns, never in Java
+    public ContractBalancePageDTO searchContractBalances(BalanceFilterDTO filter, BalanceCursorDTO after, int pageSize) {
+        long started = OperationMetrics.begin();
+
+        try {
+            if (pageSize <= 0) throw new IllegalArgumentException("Page size must be positive");
+
+            try (Session session = router.get().openReadSession(Operation.SEARCH_BALANCES)) {
+                CriteriaBuilder cb = session.getCriteriaBuilder();
+                CriteriaQuery<ContractBalanceDTO> cq = cb.createQuery(ContractBalanceDTO.class);
+                Root<Contract> root = cq.from(Contract.class);
+                Path<BigDecimal> sortValue = root.get(filter.getSortBy().getAttribute());
+
+                List<Predicate> predicates = new ArrayList<>();
+
+                if (filter.getPropertyType() != null) predicates.add(cb.equal(root.get("propertyType"), filter.getPropertyType()));
+
+                if (filter.getStatus() != null) predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+
+                addRange(cb, predicates, root.get("total"), filter.getMinTotal(), filter.getMaxTotal());
+                addRange(cb, predicates, root.get("paidTotal"), filter.getMinPaid(), filter.getMaxPaid());
+                addRange(cb, predicates, root.get("outstanding"), filter.getMinOutstanding(), filter.getMaxOutstanding());
+
+                // seek past the cursor on (sort value, id), both in the requested direction: MySQL can only walk
+                // idx_contract_outstanding (outstanding, then the primary key) for an order that doesn't mix them
+                if (after != null) {
+                    predicates.add(cb.or(
+                            filter.isDescending() ? cb.lessThan(sortValue, after.getValue()) : cb.greaterThan(sortValue, after.getValue()),
+                            cb.and(
+                                    cb.equal(sortValue, after.getValue()),
+                                    filter.isDescending() ? cb.lessThan(root.get("id"), after.getId()) : cb.greaterThan(root.get("id"), after.getId())
+                            )
+                    ));
+                }
+
+                cq.select(cb.construct(
+                        ContractBalanceDTO.class,
+                        root.get("id"),
+                        root.get("tenantName"),
+                        root.get("propertyType"),
+                        root.get("status"),
+                        root.get("endDate"),
+                        root.get("total"),
+                        root.get("paidTotal"),
+                        root.get("outstanding")
+                )).where(
+                        predicates.toArray(new Predicate[predicates.size()])
+                ).orderBy(
+                        filter.isDescending() ? cb.desc(sortValue) : cb.asc(sortValue),
+                        filter.isDescending() ? cb.desc(root.get("id")) : cb.asc(root.get("id"))
+                );
+
+                List<ContractBalanceDTO> rows = session.createQuery(cq)
+                        .setMaxResults(pageSize + 1)
+                        .getResultList();
+
+                if (rows.size() <= pageSize) return new ContractBalancePageDTO(rows, null);
+
+                rows = new ArrayList<>(rows.subList(0, pageSize));
+                ContractBalanceDTO last = rows.get(pageSize - 1);
+                return new ContractBalancePageDTO(rows, new BalanceCursorDTO(sortValue(last, filter.getSortBy()), last.getId()));
+            }
+        }
+        finally {
+            OperationMetrics.end(Operation.SEARCH_BALANCES, started);
+        }
+    }
+
+    static BigDecimal sortValue(ContractBalanceDTO row, BalanceSort sort) {
+        return switch (sort) {
+            case TOTAL -> row.getTotal();
+            case PAID_TOTAL -> row.getPaidTotal();
+            case OUTSTANDING -> row.getOutstanding();
+        };
+    }
+
+    private static void addRange(CriteriaBuilder cb, List<Predicate> predicates, Path<BigDecimal> path, BigDecimal min, BigDecimal max) {
+        if (min != null) predicates.add(cb.greaterThanOrEqualTo(path, min));
+
+        if (max != null) predicates.add(cb.lessThanOrEqualTo(path, max));
+    }
+
+    public List<FinishedContractSummaryDTO> getFinishedContractSummary(DateRangeDTO dto) {
+        long started = OperationMetrics.begin();
+
+        try {
+            try (Session session = router.get().openReadSession(Operation.FINISHED_SUMMARY)) {
+                SessionFactory primary = router.get().getPrimary();
+
+                // evictions follow the primary's commits, which a lagging replica may not have applied yet
+                if (session.getSessionFactory() != primary) return finishedSummary(session, dto);
+
+                return FinishedSummaryCache.forFactory(primary).get(dto, () -> finishedSummary(session, dto));
+            }
+        }
+        finally {
+            OperationMetrics.end(Operation.FINISHED_SUMMARY, started);
+        }
+    }
+
+    private List<FinishedContractSummaryDTO> finishedSummary(Session session, DateRangeDTO dto) {
+        if (RevenueRollups.alignsWithMonths(dto)) return RevenueRollups.finishedSummary(session, dto);
+
+        CriteriaBuilder cb = session.getCriteriaBuilder();
+        CriteriaQuery<FinishedContractSummaryDTO> cq = cb.createQuery(FinishedContractSummaryDTO.class);
+        Root<Contract> root = cq.from(Contract.class);
+
+        cq.select(cb.construct(
+                FinishedContractSummaryDTO.class,
+                root.get("propertyType"),
+                cb.count(root),
+                cb.sum(root.<BigDecimal>get("total"))
+        )).where(
+                cb.equal(root.get("status"), Status.COMPLETED),
+                cb.between(root.get("startDate"), dto.getFromDate(), dto.getToDate())
+        ).groupBy(
+                root.get("propertyType")
+        ).orderBy(
+                cb.asc(root.get("propertyType"))
+        );
+
+        return session.createQuery(cq).getResultList();
+    }
+
+    public List<RevenueRollupDTO> getMonthlyRevenue(DateRangeDTO dto) {
+        long started = OperationMetrics.begin();
+
+        try {
+            try (Session session = router.get().openReadSession(Operation.MONTHLY_REVENUE)) {
+                if (RevenueRollups.alignsWithMonths(dto)) return RevenueRollups.read(session, dto);
+
+                return RevenueRollups.aggregate(session, dto.getFromDate(), dto.getToDate());
+            }
+        }
+        finally {
+            OperationMetrics.end(Operation.MONTHLY_REVENUE, started);
+        }
+    }
+
+    public void rebuildRevenueRollup() {
+        long started = OperationMetrics.begin();
+
+        try {
+            try (Session session = router.get().openSession()) {
+                session.beginTransaction();
+                RevenueRollups.rebuild(session);
+                session.getTransaction().commit();
+                // aligned ranges read the buckets just rebuilt
+                FinishedSummaryCache.clear(session.getSessionFactory());
+            }
+        }
+        finally {
+            OperationMetrics.end(Operation.REBUILD_REVENUE_ROLLUP, started);
+        }
+    }
+
+    public List<CacheStatsDTO> getCacheStats() {
+        long started = OperationMetrics.begin();
+
+        try {
+            try (Session session = router.get().openSession()) {
+                List<CacheStatsDTO> stats = CacheMetrics.collect(session.getSessionFactory());
+                stats.add(FinishedSummaryCache.forFactory(session.getSessionFactory()).stats());
+
+                return stats;
+            }
+        }
+        finally {
+            OperationMetrics.end(Operation.CACHE_STATS, started);
+        }
     }
 
     public List<UnfinishedContractSummaryDTO> getUnfinishedContractSummary() {
-        List<Object[]> query = new ArrayList<>();
-
-        try (Session session = HibernateUtil.getSession()) {
-            CriteriaBuilder cb = session.getCriteriaBuilder();
-            CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
-            Root<Payment> root = cq.from(Payment.class);
-
-            cq.multiselect(
-                    root.get("contract").get("id"),
-                    root.get("contract").get("monthlyRent"),
-                    root.get("contract").get("startDate"),
-                    root.get("contract").get("endDate"),
-                    cb.sum(root.get("amount"))
-            ).where(
-                    cb.notEqual(root.get("contract").get("status"), Status.COMPLETED)
-            ).groupBy(
-                    root.get("contract").get("id")
-            );
-
-            query = session.createQuery(cq).getResultList();
-        }
-
-        List<UnfinishedContractSummaryDTO> dto = new ArrayList<>();
-
-        for (Object[] obj : query) {
-            LocalDate from = (LocalDate) obj[2];
-            LocalDate to = (LocalDate) obj[3];
-            BigDecimal monthlyRent = (BigDecimal) obj[1];
-            BigDecimal totalMonths = new BigDecimal(ChronoUnit.MONTHS.between(from, to));
-
-            dto.add(new  UnfinishedContractSummaryDTO(
-                    (long) obj[0],
-                    monthlyRent.multiply(totalMonths),
-                    (BigDecimal) obj[4]
-            ));
+        long started = OperationMetrics.begin();
+
+        try {
+            return getUnfinishedContractSummary(new UnfinishedSummaryFilterDTO());
         }
+        finally {
+            OperationMetrics.end(Operation.UNFINISHED_SUMMARY, started);
+        }
+    }
+
+    // rooted on rental_contract and read from the stored balance, so unpaid contracts are included
+    // and rent_payment is never scanned
+    public List<UnfinishedContractSummaryDTO> getUnfinishedContractSummary(UnfinishedSummaryFilterDTO filter) {
+        long started = OperationMetrics.begin();
+
+        try {
+            try (Session session = router.get().openReadSession(Operation.UNFINISHED_SUMMARY)) {
+                CriteriaBuilder cb = session.getCriteriaBuilder();
+                CriteriaQuery<UnfinishedContractSummaryDTO> cq = cb.createQuery(UnfinishedContractSummaryDTO.class);
+                Root<Contract> root = cq.from(Contract.class);
+
+                List<Predicate> predicates = new ArrayList<>();
+                predicates.add(root.get("status").in(Status.ACTIVE, Status.OVERDUE));
+
+                if (filter.getPropertyType() != null) predicates.add(cb.equal(root.get("propertyType"), filter.getPropertyType()));
 
-        return dto;
+                if (filter.isOverdueOnly()) predicates.add(cb.lessThan(root.get("endDate"), LocalDate.now()));
+
+                if (filter.getAfterId() != null) predicates.add(cb.greaterThan(root.get("id"), filter.getAfterId()));
+
+                cq.select(cb.construct(
+                        UnfinishedContractSummaryDTO.class,
+                        root.get("id"),
+                        root.get("total"),
+                        root.get("paidTotal")
+                )).where(
+                        predicates.toArray(new Predicate[predicates.size()])
+                ).orderBy(
+                        cb.asc(root.get("id"))
+                );
+
+                var query = session.createQuery(cq)
+                        .setCacheable(true)
+                        .setCacheRegion(SUMMARY_CACHE_REGION);
+
+                if (filter.getPageSize() > 0) query.setMaxResults(filter.getPageSize());
+
+                return query.getResultList();
+            }
+        }
+        finally {
+            OperationMetrics.end(Operation.UNFINISHED_SUMMARY, started);
+        }
+    }
+
+    // statement lines for every contract of the tenant, payments included, in one joined query
+    public List<TenantStatementLineDTO> getTenantStatement(String tenantName) {
+        long started = OperationMetrics.begin();
+
+        try {
+            try (Session session = router.get().openReadSession(Operation.TENANT_STATEMENT)) {
+                return session.createQuery(STATEMENT_QUERY + " where c.tenantName = :name" + STATEMENT_ORDER, TenantStatementLineDTO.class)
+                        .setParameter("name", tenantName)
+                        .getResultList();
+            }
+        }
+        finally {
+            OperationMetrics.end(Operation.TENANT_STATEMENT, started);
+        }
+    }
+
+    // one joined query per ID_CHUNK_SIZE contracts, so a few thousand contracts take a handful of queries
+    public List<TenantStatementLineDTO> getTenantStatement(Collection<Long> contractIds) {
+        long started = OperationMetrics.begin();
+
+        try {
+            List<Long> ids = new ArrayList<>(new TreeSet<>(contractIds));
+            List<TenantStatementLineDTO> lines = new ArrayList<>();
+
+            try (Session session = router.get().openReadSession(Operation.TENANT_STATEMENT)) {
+                for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+                    lines.addAll(session.createQuery(STATEMENT_QUERY + " where c.id in :ids" + STATEMENT_ORDER, TenantStatementLineDTO.class)
+                            .setParameter("ids", ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())))
+                            .getResultList());
+                }
+            }
+
+            return lines;
+        }
+        finally {
+            OperationMetrics.end(Operation.TENANT_STATEMENT, started);
+        }
     }
 }
@@ -0,0 +1,202 @@
+package org.RealEstate.service;
+
+import org.RealEstate.dto.*;
+import org.RealEstate.enums.ExecutionMode;
+import org.RealEstate.models.Contract;
+import org.RealEstate.models.Payment;
+import org.RealEstate.utils.PooledConnectionProvider;
+import org.RealEstate.utils.SessionRouter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+// CompletableFuture facade over RealEstate. Two limits apply:
+// - admission: at most maxInFlight requests are accepted at once, anything beyond fails fast with
+//   RejectedExecutionException instead of queueing without bound;
+// - connections: at most one running service call per pooled connection, so accepted requests wait
+//   here rather than in HikariCP's getConnection timeout.
+// In VIRTUAL mode every request gets its own virtual thread, so thousands can be parked cheaply.
+// Read-your-writes follows the caller: a request runs inside the submitting thread's window, and the returned
+// future completes inside the window its own write opened, so a read chained on with thenCompose sees the
+// write. A read submitted from an unrelated thread after join() does not; chain it instead.
+public class RealEstateAsync implements AutoCloseable {
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10_000;
+
+    // Java 21's factory, looked up reflectively so the build keeps targeting Java 17
+    private static final String VIRTUAL_FACTORY = "newVirtualThreadPerTaskExecutor";
+
+    private final RealEstate service;
+    private final ExecutorService ownedExecutor;
+    private final Executor executor;
+    private final Semaphore admission;
+    private final Semaphore connections;
+
+    public RealEstateAsync(RealEstate service, ExecutionMode mode) {
+        this(service, mode, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public RealEstateAsync(RealEstate service, ExecutionMode mode, int maxInFlight) {
+        this(service, mode, maxInFlight, Executors.class);
+    }
+
+    // executors is the class VIRTUAL mode takes its factory method from, replaceable in tests
+    RealEstateAsync(RealEstate service, ExecutionMode mode, int maxInFlight, Class<?> executors) {
+        this(service, newExecutor(mode, poolSize(service), maxInFlight, executors), poolSize(service), maxInFlight, true);
+    }
+
+    // Runs on a caller-supplied executor, which stays owned by the caller
+    public RealEstateAsync(RealEstate service, Executor executor, int maxConcurrency, int maxInFlight) {
+        this(service, executor, maxConcurrency, maxInFlight, false);
+    }
+
+    private RealEstateAsync(RealEstate service, Executor executor, int maxConcurrency, int maxInFlight, boolean owned) {
+        if (maxConcurrency <= 0 || maxInFlight <= 0) throw new IllegalArgumentException("Limits must be positive");
+
+        this.service = service;
+        this.executor = executor;
+        this.ownedExecutor = owned ? (ExecutorService) executor : null;
+        this.admission = new Semaphore(maxInFlight);
+        this.connections = new Semaphore(maxConcurrency);
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod(VIRTUAL_FACTORY);
+            return true;
+        }
+        catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public CompletableFuture<Payment> makePayment(MakePaymentDTO dto) {
+        return submit(() -> service.makePayment(dto));
+    }
+
+    public CompletableFuture<List<PaymentResultDTO>> makePayments(Collection<MakePaymentDTO> dtos) {
+        return submit(() -> service.makePayments(dtos));
+    }
+
+    public CompletableFuture<List<Contract>> searchContractsWithFilters(FilterDTO dto) {
+        return submit(() -> service.searchContractsWithFilters(dto));
+    }
+
+    public CompletableFuture<ContractPageDTO> searchContractsPage(FilterDTO dto, ContractCursorDTO after, int pageSize) {
+        return submit(() -> service.searchContractsPage(dto, after, pageSize));
+    }
+
+    public CompletableFuture<List<ContractSearchRowDTO>> searchContractRows(FilterDTO dto) {
+        return submit(() -> service.searchContractRows(dto));
+    }
+
+    public CompletableFuture<ContractRowPageDTO> searchContractRowsPage(FilterDTO dto, ContractCursorDTO after, int pageSize) {
+        return submit(() -> service.searchContractRowsPage(dto, after, pageSize));
+    }
+
+    public CompletableFuture<List<FinishedContractSummaryDTO>> getFinishedContractSummary(DateRangeDTO dto) {
+        return submit(() -> service.getFinishedContractSummary(dto));
+    }
+
+    public CompletableFuture<List<RevenueRollupDTO>> getMonthlyRevenue(DateRangeDTO dto) {
+        return submit(() -> service.getMonthlyRevenue(dto));
+    }
+
+    public CompletableFuture<List<UnfinishedContractSummaryDTO>> getUnfinishedContractSummary() {
+        return submit(service::getUnfinishedContractSummary);
+    }
+
+    public CompletableFuture<List<UnfinishedContractSummaryDTO>> getUnfinishedContractSummary(UnfinishedSummaryFilterDTO filter) {
+        return submit(() -> service.getUnfinishedContractSummary(filter));
+    }
+
+    public int getInFlightPermits() {
+        return admission.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        if (ownedExecutor == null) return;
+
+        ownedExecutor.shutdown();
+
+        try {
+            if (!ownedExecutor.awaitTermination(30, TimeUnit.SECONDS)) ownedExecutor.shutdownNow();
+        }
+        catch (InterruptedException e) {
+            ownedExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        if (!admission.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many requests in flight"));
+        }
+
+        SessionRouter router = service.getRouter();
+        long pin = router.currentPin();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<T> released = result.whenComplete((value, error) -> admission.release());
+
+        try {
+            executor.execute(() -> router.pinned(pin, () -> {
+                connections.acquireUninterruptibly();
+                T value;
+
+                try {
+                    value = work.get();
+                }
+                catch (Throwable e) {
+                    result.completeExceptionally(new CompletionException(e));
+                    return null;
+                }
+                finally {
+                    connections.release();
+                }
+
+                // still inside the window, so stages chained on the future inherit it
+                result.complete(value);
+                return null;
+            }));
+        }
+        catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+
+        return released;
+    }
+
+    // service calls write through the primary, so its pool is the one that runs out
+    private static int poolSize(RealEstate service) {
+        return PooledConnectionProvider.of(service.getRouter().getPrimary()).getMaxSize();
+    }
+
+    private static ExecutorService newExecutor(ExecutionMode mode, int poolSize, int maxInFlight, Class<?> executors) {
+        if (mode == ExecutionMode.VIRTUAL) {
+            try {
+                return (ExecutorService) executors.getMethod(VIRTUAL_FACTORY).invoke(null);
+            }
+            catch (ReflectiveOperationException e) {
+                throw new UnsupportedOperationException("Virtual threads need Java 21 or newer", e);
+            }
+        }
+
+        // every admitted request fits in the queue, so the pool itself never rejects
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxInFlight), new ThreadFactory() {
+                    private int next;
+
+                    @Override
+                    public synchronized Thread newThread(Runnable task) {
+                        Thread thread = new Thread(task, "realestate-async-" + next++);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        pool.allowCoreThreadTimeOut(true);
+
+        return pool;
+    }
+}
@@ -0,0 +1,208 @@
+package org.RealEstate.service;
+
+import org.RealEstate.dto.DateRangeDTO;
+import org.RealEstate.dto.FinishedContractSummaryDTO;
+import org.RealEstate.dto.RevenueRollupDTO;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.RevenueRollup;
+import org.hibernate.Session;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.LockAcquisitionException;
+import org.hibernate.query.NativeQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Month x PropertyType x Status buckets keyed on the contract's start month. This is a cohort view: collected is
+// what has been paid so far on the contracts that started in that month, whenever it was paid, not the cash
+// taken in during the month. Kept current by RevenueRollupListener inside the writing transaction; rebuild()
+// backfills from rental_contract.
+public final class RevenueRollups {
+    static final String BUCKET_CONSTRAINT = "uk_rollup_bucket";
+
+    private static final String MYSQL_UPSERT =
+            "insert into revenue_rollup (rollup_month, property_type, status, contract_count, expected_revenue, collected_revenue) " +
+                    "values (:month, :type, :status, :contracts, :expected, :collected) " +
+                    "on duplicate key update contract_count = contract_count + values(contract_count), " +
+                    "expected_revenue = expected_revenue + values(expected_revenue), " +
+                    "collected_revenue = collected_revenue + values(collected_revenue)";
+
+    private static final String MERGE_UPSERT =
+            "merge into revenue_rollup r using (values (cast(:month as date), cast(:type as varchar(32)), cast(:status as varchar(32)), " +
+                    "cast(:contracts as bigint), cast(:expected as decimal(14,2)), cast(:collected as decimal(14,2)))) " +
+                    "d(rollup_month, property_type, status, contract_count, expected_revenue, collected_revenue) " +
+                    "on r.rollup_month = d.rollup_month and r.property_type = d.property_type and r.status = d.status " +
+                    "when matched then update set contract_count = r.contract_count + d.contract_count, " +
+                    "expected_revenue = r.expected_revenue + d.expected_revenue, " +
+                    "collected_revenue = r.collected_revenue + d.collected_revenue " +
+                    "when not matched then insert (rollup_month, property_type, status, contract_count, expected_revenue, collected_revenue) " +
+                    "values (d.rollup_month, d.property_type, d.status, d.contract_count, d.expected_revenue, d.collected_revenue)";
+
+    private RevenueRollups() {}
+
+    public static boolean alignsWithMonths(DateRangeDTO dto) {
+        return dto.getFromDate() != null
+                && dto.getToDate() != null
+                && dto.getFromDate().getDayOfMonth() == 1
+                && dto.getToDate().equals(dto.getToDate().with(TemporalAdjusters.lastDayOfMonth()));
+    }
+
+    public static LocalDate monthOf(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    // one statement that adds to the bucket or creates it. Two transactions creating the same bucket can still
+    // collide on uk_rollup_bucket (or deadlock on MySQL's gap locks); isBucketRace() marks those as safe to rerun
+    public static void apply(Session session, LocalDate month, PropertyType propertyType, Status status,
+                             long contracts, BigDecimal expected, BigDecimal collected) {
+        if (contracts == 0 && expected.signum() == 0 && collected.signum() == 0) return;
+
+        boolean mysql = session.getSessionFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect() instanceof MySQLDialect;
+        NativeQuery<Object> upsert = session.createNativeQuery(mysql ? MYSQL_UPSERT : MERGE_UPSERT, Object.class);
+
+        upsert.addSynchronizedEntityClass(RevenueRollup.class)
+                .setParameter("month", month)
+                .setParameter("type", propertyType.name())
+                .setParameter("status", status.name())
+                .setParameter("contracts", contracts)
+                .setParameter("expected", expected)
+                .setParameter("collected", collected)
+                .executeUpdate();
+    }
+
+    public static boolean isBucketRace(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof LockAcquisitionException) return true;
+
+            if (t instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName() != null ? violation.getConstraintName() : String.valueOf(violation.getMessage());
+                if (name.toLowerCase().contains(BUCKET_CONSTRAINT)) return true;
+            }
+        }
+
+        return false;
+    }
+
+    public static List<FinishedContractSummaryDTO> finishedSummary(Session session, DateRangeDTO dto) {
+        return session.createQuery(
+                        "select new org.RealEstate.dto.FinishedContractSummaryDTO(r.propertyType, sum(r.contractCount), sum(r.expectedRevenue)) " +
+                                "from RevenueRollup r " +
+                                "where r.status = :status and r.month between :from and :to " +
+                                "group by r.propertyType " +
+                                "having sum(r.contractCount) > 0 " +
+                                "order by r.propertyType", FinishedContractSummaryDTO.class)
+                .setParameter("status", Status.COMPLETED)
+                .setParameter("from", monthOf(dto.getFromDate()))
+                .setParameter("to", monthOf(dto.getToDate()))
+                .getResultList();
+    }
+
+    public static List<RevenueRollupDTO> read(Session session, DateRangeDTO dto) {
+        return session.createQuery(
+                        "select new org.RealEstate.dto.RevenueRollupDTO(r.month, r.propertyType, r.status, r.contractCount, r.expectedRevenue, r.collectedRevenue) " +
+                                "from RevenueRollup r " +
+                                "where r.month between :from and :to and r.contractCount > 0 " +
+                                "order by r.month, r.propertyType, r.status", RevenueRollupDTO.class)
+                .setParameter("from", monthOf(dto.getFromDate()))
+                .setParameter("to", monthOf(dto.getToDate()))
+                .getResultList();
+    }
+
+    // live aggregation over rental_contract, used for unaligned ranges and to rebuild the table
+    public static List<RevenueRollupDTO> aggregate(Session session, LocalDate from, LocalDate to) {
+        String where = from == null ? "" : "where c.startDate between :from and :to ";
+
+        var query = session.createQuery(
+                "select year(c.startDate), month(c.startDate), c.propertyType, c.status, count(c), sum(c.total), sum(c.paidTotal) " +
+                        "from Contract c " + where +
+                        "group by year(c.startDate), month(c.startDate), c.propertyType, c.status " +
+                        "order by 1, 2, 3, 4", Object[].class);
+
+        if (from != null) {
+            query.setParameter("from", from);
+            query.setParameter("to", to);
+        }
+
+        List<RevenueRollupDTO> rows = new ArrayList<>();
+
+        for (Object[] row : query.getResultList()) {
+            rows.add(new RevenueRollupDTO(
+                    LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1),
+                    (PropertyType) row[2],
+                    (Status) row[3],
+                    ((Number) row[4]).longValue(),
+                    (BigDecimal) row[5],
+                    (BigDecimal) row[6]
+            ));
+        }
+
+        return rows;
+    }
+
+    public static void rebuild(Session session) {
+        session.createMutationQuery("delete from RevenueRollup").executeUpdate();
+
+        for (RevenueRollupDTO row : aggregate(session, null, null)) {
+            session.persist(new RevenueRollup(
+                    row.getMonth(),
+                    row.getPropertyType(),
+                    row.getStatus(),
+                    row.getContractCount(),
+                    row.getExpectedRevenue(),
+                    row.getCollectedRevenue()
+            ));
+        }
+    }
+
+    // rollup deltas gathered over a transaction and applied once, bucket by bucket in (month, type, status)
+    // order, so every writer locks the rows it shares with another writer the same way round
+    public static final class Deltas {
+        private final Map<String, Delta> deltas = new TreeMap<>();
+
+        public void add(LocalDate month, PropertyType propertyType, Status status, long contracts, BigDecimal expected, BigDecimal collected) {
+            deltas.computeIfAbsent(month + "/" + propertyType.name() + "/" + status.name(), key -> new Delta(month, propertyType, status))
+                    .add(contracts, expected, collected);
+        }
+
+        public boolean isEmpty() {
+            return deltas.isEmpty();
+        }
+
+        public void applyTo(Session session) {
+            for (Delta delta : deltas.values()) {
+                apply(session, delta.month, delta.propertyType, delta.status, delta.contracts, delta.expected, delta.collected);
+            }
+
+            deltas.clear();
+        }
+    }
+
+    private static final class Delta {
+        private final LocalDate month;
+        private final PropertyType propertyType;
+        private final Status status;
+        private long contracts;
+        private BigDecimal expected = BigDecimal.ZERO;
+        private BigDecimal collected = BigDecimal.ZERO;
+
+        Delta(LocalDate month, PropertyType propertyType, Status status) {
+            this.month = month;
+            this.propertyType = propertyType;
+            this.status = status;
+        }
+
+        void add(long contracts, BigDecimal expected, BigDecimal collected) {
+            this.contracts += contracts;
+            this.expected = this.expected.add(expected);
+            this.collected = this.collected.add(collected);
+        }
+    }
+}
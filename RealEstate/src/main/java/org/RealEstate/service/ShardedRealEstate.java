@@ -0,0 +1,340 @@
+package org.RealEstate.service;
+
+import org.RealEstate.dto.*;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.models.Payment;
+import org.RealEstate.utils.PooledConnectionProvider;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Spreads contracts over N databases by contract_id mod N; payments live on their contract's shard.
+// Point operations go to one shard, reports run on every shard in parallel and are merged here:
+// ordered results by k-way merge of the per-shard pages, summaries by adding up the per-shard groups.
+// Payment ids come from each shard's own IDENTITY column, so shard i hands out only ids equal to i mod N
+// and ids stay unique across the whole set (see shardConfiguration and alignPaymentIds).
+// Shard factories run without the second-level and query caches: every read, including the summaries
+// a single-database RealEstate serves from its "summaries" region, goes to the shard's database.
+public class ShardedRealEstate implements AutoCloseable {
+    private static final Comparator<ContractSearchRowDTO> SEARCH_ORDER =
+            Comparator.comparing(ContractSearchRowDTO::getStartDate).reversed().thenComparingLong(ContractSearchRowDTO::getId);
+
+    private final List<RealEstate> shards = new ArrayList<>();
+    private final ExecutorService executor;
+
+    public ShardedRealEstate(List<SessionFactory> sessionFactories) {
+        if (sessionFactories.isEmpty()) throw new IllegalArgumentException("At least one shard is required");
+
+        for (int i = 0; i < sessionFactories.size(); i++) {
+            alignPaymentIds(sessionFactories.get(i), i, sessionFactories.size());
+            shards.add(new RealEstate(sessionFactories.get(i)));
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(shards.size(), task -> {
+            Thread thread = new Thread(task, "realestate-shard-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static int shardOf(long contractId, int shards) {
+        return (int) Math.floorMod(contractId, (long) shards);
+    }
+
+    // shards share one JCache manager, whose query cache would hand one shard's results to another,
+    // so shard factories run uncached; each pool gets its own JMX name. On MySQL every connection
+    // also gets an auto-increment stride of shards starting at the shard's own residue.
+    public static Configuration shardConfiguration(Configuration configuration, String url, int index, int shards) {
+        configuration
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.cache.use_second_level_cache", "false")
+                .setProperty("hibernate.cache.use_query_cache", "false")
+                .setProperty(PooledConnectionProvider.POOL_NAME, "realestate-shard-" + index);
+
+        if (shards > 1 && url.startsWith("jdbc:mysql:")) {
+            // the offset must lie in 1..increment, so shard 0 takes the multiples of shards
+            configuration.setProperty(PooledConnectionProvider.INIT_SQL,
+                    "set session auto_increment_increment = " + shards + ", auto_increment_offset = " + (index == 0 ? shards : index));
+        }
+
+        return configuration;
+    }
+
+    // Makes the shard's rent_payment ids continue from the next id equal to index mod shards, stepping by
+    // shards. MySQL gets that from the session variables set in shardConfiguration; H2 keeps it on the
+    // identity column itself. Call it once the schema exists and before loading payments; the constructor
+    // calls it again, which only moves the start past ids already taken.
+    public static void alignPaymentIds(SessionFactory sessionFactory, int index, int shards) {
+        if (shards == 1) return;
+
+        Dialect dialect = sessionFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+
+        if (dialect instanceof MySQLDialect) return;
+
+        if (!(dialect instanceof H2Dialect)) {
+            throw new IllegalStateException("Shard-aware payment ids are not set up for " + dialect.getClass().getSimpleName());
+        }
+
+        try (Session session = sessionFactory.openSession()) {
+            session.doWork(connection -> {
+                long next;
+
+                try (Statement statement = connection.createStatement();
+                     ResultSet max = statement.executeQuery("select coalesce(max(payment_id), 0) from rent_payment")) {
+                    max.next();
+                    next = max.getLong(1) + 1;
+                }
+
+                next += Math.floorMod(index - next, (long) shards);
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("alter table rent_payment alter column payment_id restart with " + next + " set increment by " + shards);
+                }
+            });
+        }
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public RealEstate shardFor(long contractId) {
+        return shards.get(shardOf(contractId, shards.size()));
+    }
+
+    public Payment makePayment(MakePaymentDTO dto) {
+        return shardFor(dto.getContractId()).makePayment(dto);
+    }
+
+    // each shard posts its own contracts' payments; results keep the caller's order and line numbers
+    public List<PaymentResultDTO> makePayments(Collection<MakePaymentDTO> dtos) {
+        List<MakePaymentDTO> payments = new ArrayList<>(dtos);
+        List<List<Integer>> positions = new ArrayList<>();
+
+        for (int i = 0; i < shards.size(); i++) positions.add(new ArrayList<>());
+
+        for (int i = 0; i < payments.size(); i++) positions.get(shardOf(payments.get(i).getContractId(), shards.size())).add(i);
+
+        PaymentResultDTO[] results = new PaymentResultDTO[payments.size()];
+
+        fanOut(shard -> {
+            List<Integer> mine = positions.get(shards.indexOf(shard));
+
+            if (mine.isEmpty()) return null;
+
+            List<MakePaymentDTO> chunk = new ArrayList<>(mine.size());
+            long[] lines = new long[mine.size()];
+
+            for (int i = 0; i < mine.size(); i++) {
+                chunk.add(payments.get(mine.get(i)));
+                lines[i] = mine.get(i) + 1;
+            }
+
+            List<PaymentResultDTO> posted = shard.postPayments(chunk, lines);
+
+            for (int i = 0; i < mine.size(); i++) results[mine.get(i)] = posted.get(i);
+
+            return null;
+        });
+
+        return Arrays.asList(results);
+    }
+
+    public void recalculateBalances() {
+        fanOut(shard -> {
+            shard.recalculateBalances();
+            return null;
+        });
+    }
+
+    public void rebuildRevenueRollup() {
+        fanOut(shard -> {
+            shard.rebuildRevenueRollup();
+            return null;
+        });
+    }
+
+    public List<ContractSearchRowDTO> searchContractRows(FilterDTO dto) {
+        return merge(fanOut(shard -> shard.searchContractRows(dto)), SEARCH_ORDER, Integer.MAX_VALUE);
+    }
+
+    // every shard returns its own first pageSize rows past the cursor; the global page is the top pageSize of those
+    public ContractRowPageDTO searchContractRowsPage(FilterDTO dto, ContractCursorDTO after, int pageSize) {
+        List<ContractRowPageDTO> pages = fanOut(shard -> shard.searchContractRowsPage(dto, after, pageSize));
+
+        List<List<ContractSearchRowDTO>> rows = new ArrayList<>();
+        boolean more = false;
+
+        for (ContractRowPageDTO page : pages) {
+            rows.add(page.getRows());
+            more |= page.hasNext();
+        }
+
+        List<ContractSearchRowDTO> merged = merge(rows, SEARCH_ORDER, pageSize + 1);
+        more |= merged.size() > pageSize;
+
+        if (!more || merged.size() < pageSize) return new ContractRowPageDTO(merged.subList(0, Math.min(pageSize, merged.size())), null);
+
+        merged = new ArrayList<>(merged.subList(0, pageSize));
+        ContractSearchRowDTO last = merged.get(pageSize - 1);
+
+        return new ContractRowPageDTO(merged, new ContractCursorDTO(last.getStartDate(), last.getId()));
+    }
+
+    public ContractBalancePageDTO searchContractBalances(BalanceFilterDTO filter, BalanceCursorDTO after, int pageSize) {
+        List<ContractBalancePageDTO> pages = fanOut(shard -> shard.searchContractBalances(filter, after, pageSize));
+
+        // the shards order the id tie-break in the same direction as the value
+        Comparator<ContractBalanceDTO> ascending = Comparator.<ContractBalanceDTO, BigDecimal>comparing(row -> RealEstate.sortValue(row, filter.getSortBy()))
+                .thenComparingLong(ContractBalanceDTO::getId);
+        Comparator<ContractBalanceDTO> order = filter.isDescending() ? ascending.reversed() : ascending;
+
+        List<List<ContractBalanceDTO>> rows = new ArrayList<>();
+        boolean more = false;
+
+        for (ContractBalancePageDTO page : pages) {
+            rows.add(page.getRows());
+            more |= page.hasNext();
+        }
+
+        List<ContractBalanceDTO> merged = merge(rows, order, pageSize + 1);
+        more |= merged.size() > pageSize;
+
+        if (!more || merged.size() < pageSize) return new ContractBalancePageDTO(merged.subList(0, Math.min(pageSize, merged.size())), null);
+
+        merged = new ArrayList<>(merged.subList(0, pageSize));
+        ContractBalanceDTO last = merged.get(pageSize - 1);
+
+        return new ContractBalancePageDTO(merged, new BalanceCursorDTO(RealEstate.sortValue(last, filter.getSortBy()), last.getId()));
+    }
+
+    // property_type is stored by name, so a single database returns the groups in name order
+    public List<FinishedContractSummaryDTO> getFinishedContractSummary(DateRangeDTO dto) {
+        Map<String, long[]> quantities = new TreeMap<>();
+        Map<String, BigDecimal> totals = new TreeMap<>();
+
+        for (List<FinishedContractSummaryDTO> rows : fanOut(shard -> shard.getFinishedContractSummary(dto))) {
+            for (FinishedContractSummaryDTO row : rows) {
+                String type = row.getPropertyType().name();
+
+                quantities.computeIfAbsent(type, t -> new long[1])[0] += row.getQuantity();
+                totals.merge(type, row.getTotal() == null ? BigDecimal.ZERO : row.getTotal(), BigDecimal::add);
+            }
+        }
+
+        List<FinishedContractSummaryDTO> result = new ArrayList<>();
+
+        quantities.forEach((type, quantity) -> result.add(new FinishedContractSummaryDTO(PropertyType.valueOf(type), quantity[0], totals.get(type))));
+
+        return result;
+    }
+
+    public List<RevenueRollupDTO> getMonthlyRevenue(DateRangeDTO dto) {
+        Map<String, RevenueRollupDTO> groups = new TreeMap<>();
+
+        for (List<RevenueRollupDTO> rows : fanOut(shard -> shard.getMonthlyRevenue(dto))) {
+            for (RevenueRollupDTO row : rows) {
+                groups.merge(row.getMonth() + "/" + row.getPropertyType().name() + "/" + row.getStatus().name(), row, (a, b) -> new RevenueRollupDTO(
+                        a.getMonth(),
+                        a.getPropertyType(),
+                        a.getStatus(),
+                        a.getContractCount() + b.getContractCount(),
+                        a.getExpectedRevenue().add(b.getExpectedRevenue()),
+                        a.getCollectedRevenue().add(b.getCollectedRevenue())
+                ));
+            }
+        }
+
+        return new ArrayList<>(groups.values());
+    }
+
+    public List<UnfinishedContractSummaryDTO> getUnfinishedContractSummary(UnfinishedSummaryFilterDTO filter) {
+        int limit = filter.getPageSize() > 0 ? filter.getPageSize() : Integer.MAX_VALUE;
+
+        return merge(fanOut(shard -> shard.getUnfinishedContractSummary(filter)),
+                Comparator.comparingLong(UnfinishedContractSummaryDTO::getContractId), limit);
+    }
+
+    public List<TenantStatementLineDTO> getTenantStatement(String tenantName) {
+        return merge(fanOut(shard -> shard.getTenantStatement(tenantName)),
+                Comparator.comparingLong(TenantStatementLineDTO::getContractId), Integer.MAX_VALUE);
+    }
+
+    public List<TenantStatementLineDTO> getTenantStatement(Collection<Long> contractIds) {
+        List<List<Long>> ids = new ArrayList<>();
+
+        for (int i = 0; i < shards.size(); i++) ids.add(new ArrayList<>());
+
+        for (long id : contractIds) ids.get(shardOf(id, shards.size())).add(id);
+
+        return merge(fanOut(shard -> {
+                    List<Long> mine = ids.get(shards.indexOf(shard));
+                    return mine.isEmpty() ? List.<TenantStatementLineDTO>of() : shard.getTenantStatement(mine);
+                }),
+                Comparator.comparingLong(TenantStatementLineDTO::getContractId), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> List<T> fanOut(Function<RealEstate, T> call) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+
+        for (RealEstate shard : shards) futures.add(CompletableFuture.supplyAsync(() -> call.apply(shard), executor));
+
+        List<T> results = new ArrayList<>(futures.size());
+
+        try {
+            for (CompletableFuture<T> future : futures) results.add(future.join());
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+
+        return results;
+    }
+
+    // k-way merge of lists that are each already in order; rows that tie stay in their list's order
+    static <T> List<T> merge(List<List<T>> lists, Comparator<T> order, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> order.compare(lists.get(a[0]).get(a[1]), lists.get(b[0]).get(b[1])));
+        int total = 0;
+
+        for (int i = 0; i < lists.size(); i++) {
+            total += lists.get(i).size();
+
+            if (!lists.get(i).isEmpty()) heads.add(new int[]{i, 0});
+        }
+
+        List<T> merged = new ArrayList<>(Math.min(total, limit));
+
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<T> list = lists.get(head[0]);
+
+            merged.add(list.get(head[1]));
+
+            if (++head[1] < list.size()) heads.add(head);
+        }
+
+        return merged;
+    }
+}
@@ -0,0 +1,64 @@
+package org.RealEstate.utils;
+
+import org.RealEstate.dto.CacheStatsDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Hit/miss/put counts come from Hibernate's statistics, evictions from the JCache statistics MBeans
+public final class CacheMetrics {
+    private CacheMetrics() {}
+
+    public static List<CacheStatsDTO> collect(SessionFactory sessionFactory) {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<CacheStatsDTO> result = new ArrayList<>();
+
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+
+            if (stats == null) stats = statistics.getQueryRegionStatistics(region);
+            if (stats == null) continue;
+
+            result.add(new CacheStatsDTO(
+                    region,
+                    stats.getHitCount(),
+                    stats.getMissCount(),
+                    stats.getPutCount(),
+                    evictions(region),
+                    stats.getElementCountInMemory()
+            ));
+        }
+
+        return result;
+    }
+
+    private static long evictions(String region) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Set<ObjectName> names = server.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,CacheManager=*,Cache=" + ObjectName.quote(region)), null);
+
+            if (names.isEmpty()) {
+                names = server.queryNames(new ObjectName("javax.cache:type=CacheStatistics,CacheManager=*,Cache=" + region), null);
+            }
+
+            long evictions = 0;
+
+            for (ObjectName name : names) {
+                evictions += (Long) server.getAttribute(name, "CacheEvictions");
+            }
+
+            return evictions;
+        }
+        catch (Exception e) {
+            return -1;
+        }
+    }
+}
@@ -1,20 +1,127 @@
 package org.RealEstate.utils;
 
+import org.RealEstate.dto.PoolStatsDTO;
+import org.RealEstate.enums.Operation;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class HibernateUtil {
-    private static final SessionFactory sessionFactory;
+    private static final Logger log = LoggerFactory.getLogger(HibernateUtil.class);
+
+    // -Drealestate.startup.mode=background builds the factory on a daemon thread; callers block only when they first need it
+    public static final String STARTUP_MODE = "realestate.startup.mode";
+    public static final String BACKGROUND = "background";
+
+    private static final CompletableFuture<SessionFactory> startup;
+
+    // written by bootstrap() before startup completes, so anyone who has joined startup sees them
+    private static SessionFactory sessionFactory;
+    private static SessionRouter router;
 
     static {
+        if (BACKGROUND.equalsIgnoreCase(System.getProperty(STARTUP_MODE))) {
+            startup = CompletableFuture.supplyAsync(HibernateUtil::bootstrap, task -> {
+                Thread thread = new Thread(task, "realestate-startup");
+                thread.setDaemon(true);
+                thread.start();
+            });
+        } else {
+            try {
+                startup = CompletableFuture.completedFuture(bootstrap());
+            } catch (Exception e){
+                throw new RuntimeException("Failed to initialize DB", e);
+            }
+        }
+    }
+
+    private static SessionFactory bootstrap() {
+        SessionFactoryBootstrap bootstrap = new SessionFactoryBootstrap();
+        sessionFactory = bootstrap.build("hibernate.cfg.xml", systemOverrides());
+
+        Properties settings = new Properties();
+        bootstrap.getSettings().forEach((name, value) -> settings.setProperty(name, String.valueOf(value)));
+
+        router = new SessionRouter(sessionFactory, buildReplicas(settings.getProperty(SessionRouter.REPLICA_URLS)));
+        router.configure(settings);
+
+        log.info("Hibernate {}", bootstrap.report());
+
+        return sessionFactory;
+    }
+
+    // touching the class starts the factory; the future completes when it is ready (at once in the default eager mode)
+    public static CompletableFuture<SessionFactory> start() {
+        return startup;
+    }
+
+    private static SessionFactory started() {
         try {
-            Configuration configuration = new Configuration().configure();
-            sessionFactory = configuration.buildSessionFactory();
-        } catch (Exception e){
-            throw new RuntimeException("Failed to initialize DB", e);
+            return startup.join();
+        }
+        catch (CompletionException e) {
+            throw new RuntimeException("Failed to initialize DB", e.getCause());
         }
     }
 
-    public static Session getSession(){ return sessionFactory.openSession(); }
+    // -Dhibernate.* / -Drealestate.* win over hibernate.cfg.xml, e.g. -Drealestate.pool.max_size=50
+    static Map<String, String> systemOverrides() {
+        Map<String, String> overrides = new HashMap<>();
+
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("hibernate.") || name.startsWith("realestate.")) overrides.put(name, System.getProperty(name));
+        }
+
+        return overrides;
+    }
+
+    static void applySystemOverrides(Configuration configuration) {
+        systemOverrides().forEach(configuration::setProperty);
+    }
+
+    // a replica that is down at startup is left out rather than failing the whole application
+    private static List<SessionFactory> buildReplicas(String urls) {
+        List<SessionFactory> replicas = new ArrayList<>();
+
+        if (urls == null || urls.isBlank()) return replicas;
+
+        for (String url : urls.split(",")) {
+            if (url.isBlank()) continue;
+
+            try {
+                Configuration configuration = new Configuration().configure();
+                applySystemOverrides(configuration);
+                replicas.add(SessionRouter.replicaConfiguration(configuration, url.trim(), replicas.size()).buildSessionFactory());
+            }
+            catch (RuntimeException e) {
+                log.warn("Skipping replica {}", url.trim(), e);
+            }
+        }
+
+        return replicas;
+    }
+
+    public static Session getSession(){ return started().openSession(); }
+
+    // read-only service methods: a replica when the operation's route and replica health allow it
+    public static Session getReadSession(Operation operation) { return getRouter().openReadSession(operation); }
+
+    public static SessionRouter getRouter() {
+        started();
+        return router;
+    }
+
+    public static SessionFactory getSessionFactory() { return started(); }
+
+    public static PoolStatsDTO getPoolStats() { return PooledConnectionProvider.of(started()).getStats(); }
 }
@@ -0,0 +1,186 @@
+package org.RealEstate.utils;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.RealEstate.dto.PoolStatsDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class PooledConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+    public static final String MIN_SIZE = "realestate.pool.min_size";
+    public static final String MAX_SIZE = "realestate.pool.max_size";
+    public static final String CONNECTION_TIMEOUT = "realestate.pool.connection_timeout_ms";
+    public static final String LEAK_DETECTION = "realestate.pool.leak_detection_ms";
+    public static final String WARM_UP = "realestate.pool.warm_up";
+    public static final String POOL_NAME = "realestate.pool.name";
+    // run once on every new connection, e.g. session variables a shard needs
+    public static final String INIT_SQL = "realestate.pool.init_sql";
+    public static final String SQL_LOG = "realestate.sql_log.enabled";
+    public static final String SQL_LOG_THRESHOLD = "realestate.sql_log.threshold_ms";
+    public static final String SQL_LOG_SAMPLE_RATE = "realestate.sql_log.sample_rate";
+    public static final String SQL_LOG_QUEUE_SIZE = "realestate.sql_log.queue_size";
+
+    private HikariDataSource dataSource;
+    private SlowQueryLog statementLog;
+    private int minSize;
+    private int maxSize;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+
+    public static PooledConnectionProvider of(SessionFactory sessionFactory) {
+        ConnectionProvider provider = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+
+        if (provider == null || !provider.isUnwrappableAs(PooledConnectionProvider.class)) {
+            throw new IllegalStateException("Session factory is not configured with " + PooledConnectionProvider.class.getName());
+        }
+
+        return provider.unwrap(PooledConnectionProvider.class);
+    }
+
+    @Override
+    public void configure(Map<String, Object> settings) {
+        minSize = ConfigurationHelper.getInt(MIN_SIZE, settings, 2);
+        maxSize = ConfigurationHelper.getInt(MAX_SIZE, settings, 10);
+
+        HikariConfig config = new HikariConfig();
+        String poolName = ConfigurationHelper.getString(POOL_NAME, settings, "realestate");
+        config.setPoolName(poolName);
+        config.setJdbcUrl(ConfigurationHelper.getString("hibernate.connection.url", settings));
+        config.setUsername(ConfigurationHelper.getString("hibernate.connection.username", settings));
+        config.setPassword(ConfigurationHelper.getString("hibernate.connection.password", settings, ""));
+        config.setMinimumIdle(minSize);
+        config.setMaximumPoolSize(maxSize);
+        config.setConnectionTimeout(ConfigurationHelper.getLong(CONNECTION_TIMEOUT, settings, 30_000));
+        config.setLeakDetectionThreshold(ConfigurationHelper.getLong(LEAK_DETECTION, settings, 0));
+        config.setRegisterMbeans(true);
+        config.setConnectionInitSql(ConfigurationHelper.getString(INIT_SQL, settings));
+
+        String driver = ConfigurationHelper.getString("hibernate.connection.driver_class", settings);
+        if (driver != null) config.setDriverClassName(driver);
+
+        dataSource = new HikariDataSource(config);
+
+        if (ConfigurationHelper.getBoolean(SQL_LOG, settings, false)) {
+            statementLog = new SlowQueryLog(
+                    ConfigurationHelper.getLong(SQL_LOG_THRESHOLD, settings, 200),
+                    Double.parseDouble(ConfigurationHelper.getString(SQL_LOG_SAMPLE_RATE, settings, "0")),
+                    ConfigurationHelper.getInt(SQL_LOG_QUEUE_SIZE, settings, 1024),
+                    poolName
+            );
+        }
+
+        if (ConfigurationHelper.getBoolean(WARM_UP, settings, true)) warmUp();
+    }
+
+    // opens min_size connections up front so the first requests don't pay for the TCP/auth handshake
+    public void warmUp() {
+        List<Connection> connections = new ArrayList<>(minSize);
+
+        try {
+            for (int i = 0; i < minSize; i++) connections.add(dataSource.getConnection());
+        }
+        catch (SQLException e) {
+            throw new RuntimeException("Failed to warm up connection pool", e);
+        }
+        finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                }
+                catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = dataSource.getConnection();
+        long elapsed = System.nanoTime() - start;
+
+        acquisitions.increment();
+        acquireNanos.add(elapsed);
+        maxAcquireNanos.accumulateAndGet(elapsed, Math::max);
+
+        return statementLog == null ? connection : StatementTimer.wrap(connection, statementLog);
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    // null when realestate.sql_log.enabled is off
+    public SlowQueryLog getStatementLog() {
+        return statementLog;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public PoolStatsDTO getStats() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        long count = acquisitions.sum();
+
+        return new PoolStatsDTO(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                maxSize,
+                count,
+                count == 0 ? 0 : acquireNanos.sum() / count / 1_000,
+                maxAcquireNanos.get() / 1_000
+        );
+    }
+
+    public void resetStats() {
+        acquisitions.reset();
+        acquireNanos.reset();
+        maxAcquireNanos.set(0);
+    }
+
+    @Override
+    public void stop() {
+        if (dataSource != null) dataSource.close();
+        if (statementLog != null) statementLog.close();
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> type) {
+        return type.isAssignableFrom(PooledConnectionProvider.class) || type.isAssignableFrom(HikariDataSource.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> type) {
+        if (type.isAssignableFrom(PooledConnectionProvider.class)) return (T) this;
+        if (type.isAssignableFrom(HikariDataSource.class)) return (T) dataSource;
+
+        throw new IllegalArgumentException("Cannot unwrap to " + type.getName());
+    }
+}
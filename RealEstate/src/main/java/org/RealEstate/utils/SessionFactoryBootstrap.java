@@ -0,0 +1,102 @@
+package org.RealEstate.utils;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+// Builds a SessionFactory one phase at a time so startup cost can be seen per phase instead of as one
+// opaque buildSessionFactory() call. validate and update run as their own step after the factory is
+// built; any other hbm2ddl action (create, create-drop) is left to Hibernate inside "session factory".
+public class SessionFactoryBootstrap {
+    public static final String SCHEMA_ACTION = "hibernate.hbm2ddl.auto";
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private Map<String, Object> settings = Map.of();
+
+    public SessionFactory build(String resource, Map<String, String> overrides) {
+        long started = System.nanoTime();
+
+        StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder().configure(resource);
+        overrides.forEach(builder::applySetting);
+
+        String action = String.valueOf(builder.getSettings().getOrDefault(SCHEMA_ACTION, "none")).trim().toLowerCase();
+        boolean separateSchemaStep = action.equals("validate") || action.equals("update");
+
+        if (separateSchemaStep) builder.applySetting(SCHEMA_ACTION, "none");
+
+        StandardServiceRegistry registry = builder.build();
+        settings = registry.getService(ConfigurationService.class).getSettings();
+        started = phase("config parse", started);
+
+        try {
+            // PooledConnectionProvider is configured on first lookup, which is when it opens min_size connections
+            registry.getService(ConnectionProvider.class);
+            started = phase("pool warm-up", started);
+
+            Metadata metadata = new MetadataSources(registry).buildMetadata();
+            started = phase("metamodel", started);
+
+            SessionFactory sessionFactory = metadata.buildSessionFactory();
+            started = phase("session factory", started);
+
+            try {
+                if (separateSchemaStep) {
+                    Map<String, Object> schemaSettings = new HashMap<>(settings);
+                    schemaSettings.put(SCHEMA_ACTION, action);
+
+                    // neither action drops anything on close, so there is nothing to register
+                    SchemaManagementToolCoordinator.process(metadata, registry, schemaSettings, dropAction -> {});
+                    phase("schema " + action, started);
+                }
+            }
+            catch (RuntimeException e) {
+                sessionFactory.close();
+                throw e;
+            }
+
+            return sessionFactory;
+        }
+        catch (RuntimeException e) {
+            StandardServiceRegistryBuilder.destroy(registry);
+            throw e;
+        }
+    }
+
+    // settings the factory was built with, cfg.xml plus overrides
+    public Map<String, Object> getSettings() {
+        return settings;
+    }
+
+    // elapsed milliseconds per phase, in the order the phases ran
+    public Map<String, Long> getPhases() {
+        return phases;
+    }
+
+    public long getTotalMillis() {
+        return phases.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public String report() {
+        StringJoiner report = new StringJoiner(", ", "startup " + getTotalMillis() + " ms: ", "");
+
+        phases.forEach((phase, millis) -> report.add(phase + " " + millis + " ms"));
+
+        return report.toString();
+    }
+
+    private long phase(String name, long started) {
+        long now = System.nanoTime();
+        phases.put(name, (now - started) / 1_000_000);
+        return now;
+    }
+}
@@ -0,0 +1,254 @@
+package org.RealEstate.utils;
+
+import org.RealEstate.enums.Operation;
+import org.RealEstate.enums.ReadRoute;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Sends read-only service calls to replica SessionFactories and everything else to the primary.
+// A replica that cannot hand out a connection is skipped for retry_ms; with no usable replica, reads go to the primary.
+public class SessionRouter implements AutoCloseable {
+    public static final String REPLICA_URLS = "realestate.replica.urls";
+    public static final String RETRY_MS = "realestate.replica.retry_ms";
+    public static final String READ_YOUR_WRITES_MS = "realestate.routing.read_your_writes_ms";
+    // realestate.routing.<OPERATION>=PRIMARY|REPLICA overrides the default route of one service method
+    public static final String ROUTE_PREFIX = "realestate.routing.";
+
+    private static final Logger log = LoggerFactory.getLogger(SessionRouter.class);
+
+    // The summaries stay on the primary: replicas run with the query cache off and FinishedSummaryCache only
+    // serves primary reads, so on a replica every summary call would be a full aggregation. Routing them to a
+    // replica (realestate.routing.FINISHED_SUMMARY=REPLICA etc.) trades that cache for taking the aggregation
+    // load, and its replica lag, off the primary; monthly revenue follows them as it reads the same rollup.
+    private static final Set<Operation> REPLICA_READS = EnumSet.of(
+            Operation.SEARCH_CONTRACTS,
+            Operation.SEARCH_CONTRACTS_PAGE,
+            Operation.STREAM_CONTRACTS,
+            Operation.SEARCH_CONTRACT_ROWS,
+            Operation.SEARCH_CONTRACT_ROWS_PAGE,
+            Operation.TENANT_STATEMENT,
+            Operation.SEARCH_BALANCES
+    );
+
+    private final SessionFactory primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ThreadLocal<Long> primaryUntil = new ThreadLocal<>();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+
+    private volatile Map<Operation, ReadRoute> routes = new EnumMap<>(Operation.class);
+    private volatile long retryNanos = Duration.ofSeconds(30).toNanos();
+    private volatile long readYourWritesNanos;
+
+    public SessionRouter(SessionFactory primary, List<SessionFactory> replicas) {
+        this.primary = primary;
+
+        for (SessionFactory replica : replicas) this.replicas.add(new Replica(replica));
+
+        for (Operation operation : Operation.values()) {
+            routes.put(operation, REPLICA_READS.contains(operation) ? ReadRoute.REPLICA : ReadRoute.PRIMARY);
+        }
+    }
+
+    // replicas never see the primary's writes, so their second-level and query caches could not be invalidated;
+    // they also must not run DDL or fight the primary's pool for its JMX name
+    public static Configuration replicaConfiguration(Configuration configuration, String url, int index) {
+        return configuration
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.hbm2ddl.auto", "none")
+                .setProperty("hibernate.cache.use_second_level_cache", "false")
+                .setProperty("hibernate.cache.use_query_cache", "false")
+                .setProperty(PooledConnectionProvider.POOL_NAME, "realestate-replica-" + index)
+                .setProperty(PooledConnectionProvider.WARM_UP, "false");
+    }
+
+    public void configure(Properties properties) {
+        String retry = properties.getProperty(RETRY_MS);
+        if (retry != null) setRetryInterval(Duration.ofMillis(Long.parseLong(retry.trim())));
+
+        String readYourWrites = properties.getProperty(READ_YOUR_WRITES_MS);
+        if (readYourWrites != null) setReadYourWrites(Duration.ofMillis(Long.parseLong(readYourWrites.trim())));
+
+        for (Operation operation : Operation.values()) {
+            String route = properties.getProperty(ROUTE_PREFIX + operation.name());
+            if (route != null) setRoute(operation, ReadRoute.valueOf(route.trim().toUpperCase()));
+        }
+    }
+
+    public synchronized void setRoute(Operation operation, ReadRoute route) {
+        Map<Operation, ReadRoute> copy = new EnumMap<>(routes);
+        copy.put(operation, route);
+        routes = copy;
+    }
+
+    public ReadRoute getRoute(Operation operation) {
+        return routes.get(operation);
+    }
+
+    public void setRetryInterval(Duration interval) {
+        this.retryNanos = interval.toNanos();
+    }
+
+    // after a write, the same thread reads from the primary for this long so it never sees replica lag; zero turns it off.
+    // The window lives in a thread local: work handed to another thread must carry it with currentPin() and pinned()
+    public void setReadYourWrites(Duration window) {
+        this.readYourWritesNanos = window.toNanos();
+    }
+
+    public SessionFactory getPrimary() {
+        return primary;
+    }
+
+    public Session openSession() {
+        return primary.openSession();
+    }
+
+    public Session openReadSession(Operation operation) {
+        if (!replicas.isEmpty() && routes.get(operation) == ReadRoute.REPLICA && !pinnedToPrimary()) {
+            int start = next.getAndIncrement();
+
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+
+                if (!replica.isAvailable()) continue;
+
+                Session session = null;
+
+                try {
+                    session = replica.factory.openSession();
+                    // takes the connection now, so a dead replica is noticed before the query rather than in the middle of it
+                    session.doWork(connection -> {});
+
+                    replica.markUp();
+                    replicaReads.increment();
+
+                    return session;
+                }
+                catch (RuntimeException e) {
+                    replica.markDown(retryNanos, e);
+
+                    if (session != null) closeQuietly(session);
+                }
+            }
+        }
+
+        primaryReads.increment();
+
+        return primary.openSession();
+    }
+
+    public void afterWrite() {
+        long window = readYourWritesNanos;
+
+        if (window > 0 && !replicas.isEmpty()) primaryUntil.set(System.nanoTime() + window);
+    }
+
+    // the nanoTime this thread's read-your-writes window ends at, 0 when there is none
+    public long currentPin() {
+        Long until = primaryUntil.get();
+
+        return until == null ? 0 : until;
+    }
+
+    // runs work with this thread inside the window a pin from currentPin() describes, on top of its own, and
+    // puts the thread's window back afterwards, so a pooled thread doesn't keep reading the primary for later tasks
+    public <T> T pinned(long pin, Supplier<T> work) {
+        Long own = primaryUntil.get();
+
+        if (pin != 0 && (own == null || pin - own > 0)) primaryUntil.set(pin);
+
+        try {
+            return work.get();
+        }
+        finally {
+            if (own == null) primaryUntil.remove();
+            else primaryUntil.set(own);
+        }
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    public int getAvailableReplicas() {
+        int available = 0;
+
+        for (Replica replica : replicas) if (replica.isAvailable()) available++;
+
+        return available;
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.factory.isOpen()) replica.factory.close();
+        }
+    }
+
+    private static void closeQuietly(Session session) {
+        try {
+            session.close();
+        }
+        catch (RuntimeException ignored) {
+        }
+    }
+
+    private boolean pinnedToPrimary() {
+        Long until = primaryUntil.get();
+
+        if (until == null) return false;
+
+        if (until - System.nanoTime() > 0) return true;
+
+        primaryUntil.remove();
+
+        return false;
+    }
+
+    private static class Replica {
+        final SessionFactory factory;
+        final Object url;
+        volatile long downUntil;
+        volatile boolean down;
+
+        Replica(SessionFactory factory) {
+            this.factory = factory;
+            this.url = factory.getProperties().get("hibernate.connection.url");
+        }
+
+        boolean isAvailable() {
+            return !down || downUntil - System.nanoTime() <= 0;
+        }
+
+        void markUp() {
+            if (down) log.info("Replica {} is back", url);
+
+            down = false;
+        }
+
+        void markDown(long retryNanos, RuntimeException cause) {
+            if (!down) log.warn("Replica {} unavailable, reading from the primary", url, cause);
+
+            downUntil = System.nanoTime() + retryNanos;
+            down = true;
+        }
+    }
+}
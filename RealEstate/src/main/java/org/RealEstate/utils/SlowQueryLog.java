@@ -0,0 +1,105 @@
+package org.RealEstate.utils;
+
+import org.RealEstate.dto.StatementLogDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Decides which timed statements are worth logging (over the threshold, picked by the sample rate, or failed) and
+// hands them to a daemon thread through a bounded queue. A request thread never waits on logging: when the
+// queue is full the entry is dropped and counted.
+public class SlowQueryLog implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger("org.RealEstate.sql");
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final BlockingQueue<StatementLogDTO> queue;
+    private final Consumer<StatementLogDTO> sink;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+
+    public SlowQueryLog(long thresholdMillis, double sampleRate, int capacity, String name) {
+        this(thresholdMillis, sampleRate, capacity, name, SlowQueryLog::write);
+    }
+
+    SlowQueryLog(long thresholdMillis, double sampleRate, int capacity, String name, Consumer<StatementLogDTO> sink) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.sampleRate = sampleRate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sink = sink;
+
+        this.writer = new Thread(this::drain, name + "-sql-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // execute time, plus fetch time for queries
+    boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    boolean isSampled() {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    void submit(StatementLogDTO entry) {
+        if (!queue.offer(entry)) dropped.increment();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                StatementLogDTO entry = queue.poll(200, TimeUnit.MILLISECONDS);
+
+                if (entry != null) sink.accept(entry);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (RuntimeException e) {
+                log.warn("Could not write statement log entry", e);
+            }
+        }
+    }
+
+    // lets the writer finish what is already queued
+    @Override
+    public void close() {
+        running = false;
+
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(2));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void write(StatementLogDTO entry) {
+        if (entry.getError() != null) {
+            log.warn("failed after {} ms, {}: {} [{}] {}", entry.getExecuteMicros() / 1_000, entry.getOrigin(), entry.getSql(), entry.getBound(), entry.getError());
+            return;
+        }
+
+        String message = "{} ms (+{} ms fetch), {} rows, {}: {} [{}]";
+        Object[] args = {
+                entry.getExecuteMicros() / 1_000, entry.getFetchMicros() / 1_000, entry.getRows(),
+                entry.getOrigin(), entry.getSql(), entry.getBound()
+        };
+
+        if (entry.isSlow()) log.warn(message, args);
+        else log.info(message, args);
+    }
+}
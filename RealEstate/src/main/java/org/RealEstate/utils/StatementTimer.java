@@ -0,0 +1,38 @@
+package org.RealEstate.utils;
+
+import java.sql.Connection;
+
+// Entry point of the statement log: hand-written delegating JDBC wrappers that time each execute. A statement
+// that is not slow, not sampled and did not fail costs two clock reads, one sampling draw and a direct call
+// per JDBC method, plus a result set wrapper and two more clock reads for a query; bind values are not
+// recorded and no entry is built. Only when SlowQueryLog wants the
+// statement are the driver's bound text and the calling frame captured.
+final class StatementTimer {
+    private static final String SERVICE = "org.RealEstate.service.RealEstate";
+    private static final StackWalker STACK = StackWalker.getInstance();
+
+    private StatementTimer() {}
+
+    static Connection wrap(Connection connection, SlowQueryLog log) {
+        return new TimedConnection(connection, log);
+    }
+
+    // the RealEstate method on the stack, else the first application frame outside utils
+    static String origin() {
+        return STACK.walk(frames -> {
+            String first = null;
+
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+
+                if (className.equals(SERVICE)) return "RealEstate." + frame.getMethodName();
+
+                if (first == null && className.startsWith("org.RealEstate.") && !className.startsWith("org.RealEstate.utils.")) {
+                    first = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                }
+            }
+
+            return first == null ? "unknown" : first;
+        });
+    }
+}
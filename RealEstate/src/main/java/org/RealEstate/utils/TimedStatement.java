@@ -0,0 +1,494 @@
+package org.RealEstate.utils;
+
+import org.RealEstate.dto.StatementLogDTO;
+
+import java.sql.*;
+
+// Times each execute and, only when SlowQueryLog wants the statement (slow, sampled or failed), builds a log
+// entry. Parameters are never copied: the bound statement is read back from the driver at that point. Queries
+// are decided when their result set closes, on execute plus fetch time, since a cheap execute can still
+// stream a slow result. The bound text is read at that point too, so a statement rebound before its result
+// set closed logs the new values.
+class TimedStatement implements Statement {
+    private static final int MAX_BOUND_LENGTH = 1000;
+
+    private final Statement delegate;
+    private final Connection connection;
+    private final String sql;
+    final SlowQueryLog log;
+    private TimedResultSet pending;
+
+    TimedStatement(Statement delegate, Connection connection, String sql, SlowQueryLog log) {
+        this.delegate = delegate;
+        this.connection = connection;
+        this.sql = sql;
+        this.log = log;
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        long started = begin();
+
+        try {
+            return queried(delegate.executeQuery(sql), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        long started = begin();
+
+        try {
+            return (int) updated(delegate.executeUpdate(sql), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        long started = begin();
+
+        try {
+            return (int) updated(delegate.executeUpdate(sql, autoGeneratedKeys), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        long started = begin();
+
+        try {
+            return (int) updated(delegate.executeUpdate(sql, columnIndexes), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        long started = begin();
+
+        try {
+            return (int) updated(delegate.executeUpdate(sql, columnNames), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        long started = begin();
+
+        try {
+            return updated(delegate.executeLargeUpdate(sql), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        long started = begin();
+
+        try {
+            return updated(delegate.executeLargeUpdate(sql, autoGeneratedKeys), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        long started = begin();
+
+        try {
+            return updated(delegate.executeLargeUpdate(sql, columnIndexes), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        long started = begin();
+
+        try {
+            return updated(delegate.executeLargeUpdate(sql, columnNames), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        long started = begin();
+
+        try {
+            return executed(delegate.execute(sql), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        long started = begin();
+
+        try {
+            return executed(delegate.execute(sql, autoGeneratedKeys), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        long started = begin();
+
+        try {
+            return executed(delegate.execute(sql, columnIndexes), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        long started = begin();
+
+        try {
+            return executed(delegate.execute(sql, columnNames), sql, started);
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        long started = begin();
+
+        try {
+            int[] counts = delegate.executeBatch();
+            long rows = 0;
+
+            for (int count : counts) rows += Math.max(count, 0);
+
+            updated(rows, sql, started);
+
+            return counts;
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        long started = begin();
+
+        try {
+            long[] counts = delegate.executeLargeBatch();
+            long rows = 0;
+
+            for (long count : counts) rows += Math.max(count, 0);
+
+            updated(rows, sql, started);
+
+            return counts;
+        }
+        catch (SQLException e) {
+            throw failed(e, sql, started);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        finishPending();
+        delegate.close();
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(delegate) ? iface.cast(delegate) : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+
+    final long begin() {
+        finishPending();
+        return System.nanoTime();
+    }
+
+    final ResultSet queried(ResultSet resultSet, String text, long started) {
+        pending = new TimedResultSet(resultSet, this, text, System.nanoTime() - started, log.isSampled());
+
+        return pending;
+    }
+
+    final long updated(long rows, String text, long started) {
+        long elapsed = System.nanoTime() - started;
+        boolean slow = log.isSlow(elapsed);
+
+        if (slow || log.isSampled()) {
+            log.submit(new StatementLogDTO(text, bound(), rows, elapsed / 1_000, 0, StatementTimer.origin(), slow, null));
+        }
+
+        return rows;
+    }
+
+    // execute(): a result set we don't see the rows of, or an update count
+    final boolean executed(boolean hasResultSet, String text, long started) throws SQLException {
+        long elapsed = System.nanoTime() - started;
+        boolean slow = log.isSlow(elapsed);
+
+        if (slow || log.isSampled()) {
+            long rows = hasResultSet ? -1 : delegate.getUpdateCount();
+            log.submit(new StatementLogDTO(text, bound(), rows, elapsed / 1_000, 0, StatementTimer.origin(), slow, null));
+        }
+
+        return hasResultSet;
+    }
+
+    // failures are always logged, whatever they took
+    final SQLException failed(SQLException e, String text, long started) {
+        long elapsed = System.nanoTime() - started;
+
+        log.submit(new StatementLogDTO(text, bound(), -1, elapsed / 1_000, 0, StatementTimer.origin(), log.isSlow(elapsed), e.toString()));
+
+        return e;
+    }
+
+    // the driver's own rendering of the statement; H2, Connector/J and PgJDBC include the bound values
+    String bound() {
+        return null;
+    }
+
+    static String bound(Statement statement) {
+        String text;
+
+        try {
+            text = statement.unwrap(Statement.class).toString();
+        }
+        catch (SQLException e) {
+            text = statement.toString();
+        }
+
+        return text.length() > MAX_BOUND_LENGTH ? text.substring(0, MAX_BOUND_LENGTH) + "..." : text;
+    }
+
+    private void finishPending() {
+        if (pending != null) pending.finish();
+        pending = null;
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return delegate.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        delegate.setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return delegate.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        delegate.setMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        delegate.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return delegate.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        delegate.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        delegate.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return delegate.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        delegate.clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        delegate.setCursorName(name);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return delegate.getResultSet();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return delegate.getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return delegate.getMoreResults();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        delegate.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return delegate.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        delegate.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return delegate.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return delegate.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return delegate.getResultSetType();
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        delegate.addBatch(sql);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        delegate.clearBatch();
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return delegate.getMoreResults(current);
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return delegate.getGeneratedKeys();
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return delegate.getResultSetHoldability();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return delegate.isClosed();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        delegate.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return delegate.isPoolable();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        delegate.closeOnCompletion();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return delegate.isCloseOnCompletion();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return delegate.getLargeUpdateCount();
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        delegate.setLargeMaxRows(max);
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return delegate.getLargeMaxRows();
+    }
+
+    @Override
+    public String enquoteLiteral(String val) throws SQLException {
+        return delegate.enquoteLiteral(val);
+    }
+
+    @Override
+    public String enquoteIdentifier(String identifier, boolean alwaysQuote) throws SQLException {
+        return delegate.enquoteIdentifier(identifier, alwaysQuote);
+    }
+
+    @Override
+    public boolean isSimpleIdentifier(String identifier) throws SQLException {
+        return delegate.isSimpleIdentifier(identifier);
+    }
+
+    @Override
+    public String enquoteNCharLiteral(String val) throws SQLException {
+        return delegate.enquoteNCharLiteral(val);
+    }
+}
@@ -0,0 +1,129 @@
+package org.RealEstate.analytics;
+
+import org.RealEstate.dataset.BulkLoader;
+import org.RealEstate.dataset.PortfolioProfile;
+import org.RealEstate.dto.*;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.Contract;
+import org.RealEstate.service.RealEstate;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioSnapshotTest {
+    static final LocalDate TODAY = LocalDate.now();
+
+    RealEstate service;
+    PortfolioSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        service = RealEstate.getInstance();
+        snapshot = PortfolioSnapshot.forFactory(HibernateUtil.getSessionFactory());
+
+        PortfolioProfile profile = new PortfolioProfile();
+        profile.setSeed(20);
+        profile.setContracts(3000);
+        profile.setAsOf(TODAY);
+        new BulkLoader(HibernateUtil.getSessionFactory()).load(profile);
+    }
+
+    @AfterEach
+    void tearDown() {
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Payment").executeUpdate();
+            session.createQuery("delete from Contract").executeUpdate();
+            session.createQuery("delete from RevenueRollup").executeUpdate();
+            session.getTransaction().commit();
+        }
+
+        PortfolioSnapshot.release(HibernateUtil.getSessionFactory());
+    }
+
+    @Test
+    void testAnswersMatchTheDatabase() {
+        FilterDTO byType = new FilterDTO(null);
+        byType.setPropertyType(PropertyType.OFFICE);
+        byType.setFromDate(TODAY.minusYears(2));
+        byType.setToDate(TODAY.minusMonths(6));
+
+        FilterDTO byRent = new FilterDTO("son");
+        byRent.setFromAmount(new BigDecimal("1200.50"));
+        byRent.setToAmount(new BigDecimal(2500));
+
+        for (FilterDTO filter : List.of(byType, byRent, new FilterDTO(null))) {
+            assertEquals(ids(service.searchContractRows(filter), ContractSearchRowDTO::getId), ids(snapshot.searchContracts(filter), ContractSearchRowDTO::getId));
+        }
+
+        for (DateRangeDTO range : List.of(new DateRangeDTO(TODAY.minusYears(5), TODAY), new DateRangeDTO(TODAY.minusYears(2).plusDays(3), TODAY.minusDays(40)))) {
+            List<FinishedContractSummaryDTO> expected = service.getFinishedContractSummary(range);
+            List<FinishedContractSummaryDTO> actual = snapshot.getFinishedContractSummary(range);
+
+            assertEquals(expected.size(), actual.size());
+
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getPropertyType(), actual.get(i).getPropertyType());
+                assertEquals(expected.get(i).getQuantity(), actual.get(i).getQuantity());
+                assertEquals(0, expected.get(i).getTotal().compareTo(actual.get(i).getTotal()));
+            }
+        }
+
+        UnfinishedSummaryFilterDTO page = new UnfinishedSummaryFilterDTO();
+        page.setPropertyType(PropertyType.HOUSE);
+        page.setOverdueOnly(true);
+        page.setPageSize(25);
+        page.setAfterId(service.getUnfinishedContractSummary().get(10).getContractId());
+
+        for (UnfinishedSummaryFilterDTO filter : List.of(new UnfinishedSummaryFilterDTO(), page)) {
+            assertEquals(ids(service.getUnfinishedContractSummary(filter), UnfinishedContractSummaryDTO::getContractId),
+                    ids(snapshot.getUnfinishedContractSummary(filter), UnfinishedContractSummaryDTO::getContractId));
+        }
+    }
+
+    @Test
+    void testRefreshesChangedContractsOnly() {
+        int before = snapshot.size();
+        long loads = snapshot.getFullLoads();
+        UnfinishedContractSummaryDTO open = snapshot.getUnfinishedContractSummary(new UnfinishedSummaryFilterDTO()).get(0);
+
+        service.makePayment(new MakePaymentDTO(open.getContractId(), open.getExpected().subtract(open.getActual())));
+
+        Contract added = new Contract("Snapshot Tenant", PropertyType.APARTMENT, new BigDecimal(900), TODAY.minusMonths(1), TODAY.plusYears(1), Status.ACTIVE);
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.persist(added);
+            session.getTransaction().commit();
+        }
+
+        assertTrue(snapshot.getUnfinishedContractSummary(new UnfinishedSummaryFilterDTO()).stream()
+                .noneMatch(row -> row.getContractId() == open.getContractId()));
+        assertEquals(before + 1, snapshot.size());
+        assertEquals(added.getId(), snapshot.searchContracts(new FilterDTO("Snapshot")).get(0).getId());
+        // compared the way the production collation compares
+        assertEquals(added.getId(), snapshot.searchContracts(new FilterDTO("SN\u00C1PSHOT t")).get(0).getId());
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.remove(session.get(Contract.class, added.getId()));
+            session.getTransaction().commit();
+        }
+
+        assertEquals(before, snapshot.size());
+        assertTrue(snapshot.searchContracts(new FilterDTO("Snapshot")).isEmpty());
+        assertEquals(loads, snapshot.getFullLoads());
+    }
+
+    private static <T> List<Long> ids(List<T> rows, Function<T, Long> id) {
+        return rows.stream().map(id).toList();
+    }
+}
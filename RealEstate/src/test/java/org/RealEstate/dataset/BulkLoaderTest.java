@@ -0,0 +1,167 @@
+package org.RealEstate.dataset;
+
+import org.RealEstate.dto.BulkLoadResultDTO;
+import org.RealEstate.dto.FilterDTO;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.Contract;
+import org.RealEstate.service.RealEstate;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkLoaderTest {
+    static final LocalDate AS_OF = LocalDate.of(2025, 6, 15);
+
+    @AfterEach
+    void tearDown() {
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Payment").executeUpdate();
+            session.createQuery("delete from Contract").executeUpdate();
+            session.createQuery("delete from RevenueRollup").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @Test
+    void testGeneratorIsDeterministicBySeed() {
+        List<String> first = record(profile(7, 500));
+        List<String> second = record(profile(7, 500));
+        List<String> other = record(profile(8, 500));
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    void testGeneratedContractsAreConsistent() {
+        PortfolioProfile profile = profile(7, 2000);
+        profile.setOverdueRatio(0.5);
+
+        Map<Long, BigDecimal> paid = new HashMap<>();
+        Map<Long, BigDecimal> payments = new HashMap<>();
+        Map<Status, Integer> statuses = new HashMap<>();
+
+        new PortfolioGenerator(profile).generate(1, new PortfolioSink() {
+            @Override
+            public void contract(long id, String tenantName, PropertyType propertyType, BigDecimal monthlyRent,
+                                 LocalDate startDate, LocalDate endDate, Status status, BigDecimal total, BigDecimal paidTotal) {
+                BigDecimal[] range = profile.getRentRange(propertyType);
+
+                assertTrue(monthlyRent.compareTo(range[0].subtract(BigDecimal.TEN)) >= 0);
+                assertTrue(monthlyRent.compareTo(range[1].add(BigDecimal.TEN)) <= 0);
+                assertTrue(paidTotal.compareTo(total) <= 0);
+                assertEquals(status == Status.COMPLETED, paidTotal.compareTo(total) == 0);
+                if (status == Status.OVERDUE) assertTrue(endDate.isBefore(AS_OF));
+
+                paid.put(id, paidTotal);
+                statuses.merge(status, 1, Integer::sum);
+            }
+
+            @Override
+            public void payment(long contractId, LocalDate payDate, BigDecimal amount) {
+                payments.merge(contractId, amount, BigDecimal::add);
+            }
+        });
+
+        paid.forEach((id, total) -> assertEquals(0, total.compareTo(payments.getOrDefault(id, BigDecimal.ZERO))));
+        assertEquals(3, statuses.size());
+    }
+
+    @Test
+    void testPaymentCapLeavesCutContractsOpen() {
+        PortfolioProfile profile = profile(7, 2000);
+        profile.setMaxPaymentsPerContract(5);
+
+        Map<Long, Integer> payments = new HashMap<>();
+        Map<Status, Integer> statuses = new HashMap<>();
+
+        new PortfolioGenerator(profile).generate(1, new PortfolioSink() {
+            @Override
+            public void contract(long id, String tenantName, PropertyType propertyType, BigDecimal monthlyRent,
+                                 LocalDate startDate, LocalDate endDate, Status status, BigDecimal total, BigDecimal paidTotal) {
+                assertEquals(status == Status.COMPLETED, paidTotal.compareTo(total) == 0);
+                if (status == Status.OVERDUE) assertTrue(endDate.isBefore(AS_OF));
+
+                statuses.merge(status, 1, Integer::sum);
+            }
+
+            @Override
+            public void payment(long contractId, LocalDate payDate, BigDecimal amount) {
+                payments.merge(contractId, 1, Integer::sum);
+            }
+        });
+
+        assertTrue(payments.values().stream().allMatch(count -> count <= 5));
+        assertTrue(payments.values().stream().anyMatch(count -> count == 5));
+        assertTrue(statuses.get(Status.OVERDUE) > statuses.getOrDefault(Status.COMPLETED, 0));
+    }
+
+    @Test
+    void testBulkLoadWritesRowsAndKeepsIdentityUsable() {
+        BulkLoadResultDTO result = new BulkLoader(HibernateUtil.getSessionFactory()).load(profile(11, 3000));
+
+        assertEquals(3000, result.getContracts());
+        assertTrue(result.getPayments() > 0);
+
+        try (Session session = HibernateUtil.getSession()) {
+            assertEquals(3000L, session.createQuery("select count(c) from Contract c", Long.class).getSingleResult());
+            assertEquals(result.getPayments(), session.createQuery("select count(p) from Payment p", Long.class).getSingleResult());
+            assertTrue(session.createQuery("select count(r) from RevenueRollup r", Long.class).getSingleResult() > 0);
+
+            assertEquals(0L, session.createQuery(
+                    "select count(c) from Contract c where c.paidTotal <> " +
+                            "(select coalesce(sum(p.amount), 0) from Payment p where p.contract = c)", Long.class)
+                    .getSingleResult());
+        }
+
+        Contract added = new Contract("Bulk Tail", PropertyType.HOUSE, new BigDecimal(900),
+                AS_OF.minusMonths(3), AS_OF.plusMonths(9), Status.ACTIVE);
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.persist(added);
+            session.getTransaction().commit();
+        }
+
+        assertTrue(added.getId() >= result.getFirstContractId() + result.getContracts());
+        assertFalse(RealEstate.getInstance().searchContractsWithFilters(new FilterDTO("Garcia")).isEmpty());
+    }
+
+    private PortfolioProfile profile(long seed, int contracts) {
+        PortfolioProfile profile = new PortfolioProfile();
+        profile.setSeed(seed);
+        profile.setContracts(contracts);
+        profile.setAsOf(AS_OF);
+        return profile;
+    }
+
+    private List<String> record(PortfolioProfile profile) {
+        List<String> rows = new ArrayList<>();
+
+        new PortfolioGenerator(profile).generate(1, new PortfolioSink() {
+            @Override
+            public void contract(long id, String tenantName, PropertyType propertyType, BigDecimal monthlyRent,
+                                 LocalDate startDate, LocalDate endDate, Status status, BigDecimal total, BigDecimal paidTotal) {
+                rows.add(id + "|" + tenantName + "|" + propertyType + "|" + monthlyRent + "|" + startDate + "|" + endDate + "|" + status + "|" + paidTotal);
+            }
+
+            @Override
+            public void payment(long contractId, LocalDate payDate, BigDecimal amount) {
+                rows.add(contractId + "|" + payDate + "|" + amount);
+            }
+        });
+
+        return rows;
+    }
+}
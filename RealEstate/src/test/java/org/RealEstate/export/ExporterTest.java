@@ -0,0 +1,251 @@
+package org.RealEstate.export;
+
+import org.RealEstate.dataset.BulkLoader;
+import org.RealEstate.dataset.PortfolioProfile;
+import org.RealEstate.dto.ExportRequestDTO;
+import org.RealEstate.dto.ExportResultDTO;
+import org.RealEstate.enums.ExportFormat;
+import org.RealEstate.enums.ExportTable;
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.Contract;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExporterTest {
+    static final int CONTRACTS = 3000;
+
+    @TempDir
+    Path dir;
+
+    Exporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        PortfolioProfile profile = new PortfolioProfile();
+        profile.setSeed(3);
+        profile.setContracts(CONTRACTS);
+        profile.setAsOf(LocalDate.of(2025, 6, 15));
+
+        new BulkLoader(HibernateUtil.getSessionFactory()).load(profile);
+        exporter = new Exporter(HibernateUtil.getSessionFactory());
+    }
+
+    @AfterEach
+    void tearDown() {
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Payment").executeUpdate();
+            session.createQuery("delete from Contract").executeUpdate();
+            session.createQuery("delete from RevenueRollup").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @Test
+    void testCsvExportWritesEveryContract() throws IOException {
+        Path file = dir.resolve("contracts.csv");
+        ExportResultDTO result = exporter.export(new ExportRequestDTO(ExportTable.CONTRACTS, ExportFormat.CSV), file);
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+
+        assertEquals(CONTRACTS, result.getRows());
+        assertEquals(CONTRACTS + 1, lines.size());
+        assertEquals("contract_id,tenant_name,property_type,monthly_rent,start_date,end_date,status,total,paid_total,outstanding", lines.get(0));
+
+        String[] first = lines.get(1).split(",");
+        Contract stored = load(Long.parseLong(first[0]));
+
+        assertEquals(stored.getTenantName(), first[1]);
+        assertEquals(stored.getPropertyType().name(), first[2]);
+        assertEquals(stored.getStartDate().toString(), first[4]);
+        assertEquals(0, stored.getOutstanding().compareTo(new BigDecimal(first[9])));
+    }
+
+    @Test
+    void testGzipColumnarExportRoundTrips() throws IOException {
+        Path csv = dir.resolve("payments.csv");
+        Path columnar = dir.resolve("payments.rexc.gz");
+
+        ExportRequestDTO csvRequest = new ExportRequestDTO(ExportTable.PAYMENTS, ExportFormat.CSV);
+        ExportRequestDTO columnarRequest = new ExportRequestDTO(ExportTable.PAYMENTS, ExportFormat.COLUMNAR);
+        columnarRequest.setGzip(true);
+
+        ExportResultDTO csvResult = exporter.export(csvRequest, csv);
+        ExportResultDTO columnarResult = exporter.export(columnarRequest, columnar);
+
+        assertEquals(csvResult.getRows(), columnarResult.getRows());
+        assertTrue(columnarResult.getBytes() * 4 < csvResult.getBytes());
+
+        List<String> expected = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        List<String> actual = new ArrayList<>();
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(columnar))) {
+            List<ExportColumn> columns = ColumnarReader.read(in, row -> {
+                StringBuilder line = new StringBuilder();
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) line.append(',');
+                    line.append(row[i] instanceof BigDecimal decimal ? decimal.toPlainString() : row[i]);
+                }
+                actual.add(line.toString());
+            });
+
+            assertEquals(4, columns.size());
+        }
+
+        assertEquals(expected.subList(1, expected.size()), actual);
+    }
+
+    @Test
+    void testFilteredExportResumesByIdRange() throws IOException {
+        long overdue;
+        long firstId;
+
+        try (Session session = HibernateUtil.getSession()) {
+            overdue = session.createQuery("select count(c) from Contract c where c.status = :status", Long.class)
+                    .setParameter("status", Status.OVERDUE)
+                    .getSingleResult();
+            firstId = session.createQuery("select min(c.id) from Contract c", Long.class).getSingleResult();
+        }
+
+        ExportRequestDTO head = new ExportRequestDTO(ExportTable.CONTRACTS, ExportFormat.CSV);
+        head.setStatus(Status.OVERDUE);
+        head.setUntilId(firstId + CONTRACTS / 2);
+
+        ExportResultDTO first = exporter.export(head, dir.resolve("part-1.csv"));
+
+        ExportRequestDTO tail = new ExportRequestDTO(ExportTable.CONTRACTS, ExportFormat.CSV);
+        tail.setStatus(Status.OVERDUE);
+        tail.setAfterId(first.getLastId());
+
+        ExportResultDTO second = exporter.export(tail, dir.resolve("part-2.csv"));
+
+        assertTrue(first.getRows() > 0 && second.getRows() > 0);
+        assertEquals(overdue, first.getRows() + second.getRows());
+
+        for (String line : Files.readAllLines(dir.resolve("part-2.csv"), StandardCharsets.UTF_8).subList(1, (int) second.getRows() + 1)) {
+            assertTrue(Long.parseLong(line.substring(0, line.indexOf(','))) > first.getLastId());
+            assertTrue(line.contains(",OVERDUE,"));
+        }
+    }
+
+    @Test
+    void testColumnarRejectsNullDateAndDecimal() throws IOException {
+        for (Object[] row : List.of(
+                new Object[]{7L, 1L, null, BigDecimal.ONE},
+                new Object[]{7L, 1L, LocalDate.of(2025, 1, 1), null})) {
+            try (ChannelSink sink = new ChannelSink(Channels.newChannel(new ByteArrayOutputStream()))) {
+                ColumnarRowWriter writer = new ColumnarRowWriter(sink, Exporter.PAYMENT_COLUMNS);
+
+                IOException error = assertThrows(IOException.class, () -> writer.write(row));
+                assertTrue(error.getMessage().contains(row[2] == null ? "pay_date" : "amount"), error.getMessage());
+                assertTrue(error.getMessage().contains("row 7"), error.getMessage());
+            }
+        }
+    }
+
+    @Test
+    void testFailedExportResumesFromReportedId() throws IOException {
+        List<Long> ids;
+
+        try (Session session = HibernateUtil.getSession()) {
+            ids = session.createQuery("select p.id from Payment p order by p.id", Long.class).getResultList();
+        }
+
+        // payments, so the columnar file holds several row groups
+        for (ExportFormat format : ExportFormat.values()) {
+            Path part1 = dir.resolve("part-1." + format);
+            ExportRequestDTO request = new ExportRequestDTO(ExportTable.PAYMENTS, format);
+            ExportFailedException error;
+
+            // the disk fills up partway through the second buffer
+            try (FileChannel file = FileChannel.open(part1, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                error = assertThrows(ExportFailedException.class,
+                        () -> exporter.export(request, failingAfter(file, ChannelSink.BUFFER_SIZE + 1000), new long[1]));
+            }
+
+            assertNotNull(error.getLastId(), format.name());
+            assertTrue(error.getLastId() < ids.get(ids.size() - 1), format.name());
+
+            List<Long> written = new ArrayList<>();
+
+            if (format == ExportFormat.CSV) {
+                String[] lines = Files.readString(part1, StandardCharsets.UTF_8).split("\r\n", -1);
+
+                // header first, the last piece is the row cut off by the failure
+                for (int i = 1; i < lines.length - 1; i++) written.add(Long.parseLong(lines[i].substring(0, lines[i].indexOf(','))));
+            }
+            else {
+                // no trailer: every whole row group comes back, then the stream ends early
+                try (InputStream in = Files.newInputStream(part1)) {
+                    assertThrows(EOFException.class, () -> ColumnarReader.read(in, row -> written.add((Long) row[0])));
+                }
+            }
+
+            assertEquals(error.getLastId(), written.get(written.size() - 1), format.name());
+
+            ExportRequestDTO resume = new ExportRequestDTO(ExportTable.PAYMENTS, ExportFormat.CSV);
+            resume.setAfterId(error.getLastId());
+
+            ExportResultDTO rest = exporter.export(resume, dir.resolve("part-2." + format));
+
+            assertEquals(ids.size(), written.size() + rest.getRows(), format.name());
+        }
+    }
+
+    // writes up to limit bytes, then fails like a full disk
+    private static WritableByteChannel failingAfter(FileChannel file, long limit) {
+        return new WritableByteChannel() {
+            long written;
+
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                if (written >= limit) throw new IOException("No space left on device");
+
+                ByteBuffer slice = source.slice();
+                slice.limit((int) Math.min(slice.remaining(), limit - written));
+
+                int count = file.write(slice);
+                source.position(source.position() + count);
+                written += count;
+                return count;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return file.isOpen();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private Contract load(long id) {
+        try (Session session = HibernateUtil.getSession()) {
+            return session.get(Contract.class, id);
+        }
+    }
+}
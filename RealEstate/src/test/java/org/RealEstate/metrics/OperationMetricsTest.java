@@ -0,0 +1,135 @@
+package org.RealEstate.metrics;
+
+import org.RealEstate.dto.FilterDTO;
+import org.RealEstate.dto.MakePaymentDTO;
+import org.RealEstate.dto.OperationStatsDTO;
+import org.RealEstate.enums.Operation;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.Contract;
+import org.RealEstate.service.RealEstate;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationMetricsTest {
+    RealEstate service;
+    Contract contract;
+
+    @BeforeEach
+    void setUp() {
+        service = RealEstate.getInstance();
+        OperationMetrics.reset();
+
+        contract = new Contract("Metrics", PropertyType.OFFICE, new BigDecimal(1000),
+                LocalDate.now().minusMonths(6), LocalDate.now().plusMonths(6), Status.ACTIVE);
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.persist(contract);
+            session.getTransaction().commit();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Payment").executeUpdate();
+            session.createQuery("delete from Contract").executeUpdate();
+            session.createQuery("delete from RevenueRollup").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @Test
+    void testHistogramQuantilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long v = 1; v <= 100_000; v++) histogram.record(v * 1000);
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMax());
+        assertEquals(50_000_000, histogram.valueAt(0.5), 50_000_000 * 0.04);
+        assertEquals(99_000_000, histogram.valueAt(0.99), 99_000_000 * 0.04);
+        assertEquals(99_900_000, histogram.valueAt(0.999), 99_900_000 * 0.04);
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.valueAt(0.5));
+    }
+
+    @Test
+    void testServiceCallsAreCountedPerOperation() {
+        for (int i = 0; i < 3; i++) service.makePayment(new MakePaymentDTO(contract.getId(), BigDecimal.ONE));
+        service.searchContractsWithFilters(new FilterDTO(null));
+        service.getUnfinishedContractSummary();
+
+        OperationStatsDTO payments = stats(Operation.MAKE_PAYMENT);
+        OperationStatsDTO search = stats(Operation.SEARCH_CONTRACTS);
+        OperationStatsDTO unfinished = stats(Operation.UNFINISHED_SUMMARY);
+
+        assertEquals(3, payments.getCalls());
+        // each posting also opens a child session for the revenue rollup
+        assertEquals(6, payments.getSessions());
+        assertTrue(payments.getStatements() >= 6);
+        assertTrue(payments.getMaxMicros() >= payments.getP50Micros());
+
+        assertEquals(1, search.getCalls());
+        assertEquals(1, search.getQueries());
+        assertEquals(1, search.getRows());
+        assertEquals(1, search.getEntities());
+
+        // the no-arg overload delegates to the filtered one and is counted once
+        assertEquals(1, unfinished.getCalls());
+    }
+
+    @Test
+    void testMetricsArePublishedOverJmx() throws Exception {
+        service.searchContractRows(new FilterDTO(null));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(RealEstateMetrics.OBJECT_NAME);
+
+        CompositeData[] operations = (CompositeData[]) server.getAttribute(name, "Operations");
+        CompositeData hibernate = (CompositeData) server.getAttribute(name, "HibernateStatistics");
+
+        assertTrue(List.of(operations).stream().anyMatch(op -> "SEARCH_CONTRACT_ROWS".equals(op.get("operation"))));
+        assertTrue((Long) hibernate.get("sessionsOpened") > 0);
+
+        server.invoke(name, "reset", null, null);
+
+        assertEquals(0, ((CompositeData[]) server.invoke(name, "snapshot", null, null)).length);
+    }
+
+    @Test
+    void testRecordingDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < 100_000; i++) OperationMetrics.end(Operation.CACHE_STATS, OperationMetrics.begin());
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100_000; i++) OperationMetrics.end(Operation.CACHE_STATS, OperationMetrics.begin());
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+    }
+
+    private OperationStatsDTO stats(Operation operation) {
+        return OperationMetrics.snapshot().stream()
+                .filter(dto -> dto.getOperation() == operation)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,98 @@
+package org.RealEstate.service;
+
+import org.RealEstate.dto.ContractSearchRowDTO;
+import org.RealEstate.dto.FilterDTO;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.Contract;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractSearchAllocationTest {
+    static final int CONTRACTS = 1000;
+    static final int ROUNDS = 5;
+
+    RealEstate service;
+
+    @BeforeEach
+    void setUp() {
+        service = RealEstate.getInstance();
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+
+            for (int i = 0; i < CONTRACTS; i++) {
+                session.persist(new Contract(
+                        "Tenant " + i,
+                        PropertyType.values()[i % PropertyType.values().length],
+                        new BigDecimal(500 + i),
+                        LocalDate.now().minusDays(i),
+                        LocalDate.now().plusYears(1),
+                        Status.ACTIVE
+                ));
+
+                if (i % 100 == 99) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+
+            session.getTransaction().commit();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Payment").executeUpdate();
+            session.createQuery("delete from Contract").executeUpdate();
+            session.createQuery("delete from RevenueRollup").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @Test
+    void testProjectionAllocatesLessThanEntities() {
+        FilterDTO filter = new FilterDTO(null);
+
+        List<Contract> entities = service.searchContractsWithFilters(filter);
+        List<ContractSearchRowDTO> rows = service.searchContractRows(filter);
+
+        assertEquals(CONTRACTS, entities.size());
+        assertEquals(CONTRACTS, rows.size());
+
+        for (int i = 0; i < CONTRACTS; i++) {
+            assertEquals(entities.get(i).getId(), rows.get(i).getId());
+            assertEquals(0, entities.get(i).getTotal().compareTo(rows.get(i).getTotal()));
+        }
+
+        long entityBytes = allocatedBytes(() -> service.searchContractsWithFilters(filter));
+        long rowBytes = allocatedBytes(() -> service.searchContractRows(filter));
+
+        System.out.printf("search of %d contracts: entities=%d B/op rows=%d B/op%n", CONTRACTS, entityBytes, rowBytes);
+
+        assertTrue(rowBytes < entityBytes);
+    }
+
+    private long allocatedBytes(Supplier<List<?>> search) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < ROUNDS; i++) search.get();
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ROUNDS; i++) search.get();
+
+        return (threads.getThreadAllocatedBytes(thread) - before) / ROUNDS;
+    }
+}
@@ -0,0 +1,164 @@
+package org.RealEstate.service;
+
+import org.RealEstate.dto.DateRangeDTO;
+import org.RealEstate.dto.MakePaymentDTO;
+import org.RealEstate.dto.RevenueRollupDTO;
+import org.RealEstate.dto.SweepResultDTO;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.Contract;
+import org.RealEstate.models.JobCheckpoint;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverdueSweeperTest {
+    static final LocalDate TODAY = LocalDate.now();
+
+    List<Long> ended;
+    List<Long> running;
+
+    @BeforeEach
+    void setUp() {
+        ended = new ArrayList<>();
+        running = new ArrayList<>();
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+
+            for (int i = 0; i < 20; i++) {
+                Contract contract = new Contract(
+                        "Tenant " + i,
+                        PropertyType.values()[i % PropertyType.values().length],
+                        new BigDecimal(500 + i),
+                        TODAY.minusYears(2).plusMonths(i % 3),
+                        i % 2 == 0 ? TODAY.minusMonths(1) : TODAY.plusMonths(6),
+                        Status.ACTIVE
+                );
+
+                session.persist(contract);
+                (i % 2 == 0 ? ended : running).add(contract.getId());
+            }
+
+            Contract paidUp = new Contract("Paid up", PropertyType.HOUSE, new BigDecimal(100),
+                    TODAY.minusMonths(5), TODAY.minusMonths(2), Status.ACTIVE);
+            paidUp.setPaidTotal(paidUp.getTotal());
+            session.persist(paidUp);
+            running.add(paidUp.getId());
+
+            session.getTransaction().commit();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Payment").executeUpdate();
+            session.createQuery("delete from Contract").executeUpdate();
+            session.createQuery("delete from RevenueRollup").executeUpdate();
+            session.createQuery("delete from JobCheckpoint").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @Test
+    void testSweepMarksEndedContractsWithBalance() {
+        SweepResultDTO result = new OverdueSweeper(HibernateUtil.getSessionFactory(), 3, 3).sweep(TODAY);
+
+        assertEquals(ended.size(), result.getMarked());
+        assertEquals(3, result.getPartitions());
+
+        for (long id : ended) assertEquals(Status.OVERDUE, load(id).getStatus());
+        for (long id : running) assertEquals(Status.ACTIVE, load(id).getStatus());
+
+        assertRollupMatchesContracts();
+        assertEquals(0, new OverdueSweeper(HibernateUtil.getSessionFactory(), 3, 3).sweep(TODAY).getMarked());
+    }
+
+    @Test
+    void testSweepResumesFromCheckpoint() {
+        long first = ended.get(0);
+        long last = running.get(running.size() - 1);
+        long resumeAfter = ended.get(4);
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            JobCheckpoint checkpoint = new JobCheckpoint(OverdueSweeper.JOB_NAME + "/1/0", TODAY, first, last);
+            checkpoint.advance(resumeAfter);
+            session.persist(checkpoint);
+            session.getTransaction().commit();
+        }
+
+        SweepResultDTO result = new OverdueSweeper(HibernateUtil.getSessionFactory(), 4, 1).sweep(TODAY);
+
+        assertEquals(ended.size() - 5, result.getMarked());
+        for (long id : ended) assertEquals(id <= resumeAfter ? Status.ACTIVE : Status.OVERDUE, load(id).getStatus());
+
+        assertRollupMatchesContracts();
+    }
+
+    @Test
+    void testSweepRunsAlongsidePaymentPosting() throws Exception {
+        RealEstate service = RealEstate.getInstance();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < 3; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 30; i++) {
+                    long id = ended.get(i % ended.size());
+                    service.makePayment(new MakePaymentDTO(id, BigDecimal.ONE));
+                }
+            }));
+        }
+
+        futures.add(pool.submit(() -> new OverdueSweeper(HibernateUtil.getSessionFactory(), 2, 2).sweep(TODAY)));
+
+        for (Future<?> future : futures) future.get();
+        pool.shutdown();
+
+        for (long id : ended) {
+            Contract stored = load(id);
+
+            assertEquals(Status.OVERDUE, stored.getStatus());
+            assertEquals(0, stored.getTotal().subtract(stored.getPaidTotal()).compareTo(stored.getOutstanding()));
+        }
+
+        assertRollupMatchesContracts();
+    }
+
+    private void assertRollupMatchesContracts() {
+        DateRangeDTO all = new DateRangeDTO(TODAY.minusYears(10), TODAY.plusYears(10));
+
+        try (Session session = HibernateUtil.getSession()) {
+            List<RevenueRollupDTO> stored = RevenueRollups.read(session, all);
+            List<RevenueRollupDTO> live = RevenueRollups.aggregate(session, all.getFromDate(), all.getToDate());
+
+            assertEquals(live.size(), stored.size());
+
+            for (int i = 0; i < live.size(); i++) {
+                assertEquals(live.get(i).getMonth(), stored.get(i).getMonth());
+                assertEquals(live.get(i).getPropertyType(), stored.get(i).getPropertyType());
+                assertEquals(live.get(i).getStatus(), stored.get(i).getStatus());
+                assertEquals(live.get(i).getContractCount(), stored.get(i).getContractCount());
+                assertEquals(0, live.get(i).getExpectedRevenue().compareTo(stored.get(i).getExpectedRevenue()));
+                assertEquals(0, live.get(i).getCollectedRevenue().compareTo(stored.get(i).getCollectedRevenue()));
+            }
+        }
+    }
+
+    private Contract load(long id) {
+        try (Session session = HibernateUtil.getSession()) {
+            return session.get(Contract.class, id);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package org.RealEstate.service;
+
+import org.RealEstate.dataset.BulkLoader;
+import org.RealEstate.dataset.PortfolioProfile;
+import org.RealEstate.dto.*;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.utils.CapturingStatementInspector;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the hot RealEstate operations against a seeded database, EXPLAINs every statement they issue and
+// fails on a full table scan. Runs on H2 by default; pass -Dhibernate.connection.url=jdbc:mysql://...
+// (plus driver, dialect and credentials) to check MySQL plans instead.
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+    static final int CONTRACTS = 20_000;
+    static final LocalDate TODAY = LocalDate.now();
+
+    private static final Pattern ALIAS = Pattern.compile("(?i)\\b(?:from|join)\\s+(\\w+)\\s+(\\w+)");
+    private static final Pattern COLUMN = Pattern.compile("(\\w+)\\.(\\w+)");
+    private static final Pattern ROW_LIMIT = Pattern.compile("(?i)\\b(offset|first|next|limit)\\s*(\\?\\s*,\\s*)?$");
+
+    RealEstate service;
+    long activeId;
+
+    @BeforeAll
+    void seed() {
+        service = RealEstate.getInstance();
+
+        PortfolioProfile profile = new PortfolioProfile();
+        profile.setSeed(18);
+        profile.setContracts(CONTRACTS);
+        profile.setAsOf(TODAY);
+        new BulkLoader(HibernateUtil.getSessionFactory()).load(profile);
+
+        try (Session session = HibernateUtil.getSession()) {
+            activeId = session.createQuery("select min(c.id) from Contract c where c.status = :status", Long.class)
+                    .setParameter("status", Status.ACTIVE)
+                    .getSingleResult();
+
+            session.doWork(connection -> {
+                if (isH2(connection)) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("analyze");
+                    }
+                }
+            });
+        }
+
+        // builds the tenant name index up front; loading it is a deliberate one-off scan
+        service.searchContractsWithFilters(new FilterDTO("Lindqvist"));
+    }
+
+    @AfterAll
+    void tearDown() {
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Payment").executeUpdate();
+            session.createQuery("delete from Contract").executeUpdate();
+            session.createQuery("delete from RevenueRollup").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @Test
+    void testMakePayment() {
+        assertNoScans(() -> service.makePayment(new MakePaymentDTO(activeId, new BigDecimal("0.01"))));
+    }
+
+    @Test
+    void testSearchByTypeAndDates() {
+        FilterDTO filter = new FilterDTO(null);
+        filter.setPropertyType(PropertyType.OFFICE);
+        filter.setFromDate(TODAY.minusMonths(3));
+        filter.setToDate(TODAY.minusMonths(2));
+
+        assertNoScans(() -> service.searchContractsWithFilters(filter));
+    }
+
+    @Test
+    void testSearchPagesByDates() {
+        FilterDTO filter = new FilterDTO(null);
+        filter.setFromDate(TODAY.minusMonths(12));
+        filter.setToDate(TODAY.minusMonths(6));
+
+        assertNoScans(() -> {
+            ContractRowPageDTO page = service.searchContractRowsPage(filter, null, 20);
+            service.searchContractRowsPage(filter, page.getNext(), 20);
+        });
+    }
+
+    @Test
+    void testSearchByRent() {
+        FilterDTO filter = new FilterDTO(null);
+        filter.setFromAmount(new BigDecimal(9000));
+        filter.setToAmount(new BigDecimal(9500));
+
+        assertNoScans(() -> service.searchContractRows(filter));
+    }
+
+    @Test
+    void testSearchByName() {
+        assertNoScans(() -> service.searchContractRows(new FilterDTO("Lindqvist")));
+    }
+
+    @Test
+    void testFinishedSummary() {
+        assertNoScans(() -> {
+            service.getFinishedContractSummary(new DateRangeDTO(TODAY.minusMonths(3).plusDays(3), TODAY.minusMonths(1)));
+            service.getFinishedContractSummary(new DateRangeDTO(
+                    YearMonth.from(TODAY.minusMonths(6)).atDay(1),
+                    YearMonth.from(TODAY.minusMonths(1)).atEndOfMonth()
+            ));
+        });
+    }
+
+    @Test
+    void testMonthlyRevenue() {
+        assertNoScans(() -> service.getMonthlyRevenue(new DateRangeDTO(TODAY.minusMonths(6), TODAY)));
+    }
+
+    @Test
+    void testUnfinishedSummaryPages() {
+        UnfinishedSummaryFilterDTO filter = new UnfinishedSummaryFilterDTO();
+        filter.setPageSize(50);
+
+        UnfinishedSummaryFilterDTO overdue = new UnfinishedSummaryFilterDTO();
+        overdue.setOverdueOnly(true);
+        overdue.setPropertyType(PropertyType.HOUSE);
+        overdue.setPageSize(50);
+
+        assertNoScans(() -> {
+            List<UnfinishedContractSummaryDTO> page = service.getUnfinishedContractSummary(filter);
+            filter.setAfterId(page.get(page.size() - 1).getContractId());
+            service.getUnfinishedContractSummary(filter);
+            service.getUnfinishedContractSummary(overdue);
+        });
+    }
+
+    @Test
+    void testArrearsPages() {
+        BalanceFilterDTO filter = new BalanceFilterDTO();
+        filter.setMinOutstanding(new BigDecimal(20000));
+
+        // the arrears order has to come from idx_contract_outstanding, not a sort of the matching rows
+        assertNoScans(true, () -> {
+            ContractBalancePageDTO page = service.searchContractBalances(filter, null, 20);
+            service.searchContractBalances(filter, page.getNext(), 20);
+        });
+    }
+
+    private void assertNoScans(Runnable operation) {
+        assertNoScans(false, operation);
+    }
+
+    private void assertNoScans(boolean indexOrdered, Runnable operation) {
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+
+        CapturingStatementInspector.start();
+        try {
+            operation.run();
+        }
+        finally {
+            List<String> statements = CapturingStatementInspector.stop();
+            List<String> scans = new ArrayList<>();
+
+            assertFalse(statements.isEmpty());
+
+            try (Session session = HibernateUtil.getSession()) {
+                session.doWork(connection -> {
+                    for (String sql : statements) {
+                        if (!sql.trim().toLowerCase().matches("(?s)^(select|update|delete)\\b.*")) continue;
+
+                        String plan = explain(connection, sql);
+
+                        if (isScan(connection, plan) || indexOrdered && isSort(connection, plan)) scans.add(sql + "\n" + plan);
+                    }
+                });
+            }
+
+            assertTrue(scans.isEmpty(), "Full table scans" + (indexOrdered ? " or sorts" : "") + ":\n" + String.join("\n\n", scans));
+        }
+    }
+
+    private static String explain(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("explain " + sql)) {
+            bindSamples(connection, sql, ps);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                int columns = rs.getMetaData().getColumnCount();
+
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        if (columns > 1) plan.append(rs.getMetaData().getColumnLabel(i)).append('=');
+                        plan.append(rs.getString(i)).append(columns > 1 ? " " : "");
+                    }
+                    plan.append('\n');
+                }
+
+                return plan.toString();
+            }
+        }
+    }
+
+    // H2 plans from the SQL alone; MySQL needs real values, so every ? gets a value sampled from the
+    // column it is compared with (row limits get a small number)
+    private static void bindSamples(Connection connection, String sql, PreparedStatement ps) throws SQLException {
+        Map<String, String> tables = new HashMap<>();
+        Matcher alias = ALIAS.matcher(sql);
+        while (alias.find()) tables.put(alias.group(2), alias.group(1));
+
+        int index = 0;
+
+        for (int at = sql.indexOf('?'); at >= 0; at = sql.indexOf('?', at + 1)) {
+            index++;
+            String before = sql.substring(0, at);
+
+            if (ROW_LIMIT.matcher(before).find()) {
+                ps.setInt(index, 10);
+                continue;
+            }
+
+            Matcher column = COLUMN.matcher(before);
+            String table = null;
+            String name = null;
+
+            while (column.find()) {
+                if (tables.containsKey(column.group(1))) {
+                    table = tables.get(column.group(1));
+                    name = column.group(2);
+                }
+            }
+
+            if (table == null) {
+                ps.setInt(index, 1);
+                continue;
+            }
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("select min(" + name + ") from " + table)) {
+                rs.next();
+                ps.setObject(index, rs.getObject(1));
+            }
+        }
+    }
+
+    private static boolean isScan(Connection connection, String plan) throws SQLException {
+        if (isH2(connection)) return plan.contains(".tableScan");
+
+        // MySQL tabular EXPLAIN: access type ALL is a full scan
+        return plan.contains("type=ALL ");
+    }
+
+    // only checked on MySQL, whose EXPLAIN says when ORDER BY could not be read off an index
+    private static boolean isSort(Connection connection, String plan) throws SQLException {
+        return !isH2(connection) && plan.contains("Using filesort");
+    }
+
+    private static boolean isH2(Connection connection) throws SQLException {
+        return "H2".equals(connection.getMetaData().getDatabaseProductName());
+    }
+}
@@ -0,0 +1,210 @@
+package org.RealEstate.service;
+
+import org.RealEstate.dto.*;
+import org.RealEstate.enums.Operation;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.ReadRoute;
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.Contract;
+import org.RealEstate.utils.HibernateUtil;
+import org.RealEstate.utils.PooledConnectionProvider;
+import org.RealEstate.utils.SessionRouter;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A second in-memory H2 database stands in for the replica. Nothing replicates between the two, so
+// which tenant a search returns shows which database answered it.
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadRoutingTest {
+    RealEstate service;
+    SessionFactory replica;
+    SessionRouter router;
+    Contract onPrimary;
+
+    @BeforeAll
+    void startReplica() {
+        replica = replicaFactory("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", 0);
+    }
+
+    @AfterAll
+    void stopReplica() {
+        replica.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = RealEstate.getInstance();
+        router = new SessionRouter(HibernateUtil.getSessionFactory(), List.of(replica));
+        HibernateUtil.setRouter(router);
+
+        onPrimary = contract(HibernateUtil.getSessionFactory(), "Primary Tenant");
+        contract(replica, "Replica Tenant");
+    }
+
+    @AfterEach
+    void tearDown() {
+        HibernateUtil.setRouter(new SessionRouter(HibernateUtil.getSessionFactory(), List.of()));
+
+        for (SessionFactory factory : List.of(HibernateUtil.getSessionFactory(), replica)) {
+            try (Session session = factory.openSession()) {
+                session.beginTransaction();
+                session.createQuery("delete from Payment").executeUpdate();
+                session.createQuery("delete from Contract").executeUpdate();
+                session.createQuery("delete from RevenueRollup").executeUpdate();
+                session.getTransaction().commit();
+            }
+        }
+    }
+
+    @Test
+    void testReportsReadFromReplicaAndWritesGoToPrimary() {
+        assertEquals("Replica Tenant", tenantFound());
+
+        service.makePayment(new MakePaymentDTO(onPrimary.getId(), BigDecimal.TEN));
+
+        try (Session session = HibernateUtil.getSession()) {
+            assertEquals(0, BigDecimal.TEN.compareTo(session.get(Contract.class, onPrimary.getId()).getPaidTotal()));
+        }
+
+        assertTrue(router.getReplicaReads() > 0);
+    }
+
+    @Test
+    void testRoutePerOperation() {
+        // summaries default to the primary, where their caches are
+        assertEquals(ReadRoute.PRIMARY, router.getRoute(Operation.FINISHED_SUMMARY));
+        assertEquals(ReadRoute.PRIMARY, router.getRoute(Operation.UNFINISHED_SUMMARY));
+        assertEquals(ReadRoute.PRIMARY, router.getRoute(Operation.MONTHLY_REVENUE));
+
+        router.setRoute(Operation.SEARCH_CONTRACT_ROWS, ReadRoute.PRIMARY);
+        router.setRoute(Operation.UNFINISHED_SUMMARY, ReadRoute.REPLICA);
+
+        assertEquals("Primary Tenant", tenantFound());
+        assertEquals(1, service.getUnfinishedContractSummary().size());
+        assertEquals(0, router.getPrimaryReads() - 1);
+    }
+
+    @Test
+    void testReadYourWritesPinsThePayingThread() throws Exception {
+        router.setReadYourWrites(Duration.ofMinutes(1));
+
+        service.makePayment(new MakePaymentDTO(onPrimary.getId(), BigDecimal.TEN));
+
+        assertEquals("Primary Tenant", tenantFound());
+        assertEquals("Replica Tenant", CompletableFuture.supplyAsync(this::tenantFound).get());
+
+        router.setReadYourWrites(Duration.ZERO);
+        service.makePayment(new MakePaymentDTO(onPrimary.getId(), BigDecimal.TEN));
+
+        assertEquals("Primary Tenant", tenantFound());
+    }
+
+    @Test
+    void testReadYourWritesFollowsAsyncCalls() throws Exception {
+        router.setReadYourWrites(Duration.ofMinutes(1));
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CompletableFuture<Void> gate = new CompletableFuture<>();
+        // holds tasks back until the chain below is built, so its stages run on the pool threads
+        Executor gated = task -> pool.execute(() -> {
+            gate.join();
+            task.run();
+        });
+
+        try (RealEstateAsync async = new RealEstateAsync(service, gated, 2, 10)) {
+            CompletableFuture<String> afterWrite = async.makePayment(new MakePaymentDTO(onPrimary.getId(), BigDecimal.TEN))
+                    .thenCompose(payment -> async.searchContractRows(new FilterDTO(null)))
+                    .thenApply(rows -> rows.get(0).getTenantName());
+
+            gate.complete(null);
+
+            assertEquals("Primary Tenant", afterWrite.get(30, TimeUnit.SECONDS));
+            // the window went with the chain and was not left behind on the pool threads
+            assertEquals("Replica Tenant", async.searchContractRows(new FilterDTO(null)).get(30, TimeUnit.SECONDS).get(0).getTenantName());
+
+            // a write made on the calling thread carries into the async read
+            service.makePayment(new MakePaymentDTO(onPrimary.getId(), BigDecimal.TEN));
+            assertEquals("Primary Tenant", async.searchContractRows(new FilterDTO(null)).get(30, TimeUnit.SECONDS).get(0).getTenantName());
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFallsBackToPrimaryWhenReplicaIsDown() throws Exception {
+        // IFEXISTS keeps the pool from quietly creating a fresh empty database once this one is shut down
+        DriverManager.getConnection("jdbc:h2:mem:dead_replica;DB_CLOSE_DELAY=-1", "sa", "").close();
+        SessionFactory dead = SessionRouter.replicaConfiguration(new Configuration().configure("hibernate-test.cfg.xml"),
+                "jdbc:h2:mem:dead_replica;IFEXISTS=TRUE", 1)
+                .setProperty(PooledConnectionProvider.CONNECTION_TIMEOUT, "500")
+                .buildSessionFactory();
+
+        try {
+            router = new SessionRouter(HibernateUtil.getSessionFactory(), List.of(dead));
+            router.setRetryInterval(Duration.ofMinutes(1));
+            HibernateUtil.setRouter(router);
+
+            try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:dead_replica;IFEXISTS=TRUE", "sa", "")) {
+                connection.createStatement().execute("shutdown");
+            }
+
+            // past the pool's validation bypass window, so the dead pooled connections get checked
+            Thread.sleep(600);
+
+            assertEquals("Primary Tenant", tenantFound());
+            assertEquals(0, router.getAvailableReplicas());
+            assertEquals("Primary Tenant", tenantFound());
+            assertEquals(2, router.getPrimaryReads());
+            assertEquals(0, router.getReplicaReads());
+        }
+        finally {
+            dead.close();
+        }
+    }
+
+    private String tenantFound() {
+        List<ContractSearchRowDTO> rows = service.searchContractRows(new FilterDTO(null));
+
+        assertEquals(1, rows.size());
+
+        return rows.get(0).getTenantName();
+    }
+
+    private static SessionFactory replicaFactory(String url, int index) {
+        Configuration configuration = new Configuration().configure("hibernate-test.cfg.xml");
+
+        return SessionRouter.replicaConfiguration(configuration, url, index)
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .buildSessionFactory();
+    }
+
+    private static Contract contract(SessionFactory factory, String tenant) {
+        Contract contract = new Contract(tenant, PropertyType.HOUSE, new BigDecimal(500),
+                LocalDate.now().minusMonths(6), LocalDate.now().plusMonths(6), Status.ACTIVE);
+
+        try (Session session = factory.openSession()) {
+            session.beginTransaction();
+            session.persist(contract);
+            session.getTransaction().commit();
+        }
+
+        return contract;
+    }
+}
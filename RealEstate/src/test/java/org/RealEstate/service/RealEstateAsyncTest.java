@@ -0,0 +1,170 @@
+package org.RealEstate.service;
+
+import org.RealEstate.dto.FilterDTO;
+import org.RealEstate.dto.MakePaymentDTO;
+import org.RealEstate.enums.ExecutionMode;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.Contract;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealEstateAsyncTest {
+    static final int CONTRACTS = 4;
+
+    RealEstate service;
+    List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        service = RealEstate.getInstance();
+        ids = new ArrayList<>();
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+
+            for (int i = 0; i < CONTRACTS; i++) {
+                Contract contract = new Contract("Async " + i, PropertyType.APARTMENT, new BigDecimal(1000),
+                        LocalDate.now().minusYears(1), LocalDate.now().plusYears(1), Status.ACTIVE);
+                session.persist(contract);
+                ids.add(contract.getId());
+            }
+
+            session.getTransaction().commit();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Payment").executeUpdate();
+            session.createQuery("delete from Contract").executeUpdate();
+            session.createQuery("delete from RevenueRollup").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @Test
+    void testPlatformModeHoldsManyRequestsInFlight() {
+        try (RealEstateAsync async = new RealEstateAsync(service, ExecutionMode.PLATFORM)) {
+            postAndCheck(async, 1000);
+        }
+    }
+
+    @Test
+    void testVirtualModeHoldsManyRequestsInFlight() {
+        Assumptions.assumeTrue(RealEstateAsync.virtualThreadsAvailable(), "needs Java 21+");
+
+        try (RealEstateAsync async = new RealEstateAsync(service, ExecutionMode.VIRTUAL)) {
+            postAndCheck(async, 2000);
+        }
+    }
+
+    // runs on any JDK: VIRTUAL mode must build its executor from the factory method and run every request on it
+    @Test
+    void testVirtualModeRunsOnTheFactoryExecutor() {
+        try (RealEstateAsync async = new RealEstateAsync(service, ExecutionMode.VIRTUAL, 1000, StandInExecutors.class)) {
+            postAndCheck(async, 200);
+        }
+
+        assertEquals(200, StandInExecutors.ran.get());
+        assertTrue(StandInExecutors.executor.isShutdown());
+    }
+
+    @Test
+    void testVirtualModeFailsClearlyWithoutVirtualThreads() {
+        Assumptions.assumeFalse(RealEstateAsync.virtualThreadsAvailable());
+
+        assertThrows(UnsupportedOperationException.class, () -> new RealEstateAsync(service, ExecutionMode.VIRTUAL));
+    }
+
+    @Test
+    void testAdmissionRejectsBeyondLimitAndCapsConcurrency() throws Exception {
+        ExecutorService pool = Executors.newCachedThreadPool();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        // blocks inside the service call, so the requests pile up on the connection limit
+        FilterDTO blocking = new FilterDTO(null) {
+            @Override
+            public String getClientName() {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                running.decrementAndGet();
+                return super.getClientName();
+            }
+        };
+
+        try (RealEstateAsync async = new RealEstateAsync(service, pool, 2, 5)) {
+            List<CompletableFuture<?>> accepted = new ArrayList<>();
+
+            for (int i = 0; i < 5; i++) accepted.add(async.searchContractRows(blocking));
+
+            ExecutionException error = assertThrows(ExecutionException.class, () -> async.getUnfinishedContractSummary().get());
+            assertInstanceOf(RejectedExecutionException.class, error.getCause());
+
+            Thread.sleep(200);
+            release.countDown();
+
+            for (CompletableFuture<?> future : accepted) future.get(30, TimeUnit.SECONDS);
+
+            assertEquals(2, peak.get());
+            assertEquals(5, async.getInFlightPermits());
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // stands in for java.util.concurrent.Executors on a JDK without virtual threads
+    public static class StandInExecutors {
+        static final AtomicInteger ran = new AtomicInteger();
+        static ExecutorService executor;
+
+        public static ExecutorService newVirtualThreadPerTaskExecutor() {
+            executor = new ThreadPoolExecutor(8, 8, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>()) {
+                @Override
+                protected void beforeExecute(Thread thread, Runnable task) {
+                    ran.incrementAndGet();
+                }
+            };
+            return executor;
+        }
+    }
+
+    private void postAndCheck(RealEstateAsync async, int payments) {
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < payments; i++) {
+            futures.add(async.makePayment(new MakePaymentDTO(ids.get(i % CONTRACTS), BigDecimal.ONE)));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+        try (Session session = HibernateUtil.getSession()) {
+            for (long id : ids) {
+                Contract stored = session.get(Contract.class, id);
+                assertEquals(0, new BigDecimal(payments / CONTRACTS).compareTo(stored.getPaidTotal()));
+            }
+        }
+    }
+}
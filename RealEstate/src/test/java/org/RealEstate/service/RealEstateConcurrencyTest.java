@@ -0,0 +1,303 @@
+package org.RealEstate.service;
+
+import org.RealEstate.dto.MakePaymentDTO;
+import org.RealEstate.enums.ConcurrencyMode;
+import org.RealEstate.enums.PaymentOutcome;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.enums.Status;
+import org.RealEstate.models.Contract;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealEstateConcurrencyTest {
+    static final int CONTRACTS = 4;
+    static final int PAYMENTS_PER_THREAD = 50;
+
+    RealEstate service;
+    List<Contract> contracts;
+
+    @BeforeEach
+    void setUp() {
+        service = RealEstate.getInstance();
+        contracts = new ArrayList<>();
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+
+            for (int i = 0; i < CONTRACTS; i++) {
+                Contract contract = new Contract(
+                        "Tenant " + i,
+                        PropertyType.APARTMENT,
+                        new BigDecimal(1000),
+                        LocalDate.now().minusYears(1),
+                        LocalDate.now().plusYears(1),
+                        Status.ACTIVE
+                );
+
+                session.persist(contract);
+                contracts.add(contract);
+            }
+
+            session.getTransaction().commit();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.setConcurrencyMode(ConcurrencyMode.STRIPED);
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Payment").executeUpdate();
+            session.createQuery("delete from Contract").executeUpdate();
+            session.createQuery("delete from RevenueRollup").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @Test
+    void testStripedPostingKeepsBalances() throws Exception {
+        service.setConcurrencyMode(ConcurrencyMode.STRIPED);
+
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            runAndCheck(threads);
+        }
+    }
+
+    @Test
+    void testOptimisticPostingKeepsBalances() throws Exception {
+        service.setConcurrencyMode(ConcurrencyMode.OPTIMISTIC);
+
+        runAndCheck(4);
+    }
+
+    @Test
+    void testConcurrentPostingCompletesContractOnce() throws Exception {
+        long contractId = contracts.get(0).getId();
+        BigDecimal total = contracts.get(0).getTotal();
+        BigDecimal amount = total.divide(new BigDecimal(20));
+        AtomicInteger posted = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 40; i++) {
+            futures.add(pool.submit(() -> {
+                try {
+                    service.makePayment(new MakePaymentDTO(contractId, amount));
+                    posted.incrementAndGet();
+                }
+                catch (RuntimeException ignored) {
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) future.get();
+        pool.shutdown();
+
+        Contract stored = load(contractId);
+
+        assertEquals(20, posted.get());
+        assertEquals(Status.COMPLETED, stored.getStatus());
+        assertEquals(0, total.compareTo(stored.getPaidTotal()));
+        assertEquals(0, total.compareTo(sumPayments(contractId)));
+    }
+
+    @Test
+    void testConcurrentFirstPaymentsCreateRollupBucketOnce() throws Exception {
+        List<Long> ids = new ArrayList<>();
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+
+            for (int i = 0; i < 12; i++) {
+                Contract contract = new Contract("First payer " + i, PropertyType.APARTMENT, new BigDecimal(1000),
+                        LocalDate.now().minusYears(1), LocalDate.now().plusYears(1), Status.ACTIVE);
+                session.persist(contract);
+            }
+
+            session.getTransaction().commit();
+            ids.addAll(session.createQuery("select c.id from Contract c", Long.class).getResultList());
+
+            // the payments below have to create the bucket between them
+            session.beginTransaction();
+            session.createMutationQuery("delete from RevenueRollup").executeUpdate();
+            session.getTransaction().commit();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(ids.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (long id : ids) {
+            futures.add(pool.submit(() -> {
+                start.await();
+
+                for (int i = 0; i < 3; i++) service.makePayment(new MakePaymentDTO(id, BigDecimal.ONE));
+
+                return null;
+            }));
+        }
+
+        start.countDown();
+
+        for (Future<?> future : futures) future.get();
+        pool.shutdown();
+
+        try (Session session = HibernateUtil.getSession()) {
+            List<Object[]> buckets = session.createQuery(
+                            "select r.contractCount, r.collectedRevenue from RevenueRollup r where r.month = :month and r.propertyType = :type and r.status = :status",
+                            Object[].class)
+                    .setParameter("month", RevenueRollups.monthOf(LocalDate.now().minusYears(1)))
+                    .setParameter("type", PropertyType.APARTMENT)
+                    .setParameter("status", Status.ACTIVE)
+                    .getResultList();
+
+            assertEquals(1, buckets.size());
+            assertEquals(0L, buckets.get(0)[0]);
+            assertEquals(0, new BigDecimal(ids.size() * 3).compareTo((BigDecimal) buckets.get(0)[1]));
+        }
+    }
+
+    @Test
+    void testLargeBatchPostsAlongsideSinglePayments() throws Exception {
+        List<Long> ids = new ArrayList<>();
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+
+            // several lock groups' worth of contracts
+            for (int i = 0; i < 100; i++) {
+                Contract contract = new Contract("Batch payer " + i, PropertyType.APARTMENT, new BigDecimal(1000),
+                        LocalDate.now().minusYears(1), LocalDate.now().plusYears(1), Status.ACTIVE);
+                session.persist(contract);
+                ids.add(contract.getId());
+            }
+
+            session.getTransaction().commit();
+        }
+
+        List<MakePaymentDTO> batch = new ArrayList<>();
+
+        for (long id : ids) {
+            batch.add(new MakePaymentDTO(id, BigDecimal.ONE));
+            batch.add(new MakePaymentDTO(id, BigDecimal.ONE));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        futures.add(pool.submit(() -> {
+            start.await();
+            service.makePayments(batch).forEach(result -> assertEquals(PaymentOutcome.POSTED, result.getOutcome(), result.getMessage()));
+            return null;
+        }));
+
+        for (int t = 0; t < 3; t++) {
+            int offset = t;
+
+            futures.add(pool.submit(() -> {
+                start.await();
+
+                for (int i = offset; i < ids.size(); i += 3) service.makePayment(new MakePaymentDTO(ids.get(i), BigDecimal.ONE));
+
+                return null;
+            }));
+        }
+
+        start.countDown();
+
+        for (Future<?> future : futures) future.get();
+        pool.shutdown();
+
+        for (long id : ids) {
+            Contract stored = load(id);
+
+            assertEquals(0, new BigDecimal(3).compareTo(stored.getPaidTotal()));
+            assertEquals(0, sumPayments(id).compareTo(stored.getPaidTotal()));
+        }
+    }
+
+    private void runAndCheck(int threads) throws Exception {
+        BigDecimal[] before = new BigDecimal[CONTRACTS];
+
+        for (int i = 0; i < CONTRACTS; i++) before[i] = load(contracts.get(i).getId()).getPaidTotal();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+
+            futures.add(pool.submit(() -> {
+                start.await();
+                int done = 0;
+
+                for (int i = 0; i < PAYMENTS_PER_THREAD; i++) {
+                    long id = contracts.get((offset + i) % CONTRACTS).getId();
+
+                    service.makePayment(new MakePaymentDTO(id, BigDecimal.ONE));
+                    done++;
+                }
+
+                return done;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+
+        int total = 0;
+        for (Future<Integer> future : futures) total += future.get();
+
+        long elapsed = System.nanoTime() - began;
+        pool.shutdown();
+
+        System.out.printf("%s threads=%d payments=%d throughput=%.0f/s%n",
+                service.getConcurrencyMode(), threads, total, total / (elapsed / 1e9));
+
+        assertEquals(threads * PAYMENTS_PER_THREAD, total);
+
+        BigDecimal posted = BigDecimal.ZERO;
+
+        for (int i = 0; i < CONTRACTS; i++) {
+            Contract stored = load(contracts.get(i).getId());
+
+            assertEquals(0, sumPayments(stored.getId()).compareTo(stored.getPaidTotal()));
+            assertEquals(0, stored.getTotal().subtract(stored.getPaidTotal()).compareTo(stored.getOutstanding()));
+            assertEquals(Status.ACTIVE, stored.getStatus());
+
+            posted = posted.add(stored.getPaidTotal().subtract(before[i]));
+        }
+
+        assertEquals(0, posted.compareTo(new BigDecimal(total)));
+    }
+
+    private Contract load(long id) {
+        try (Session session = HibernateUtil.getSession()) {
+            return session.get(Contract.class, id);
+        }
+    }
+
+    private BigDecimal sumPayments(long contractId) {
+        try (Session session = HibernateUtil.getSession()) {
+            BigDecimal sum = session.createQuery("select sum(p.amount) from Payment p where p.contract.id = :id", BigDecimal.class)
+                    .setParameter("id", contractId)
+                    .getSingleResult();
+
+            return sum == null ? BigDecimal.ZERO : sum;
+        }
+    }
+}
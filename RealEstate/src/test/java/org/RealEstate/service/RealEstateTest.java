@@ -1,16 +1,24 @@
 package org.RealEstate.service;
 
 import org.RealEstate.dto.*;
+import org.RealEstate.enums.BalanceSort;
+import org.RealEstate.enums.PaymentOutcome;
 import org.RealEstate.enums.PropertyType;
 import org.RealEstate.enums.Status;
 import org.RealEstate.models.Contract;
 import org.RealEstate.models.Payment;
+import org.RealEstate.search.TenantNameIndex;
 import org.RealEstate.utils.HibernateUtil;
 import org.hibernate.Session;
 import org.junit.jupiter.api.*;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
 import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -69,6 +77,9 @@ class RealEstateTest {
                 new BigDecimal("10")
         );
 
+        contractActive.setPaidTotal(p1.getAmount());
+        contractOverdue.setPaidTotal(p2.getAmount());
+
         session.beginTransaction();
         session.persist(contractCompleted);
         session.persist(contractActive);
@@ -80,13 +91,19 @@ class RealEstateTest {
 
     @AfterEach
     void tearDown() {
+        TenantNameIndex.forFactory(HibernateUtil.getSessionFactory()).setSingleWriter(false);
+
         if (session != null && session.isOpen()) {
             session.beginTransaction();
             session.createQuery("delete from Payment").executeUpdate();
             session.createQuery("delete from Contract").executeUpdate();
+            session.createQuery("delete from RevenueRollup").executeUpdate();
             session.getTransaction().commit();
             session.close();
         }
+
+        // the bulk deletes above bypass FinishedSummaryListener
+        FinishedSummaryCache.clear(HibernateUtil.getSessionFactory());
     }
 
     @Test
@@ -133,6 +150,67 @@ class RealEstateTest {
         assertEquals(Status.OVERDUE, res.getContract().getStatus());
     }
 
+    @Test
+    void testMakePaymentPersistsBalanceAndStatus() {
+        service.makePayment(new MakePaymentDTO(
+                contractActive.getId(),
+                new BigDecimal(100)
+        ));
+        service.makePayment(new MakePaymentDTO(
+                contractActive.getId(),
+                new BigDecimal(20000)
+        ));
+
+        try (Session check = HibernateUtil.getSession()) {
+            Contract stored = check.get(Contract.class, contractActive.getId());
+
+            assertEquals(0, stored.getPaidTotal().compareTo(new BigDecimal(20110)));
+            assertEquals(0, stored.getOutstanding().compareTo(stored.getTotal().subtract(new BigDecimal(20110))));
+            assertEquals(Status.COMPLETED, stored.getStatus());
+        }
+    }
+
+    @Test
+    void testMakePayments() {
+        List<PaymentResultDTO> res = service.makePayments(List.of(
+                new MakePaymentDTO(contractActive.getId(), new BigDecimal(100)),
+                new MakePaymentDTO(10000L, new BigDecimal(100)),
+                new MakePaymentDTO(contractCompleted.getId(), new BigDecimal(100)),
+                new MakePaymentDTO(contractActive.getId(), new BigDecimal(200))
+        ));
+
+        assertEquals(4, res.size());
+        assertEquals(PaymentOutcome.POSTED, res.get(0).getOutcome());
+        assertEquals(PaymentOutcome.UNKNOWN_CONTRACT, res.get(1).getOutcome());
+        assertEquals(PaymentOutcome.REJECTED, res.get(2).getOutcome());
+        assertEquals(PaymentOutcome.POSTED, res.get(3).getOutcome());
+
+        try (Session check = HibernateUtil.getSession()) {
+            Contract stored = check.get(Contract.class, contractActive.getId());
+
+            assertEquals(0, stored.getPaidTotal().compareTo(new BigDecimal(310)));
+        }
+    }
+
+    @Test
+    void testLoadPaymentStatement() throws IOException {
+        String statement = "contract_id,amount\n"
+                + contractActive.getId() + ",50\n"
+                + "not,a,payment\n"
+                + "\n"
+                + "10000,50\n"
+                + contractOverdue.getId() + ",25.50\n";
+
+        List<PaymentResultDTO> results = new ArrayList<>();
+        StatementSummaryDTO summary = new PaymentStatementLoader(service, 2).load(new StringReader(statement), results::add);
+
+        assertEquals(6, summary.getLines());
+        assertEquals(2, summary.getPosted());
+        assertEquals(1, summary.getRejected());
+        assertEquals(1, summary.getUnknownContract());
+        assertEquals(PaymentOutcome.REJECTED, results.stream().filter(r -> r.getLine() == 3).findFirst().get().getOutcome());
+    }
+
     @Test
     void testSearchContractsWithAllFilters() {
         FilterDTO filterDTO = new FilterDTO("M");
@@ -166,6 +244,114 @@ class RealEstateTest {
         assertEquals(contractOverdue.getId(), res.get(2).getId());
     }
 
+    @Test
+    void testSearchContractsByNameFragment() {
+        assertEquals(3, service.searchContractsWithFilters(new FilterDTO("ate")).size());
+        assertEquals(0, service.searchContractsWithFilters(new FilterDTO("xyz")).size());
+        assertEquals(3, service.searchContractsWithFilters(new FilterDTO("")).size());
+        assertEquals(3, service.searchContractsWithFilters(new FilterDTO(null)).size());
+    }
+
+    @Test
+    void testSearchContractsAfterRename() {
+        session.beginTransaction();
+        contractActive.setTenantName("Lorenzo");
+        session.getTransaction().commit();
+
+        List<Contract> res = service.searchContractsWithFilters(new FilterDTO("renz"));
+
+        assertEquals(1, res.size());
+        assertEquals(contractActive.getId(), res.get(0).getId());
+        assertEquals(2, service.searchContractsWithFilters(new FilterDTO("Mateo")).size());
+    }
+
+    @Test
+    void testSearchContractsByNameFindsRowsTheIndexMissed() throws InterruptedException {
+        TenantNameIndex index = warmNameIndex();
+
+        session.beginTransaction();
+        session.persist(new Contract("Ximena Obradovic", PropertyType.OFFICE, new BigDecimal(300),
+                LocalDate.now().minusMonths(1), LocalDate.now().plusYears(1), Status.ACTIVE));
+        session.getTransaction().commit();
+
+        assertEquals(1, index.candidates("Obradovic", 1000).length);
+
+        // a bulk insert the index never hears about
+        session.beginTransaction();
+        session.createMutationQuery(
+                        "insert into Contract (tenantName, propertyType, monthlyRent, startDate, endDate, status, total, paidTotal, outstanding, version) " +
+                                "select 'Quill_Wren', c.propertyType, c.monthlyRent, c.startDate, c.endDate, c.status, c.total, c.paidTotal, c.outstanding, 0 " +
+                                "from Contract c where c.id = :id")
+                .setParameter("id", contractActive.getId())
+                .executeUpdate();
+        session.getTransaction().commit();
+
+        assertEquals(1, service.searchContractsWithFilters(new FilterDTO("Quill")).size());
+        assertEquals(1, service.searchContractsWithFilters(new FilterDTO("ll_W")).size());
+    }
+
+    @Test
+    void testSearchContractsByNameFindsRowInsertedThroughJdbc() throws InterruptedException {
+        TenantNameIndex index = TenantNameIndex.forFactory(HibernateUtil.getSessionFactory());
+
+        // by default the index never narrows a search
+        assertNull(index.candidates("Mateo", 1000));
+
+        warmNameIndex();
+        assertEquals(3, index.candidates("Mateo", 1000).length);
+
+        // another writer: the index knows every trigram of the name, but not this row
+        session.doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "insert into rental_contract (tenant_name, property_type, monthly_rent, start_date, end_date, status, total, paid_total, outstanding, version) " +
+                            "values ('Mateo', 'HOUSE', 500, ?, ?, 'ACTIVE', 0, 0, 0, 0)")) {
+                ps.setObject(1, LocalDate.now().minusYears(2));
+                ps.setObject(2, LocalDate.now().plusYears(1));
+                ps.executeUpdate();
+            }
+        });
+
+        assertEquals(3, index.candidates("Mateo", 1000).length);
+        assertEquals(4, service.searchContractsWithFilters(new FilterDTO("Mateo")).size());
+    }
+
+    @Test
+    void testSearchContractsByNameMatchesWildcardsLiterally() {
+        assertEquals(0, service.searchContractsWithFilters(new FilterDTO("M_teo")).size());
+        assertEquals(0, service.searchContractsWithFilters(new FilterDTO("%teo")).size());
+        assertEquals(3, service.searchContractsWithFilters(new FilterDTO("teo")).size());
+    }
+
+    @Test
+    void testSearchContractsPage() {
+        FilterDTO filterDTO = new FilterDTO("Mateo");
+
+        ContractPageDTO first = service.searchContractsPage(filterDTO, null, 2);
+
+        assertEquals(2, first.getContracts().size());
+        assertTrue(first.hasNext());
+        assertEquals(contractCompleted.getId(), first.getContracts().get(0).getId());
+        assertEquals(contractActive.getId(), first.getContracts().get(1).getId());
+
+        ContractPageDTO second = service.searchContractsPage(filterDTO, first.getNext(), 2);
+
+        assertEquals(1, second.getContracts().size());
+        assertFalse(second.hasNext());
+        assertEquals(contractOverdue.getId(), second.getContracts().get(0).getId());
+    }
+
+    @Test
+    void testStreamContractsWithFilters() {
+        FilterDTO filterDTO = new FilterDTO("M");
+        filterDTO.setPropertyType(PropertyType.HOUSE);
+
+        List<Long> ids = new ArrayList<>();
+        long count = service.streamContractsWithFilters(filterDTO, contract -> ids.add(contract.getId()));
+
+        assertEquals(3, count);
+        assertEquals(List.of(contractCompleted.getId(), contractActive.getId(), contractOverdue.getId()), ids);
+    }
+
     @Test
     void testGetFinishedContractSummary() {
         List<FinishedContractSummaryDTO> res = service.getFinishedContractSummary(new DateRangeDTO(
@@ -180,6 +366,59 @@ class RealEstateTest {
         assertEquals(1, res.get(0).getQuantity());
     }
 
+    @Test
+    void testGetFinishedContractSummaryGroupsByPropertyType() {
+        session.beginTransaction();
+        session.persist(new Contract("Ana", PropertyType.HOUSE, new BigDecimal(300), LocalDate.now().minusYears(1), LocalDate.now(), Status.COMPLETED));
+        session.persist(new Contract("Luis", PropertyType.OFFICE, new BigDecimal(1000), LocalDate.now().minusMonths(6), LocalDate.now(), Status.COMPLETED));
+        session.getTransaction().commit();
+
+        List<FinishedContractSummaryDTO> res = service.getFinishedContractSummary(new DateRangeDTO(
+                LocalDate.now().minusYears(3),
+                LocalDate.now().plusYears(3)
+        ));
+
+        assertEquals(2, res.size());
+        assertEquals(PropertyType.HOUSE, res.get(0).getPropertyType());
+        assertEquals(2, res.get(0).getQuantity());
+        assertEquals(0, contractCompleted.getTotal().add(new BigDecimal(3600)).compareTo(res.get(0).getTotal()));
+        assertEquals(PropertyType.OFFICE, res.get(1).getPropertyType());
+        assertEquals(1, res.get(1).getQuantity());
+        assertEquals(0, new BigDecimal(6000).compareTo(res.get(1).getTotal()));
+    }
+
+    @Test
+    void testRevenueRollupTracksContractChanges() {
+        LocalDate from = LocalDate.now().minusYears(3).withDayOfMonth(1);
+        LocalDate to = LocalDate.now().plusYears(3).with(TemporalAdjusters.lastDayOfMonth());
+        DateRangeDTO range = new DateRangeDTO(from, to);
+
+        service.makePayment(new MakePaymentDTO(contractActive.getId(), new BigDecimal(20000)));
+
+        List<FinishedContractSummaryDTO> fromRollup = service.getFinishedContractSummary(range);
+
+        assertEquals(1, fromRollup.size());
+        assertEquals(2, fromRollup.get(0).getQuantity());
+        assertEquals(0, contractCompleted.getTotal().add(contractActive.getTotal()).compareTo(fromRollup.get(0).getTotal()));
+
+        List<RevenueRollupDTO> incremental = service.getMonthlyRevenue(range);
+        List<RevenueRollupDTO> live = service.getMonthlyRevenue(new DateRangeDTO(from.plusDays(1), to));
+
+        service.rebuildRevenueRollup();
+        List<RevenueRollupDTO> rebuilt = service.getMonthlyRevenue(range);
+
+        for (List<RevenueRollupDTO> other : List.of(live, rebuilt)) {
+            assertEquals(incremental.size(), other.size());
+
+            for (int i = 0; i < incremental.size(); i++) {
+                assertEquals(incremental.get(i).getStatus(), other.get(i).getStatus());
+                assertEquals(incremental.get(i).getContractCount(), other.get(i).getContractCount());
+                assertEquals(0, incremental.get(i).getExpectedRevenue().compareTo(other.get(i).getExpectedRevenue()));
+                assertEquals(0, incremental.get(i).getCollectedRevenue().compareTo(other.get(i).getCollectedRevenue()));
+            }
+        }
+    }
+
     @Test
     void testUnfinishedContractSummary() {
         List<UnfinishedContractSummaryDTO> res = service.getUnfinishedContractSummary();
@@ -193,4 +432,205 @@ class RealEstateTest {
         assertEquals(0, contractOverdue.getTotal().compareTo(res.get(1).getExpected()));
         assertEquals(0, res.get(1).getActual().compareTo(new BigDecimal(10)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUnfinishedContractSummaryIncludesUnpaidAndFilters() {
+        Contract unpaid = new Contract(
+                "Ana",
+                PropertyType.OFFICE,
+                new BigDecimal(800),
+                LocalDate.now().minusMonths(3),
+                LocalDate.now().plusMonths(9),
+                Status.ACTIVE
+        );
+
+        session.beginTransaction();
+        session.persist(unpaid);
+        session.getTransaction().commit();
+
+        List<UnfinishedContractSummaryDTO> all = service.getUnfinishedContractSummary();
+
+        assertEquals(3, all.size());
+        assertEquals(unpaid.getId(), all.get(2).getContractId());
+        assertEquals(0, all.get(2).getActual().signum());
+
+        UnfinishedSummaryFilterDTO offices = new UnfinishedSummaryFilterDTO();
+        offices.setPropertyType(PropertyType.OFFICE);
+        assertEquals(List.of(unpaid.getId()), service.getUnfinishedContractSummary(offices).stream().map(UnfinishedContractSummaryDTO::getContractId).toList());
+
+        UnfinishedSummaryFilterDTO overdue = new UnfinishedSummaryFilterDTO();
+        overdue.setOverdueOnly(true);
+        assertEquals(List.of(contractOverdue.getId()), service.getUnfinishedContractSummary(overdue).stream().map(UnfinishedContractSummaryDTO::getContractId).toList());
+
+        UnfinishedSummaryFilterDTO page = new UnfinishedSummaryFilterDTO();
+        page.setPageSize(2);
+        List<UnfinishedContractSummaryDTO> first = service.getUnfinishedContractSummary(page);
+        page.setAfterId(first.get(1).getContractId());
+        List<UnfinishedContractSummaryDTO> second = service.getUnfinishedContractSummary(page);
+
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertEquals(unpaid.getId(), second.get(0).getContractId());
+    }
+
+    @Test
+    void testSummaryCacheInvalidatedByPayment() {
+        DateRangeDTO range = new DateRangeDTO(LocalDate.now().minusYears(3), LocalDate.now().plusYears(3));
+
+        assertEquals(1, service.getFinishedContractSummary(range).get(0).getQuantity());
+        long hitsBefore = summaryHits();
+        assertEquals(1, service.getFinishedContractSummary(range).get(0).getQuantity());
+        assertTrue(summaryHits() > hitsBefore);
+
+        service.makePayment(new MakePaymentDTO(contractActive.getId(), new BigDecimal(20000)));
+
+        assertEquals(2, service.getFinishedContractSummary(range).get(0).getQuantity());
+        assertTrue(service.getCacheStats().stream().anyMatch(stats -> stats.getRegion().equals(Contract.class.getName())));
+    }
+
+    @Test
+    void testSummaryCacheKeepsRangesAPaymentCannotChange() {
+        DateRangeDTO covering = new DateRangeDTO(LocalDate.now().minusYears(3), LocalDate.now().plusYears(3));
+        LocalDate month = LocalDate.now().minusYears(2).withDayOfMonth(1);
+        DateRangeDTO aligned = new DateRangeDTO(month, month.with(TemporalAdjusters.lastDayOfMonth()));
+        DateRangeDTO later = new DateRangeDTO(LocalDate.now().minusYears(1), LocalDate.now());
+
+        service.getFinishedContractSummary(covering);
+        service.getFinishedContractSummary(aligned);
+        service.getFinishedContractSummary(later);
+
+        // leaves the contract open, so no finished summary can change
+        service.makePayment(new MakePaymentDTO(contractOverdue.getId(), BigDecimal.ONE));
+
+        long hitsBefore = summaryHits();
+        assertEquals(1, service.getFinishedContractSummary(covering).get(0).getQuantity());
+        assertEquals(1, service.getFinishedContractSummary(aligned).get(0).getQuantity());
+        assertTrue(service.getFinishedContractSummary(later).isEmpty());
+        assertEquals(3, summaryHits() - hitsBefore);
+
+        // completes a contract that started two years ago: only the ranges holding that date are evicted
+        service.makePayment(new MakePaymentDTO(contractActive.getId(), new BigDecimal(20000)));
+
+        hitsBefore = summaryHits();
+        assertEquals(2, service.getFinishedContractSummary(covering).get(0).getQuantity());
+        assertEquals(2, service.getFinishedContractSummary(aligned).get(0).getQuantity());
+        assertTrue(service.getFinishedContractSummary(later).isEmpty());
+        assertEquals(1, summaryHits() - hitsBefore);
+    }
+
+    @Test
+    void testTenantStatement() {
+        List<TenantStatementLineDTO> lines = service.getTenantStatement("Mateo");
+
+        assertEquals(3, lines.size());
+        assertEquals(contractCompleted.getId(), lines.get(0).getContractId());
+        assertNull(lines.get(0).getPaymentId());
+        assertEquals(p1.getId(), lines.get(1).getPaymentId());
+        assertEquals(0, new BigDecimal(10).compareTo(lines.get(2).getAmount()));
+        assertEquals(0, lines.get(2).getTotal().subtract(lines.get(2).getPaidTotal()).compareTo(lines.get(2).getOutstanding()));
+    }
+
+    @Test
+    void testTenantStatementByIdsUsesOneQuery() {
+        service.makePayment(new MakePaymentDTO(contractActive.getId(), new BigDecimal(5)));
+        long prepared = HibernateUtil.getSessionFactory().getStatistics().getPrepareStatementCount();
+
+        List<TenantStatementLineDTO> lines = service.getTenantStatement(List.of(contractOverdue.getId(), contractActive.getId()));
+
+        assertEquals(1, HibernateUtil.getSessionFactory().getStatistics().getPrepareStatementCount() - prepared);
+        assertEquals(3, lines.size());
+        assertEquals(contractActive.getId(), lines.get(0).getContractId());
+        assertEquals(contractActive.getId(), lines.get(1).getContractId());
+        assertEquals(contractOverdue.getId(), lines.get(2).getContractId());
+    }
+
+    @Test
+    void testContractPaymentsMappedByContract() {
+        try (Session other = HibernateUtil.getSession()) {
+            List<Payment> payments = other.get(Contract.class, contractActive.getId()).getPayments();
+
+            assertEquals(1, payments.size());
+            assertEquals(p1.getId(), payments.get(0).getId());
+        }
+    }
+
+    @Test
+    void testSearchContractBalances() {
+        BalanceFilterDTO filter = new BalanceFilterDTO();
+        filter.setMinOutstanding(BigDecimal.ONE);
+
+        ContractBalancePageDTO first = service.searchContractBalances(filter, null, 2);
+        ContractBalancePageDTO second = service.searchContractBalances(filter, first.getNext(), 2);
+
+        // active: 36 x 500 - 10, completed fixture: 24 x 700 unpaid, overdue: 12 x 500 - 10
+        assertEquals(List.of(contractActive.getId(), contractCompleted.getId()), first.getRows().stream().map(ContractBalanceDTO::getId).toList());
+        assertEquals(contractOverdue.getId(), second.getRows().get(0).getId());
+        assertFalse(second.hasNext());
+
+        filter.setSortBy(BalanceSort.PAID_TOTAL);
+        filter.setDescending(false);
+        filter.setMinOutstanding(null);
+        filter.setMaxTotal(new BigDecimal(6000));
+
+        List<ContractBalanceDTO> rows = service.searchContractBalances(filter, null, 10).getRows();
+
+        assertEquals(List.of(contractOverdue.getId()), rows.stream().map(ContractBalanceDTO::getId).toList());
+        assertEquals(0, new BigDecimal(5990).compareTo(rows.get(0).getOutstanding()));
+    }
+
+    @Test
+    void testSearchContractBalancesBreaksTiesInSortDirection() {
+        List<Long> ids = new ArrayList<>();
+
+        session.beginTransaction();
+
+        for (int i = 0; i < 3; i++) {
+            Contract contract = new Contract("Tied " + i, PropertyType.APARTMENT, new BigDecimal(100),
+                    LocalDate.now().minusMonths(6), LocalDate.now().plusMonths(6), Status.ACTIVE);
+            session.persist(contract);
+            ids.add(contract.getId());
+        }
+
+        session.getTransaction().commit();
+
+        BalanceFilterDTO filter = new BalanceFilterDTO();
+        filter.setPropertyType(PropertyType.APARTMENT);
+
+        List<Long> descending = new ArrayList<>();
+        BalanceCursorDTO cursor = null;
+
+        do {
+            ContractBalancePageDTO page = service.searchContractBalances(filter, cursor, 1);
+            page.getRows().forEach(row -> descending.add(row.getId()));
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        assertEquals(List.of(ids.get(2), ids.get(1), ids.get(0)), descending);
+
+        filter.setDescending(false);
+        ContractBalancePageDTO first = service.searchContractBalances(filter, null, 2);
+
+        assertEquals(ids.subList(0, 2), first.getRows().stream().map(ContractBalanceDTO::getId).toList());
+        assertEquals(List.of(ids.get(2)), service.searchContractBalances(filter, first.getNext(), 2).getRows().stream().map(ContractBalanceDTO::getId).toList());
+    }
+
+    private long summaryHits() {
+        return service.getCacheStats().stream()
+                .filter(stats -> stats.getRegion().equals(FinishedSummaryCache.REGION))
+                .mapToLong(CacheStatsDTO::getHits)
+                .sum();
+    }
+
+    // single-writer mode on, rebuilt from what the database holds now
+    private TenantNameIndex warmNameIndex() throws InterruptedException {
+        TenantNameIndex index = TenantNameIndex.forFactory(HibernateUtil.getSessionFactory());
+        index.setSingleWriter(true);
+        index.invalidate();
+
+        // a cold index answers null and rebuilds in the background
+        for (int i = 0; i < 500 && index.candidates("Mateo", 1000) == null; i++) Thread.sleep(10);
+
+        return index;
+    }
+
+}
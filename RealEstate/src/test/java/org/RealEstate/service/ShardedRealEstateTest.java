@@ -0,0 +1,247 @@
+package org.RealEstate.service;
+
+import org.RealEstate.dataset.BulkLoader;
+import org.RealEstate.dataset.PortfolioProfile;
+import org.RealEstate.dto.*;
+import org.RealEstate.enums.BalanceSort;
+import org.RealEstate.enums.PaymentOutcome;
+import org.RealEstate.enums.PropertyType;
+import org.RealEstate.models.Contract;
+import org.RealEstate.utils.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The same generated portfolio is loaded whole into the test database and split over three shard
+// databases; every report must come back identical from both.
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ShardedRealEstateTest {
+    static final int SHARDS = 3;
+    static final LocalDate AS_OF = LocalDate.of(2025, 6, 15);
+
+    List<SessionFactory> factories = new ArrayList<>();
+    ShardedRealEstate sharded;
+    RealEstate single;
+
+    @BeforeAll
+    void loadShards() {
+        PortfolioProfile profile = new PortfolioProfile();
+        profile.setSeed(11);
+        profile.setContracts(1500);
+        profile.setAsOf(AS_OF);
+        profile.setOverdueRatio(0.3);
+
+        long loaded = 0;
+
+        for (int i = 0; i < SHARDS; i++) {
+            Configuration configuration = new Configuration().configure("hibernate-test.cfg.xml");
+            SessionFactory factory = ShardedRealEstate.shardConfiguration(configuration, "jdbc:h2:mem:shard" + i + ";DB_CLOSE_DELAY=-1", i, SHARDS)
+                    .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                    .buildSessionFactory();
+
+            factories.add(factory);
+            ShardedRealEstate.alignPaymentIds(factory, i, SHARDS);
+            loaded += new BulkLoader(factory, i, SHARDS).load(profile, 1).getContracts();
+        }
+
+        assertEquals(profile.getContracts(), loaded);
+
+        new BulkLoader(HibernateUtil.getSessionFactory()).load(profile, 1);
+
+        sharded = new ShardedRealEstate(factories);
+        single = RealEstate.getInstance();
+    }
+
+    @AfterAll
+    void dropShards() {
+        sharded.close();
+        factories.forEach(SessionFactory::close);
+
+        try (Session session = HibernateUtil.getSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Payment").executeUpdate();
+            session.createQuery("delete from Contract").executeUpdate();
+            session.createQuery("delete from RevenueRollup").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @Test
+    void testContractsArePlacedByIdModulo() {
+        for (int i = 0; i < SHARDS; i++) {
+            try (Session session = factories.get(i).openSession()) {
+                List<Long> ids = session.createQuery("select c.id from Contract c", Long.class).getResultList();
+                long strays = session.createQuery("select count(p) from Payment p where p.contract.id not in (select c.id from Contract c)", Long.class)
+                        .getSingleResult();
+
+                assertFalse(ids.isEmpty());
+                int shard = i;
+                assertTrue(ids.stream().allMatch(id -> ShardedRealEstate.shardOf(id, SHARDS) == shard));
+                assertEquals(0, strays);
+            }
+        }
+    }
+
+    @Test
+    void testSearchMatchesSingleDatabase() {
+        FilterDTO filter = new FilterDTO(null);
+        filter.setPropertyType(PropertyType.APARTMENT);
+        filter.setFromDate(AS_OF.minusYears(2));
+
+        assertEquals(keys(single.searchContractRows(filter), this::rowKey), keys(sharded.searchContractRows(filter), this::rowKey));
+
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+        ContractCursorDTO cursor = null;
+
+        do {
+            ContractRowPageDTO page = single.searchContractRowsPage(filter, cursor, 40);
+            expected.addAll(keys(page.getRows(), this::rowKey));
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        do {
+            ContractRowPageDTO page = sharded.searchContractRowsPage(filter, cursor, 40);
+            actual.addAll(keys(page.getRows(), this::rowKey));
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testBalancePagesMatchSingleDatabase() {
+        BalanceFilterDTO filter = new BalanceFilterDTO();
+        filter.setSortBy(BalanceSort.OUTSTANDING);
+        filter.setMinOutstanding(BigDecimal.ONE);
+
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+        BalanceCursorDTO cursor = null;
+
+        do {
+            ContractBalancePageDTO page = single.searchContractBalances(filter, cursor, 50);
+            expected.addAll(keys(page.getRows(), row -> row.getId() + ":" + row.getOutstanding().stripTrailingZeros()));
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        do {
+            ContractBalancePageDTO page = sharded.searchContractBalances(filter, cursor, 50);
+            actual.addAll(keys(page.getRows(), row -> row.getId() + ":" + row.getOutstanding().stripTrailingZeros()));
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testSummariesMatchSingleDatabase() {
+        // unaligned range aggregates from the contracts, the aligned one reads the rollup
+        for (DateRangeDTO range : List.of(
+                new DateRangeDTO(AS_OF.minusYears(3).plusDays(9), AS_OF.minusDays(20)),
+                new DateRangeDTO(LocalDate.of(2023, 1, 1), LocalDate.of(2024, 12, 31)))) {
+            assertEquals(keys(single.getFinishedContractSummary(range), this::summaryKey),
+                    keys(sharded.getFinishedContractSummary(range), this::summaryKey));
+            assertEquals(keys(single.getMonthlyRevenue(range), this::revenueKey),
+                    keys(sharded.getMonthlyRevenue(range), this::revenueKey));
+        }
+
+        UnfinishedSummaryFilterDTO filter = new UnfinishedSummaryFilterDTO();
+        filter.setPageSize(75);
+        filter.setAfterId(200L);
+
+        Function<UnfinishedContractSummaryDTO, String> key = row -> row.getContractId() + ":" + row.getActual().stripTrailingZeros();
+
+        assertEquals(keys(single.getUnfinishedContractSummary(filter), key), keys(sharded.getUnfinishedContractSummary(filter), key));
+    }
+
+    @Test
+    void testPaymentsGoToOwningShard() {
+        long contractId = 301;
+        RealEstate owner = sharded.shardFor(contractId);
+        SessionFactory ownerFactory = factories.get(ShardedRealEstate.shardOf(contractId, SHARDS));
+
+        BigDecimal before = paidTotal(ownerFactory, contractId);
+        List<PaymentResultDTO> results = sharded.makePayments(List.of(
+                new MakePaymentDTO(contractId, BigDecimal.ONE),
+                new MakePaymentDTO(contractId + 1, BigDecimal.ONE),
+                new MakePaymentDTO(contractId + 2, BigDecimal.ONE)
+        ));
+
+        assertSame(owner, sharded.shardFor(contractId + SHARDS));
+        assertEquals(3, results.size());
+
+        for (int i = 0; i < results.size(); i++) assertEquals(i + 1, results.get(i).getLine());
+
+        if (results.get(0).getOutcome() == PaymentOutcome.POSTED) assertEquals(0, before.add(BigDecimal.ONE).compareTo(paidTotal(ownerFactory, contractId)));
+
+        for (int i = 0; i < SHARDS; i++) {
+            if (factories.get(i) != ownerFactory) assertNull(load(factories.get(i), contractId));
+        }
+    }
+
+    @Test
+    void testPaymentIdsAreUniqueAcrossShards() {
+        List<MakePaymentDTO> payments = new ArrayList<>();
+
+        for (long contractId = 401; contractId < 401 + SHARDS * 4; contractId++) payments.add(new MakePaymentDTO(contractId, BigDecimal.ONE));
+
+        // posted to both sides so the comparison tests still see the same portfolio
+        single.makePayments(payments);
+        sharded.makePayments(payments);
+
+        Set<Long> seen = new HashSet<>();
+
+        for (int i = 0; i < SHARDS; i++) {
+            try (Session session = factories.get(i).openSession()) {
+                List<Long> ids = session.createQuery("select p.id from Payment p", Long.class).getResultList();
+
+                assertFalse(ids.isEmpty());
+                int shard = i;
+                assertTrue(ids.stream().allMatch(id -> ShardedRealEstate.shardOf(id, SHARDS) == shard));
+
+                for (long id : ids) assertTrue(seen.add(id), "payment id " + id + " used on two shards");
+            }
+        }
+    }
+
+    private BigDecimal paidTotal(SessionFactory factory, long contractId) {
+        return load(factory, contractId).getPaidTotal();
+    }
+
+    private Contract load(SessionFactory factory, long contractId) {
+        try (Session session = factory.openSession()) {
+            return session.get(Contract.class, contractId);
+        }
+    }
+
+    private <T> List<String> keys(List<T> rows, Function<T, String> key) {
+        return rows.stream().map(key).toList();
+    }
+
+    private String rowKey(ContractSearchRowDTO row) {
+        return row.getId() + ":" + row.getStartDate() + ":" + row.getTotal().stripTrailingZeros();
+    }
+
+    private String summaryKey(FinishedContractSummaryDTO row) {
+        return row.getPropertyType() + ":" + row.getQuantity() + ":" + (row.getTotal() == null ? "0" : row.getTotal().stripTrailingZeros().toPlainString());
+    }
+
+    private String revenueKey(RevenueRollupDTO row) {
+        return row.getMonth() + ":" + row.getPropertyType() + ":" + row.getStatus() + ":" + row.getContractCount() + ":"
+                + row.getExpectedRevenue().stripTrailingZeros() + ":" + row.getCollectedRevenue().stripTrailingZeros();
+    }
+}
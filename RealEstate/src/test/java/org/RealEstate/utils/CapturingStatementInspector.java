@@ -0,0 +1,33 @@
+package org.RealEstate.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Records the SQL Hibernate prepares while capture is on; used by the query plan harness
+public class CapturingStatementInspector implements StatementInspector {
+    private static final List<String> captured = new ArrayList<>();
+    private static volatile boolean capturing;
+
+    public static synchronized void start() {
+        captured.clear();
+        capturing = true;
+    }
+
+    public static synchronized List<String> stop() {
+        capturing = false;
+        return new ArrayList<>(captured);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (capturing) {
+            synchronized (CapturingStatementInspector.class) {
+                captured.add(sql);
+            }
+        }
+
+        return sql;
+    }
+}
@@ -1,27 +1,70 @@
 package org.RealEstate.utils;
 
+import org.RealEstate.enums.Operation;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
-import org.hibernate.cfg.Configuration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 public class HibernateUtil {
+    private static final SessionFactoryBootstrap bootstrap;
     private static final SessionFactory sessionFactory;
+    // no replicas by default; ReadRoutingTest swaps in a router with a second H2 database
+    private static volatile SessionRouter router;
 
+    // built the way the application's HibernateUtil builds it, through SessionFactoryBootstrap
     static {
         try {
-            Configuration configuration = new Configuration();
-            configuration.configure("hibernate-test.cfg.xml");
-            sessionFactory = configuration.buildSessionFactory();
+            bootstrap = new SessionFactoryBootstrap();
+
+            // -Dhibernate.* points the suite at another database, e.g. MySQL for QueryPlanTest
+            Map<String, String> overrides = new HashMap<>();
+
+            for (String name : System.getProperties().stringPropertyNames()) {
+                if (name.startsWith("hibernate.")) overrides.put(name, System.getProperty(name));
+            }
+
+            sessionFactory = bootstrap.build("hibernate-test.cfg.xml", overrides);
+
+            Properties settings = new Properties();
+            bootstrap.getSettings().forEach((name, value) -> settings.setProperty(name, String.valueOf(value)));
+
+            router = new SessionRouter(sessionFactory, List.of());
+            router.configure(settings);
         } catch (Throwable ex) {
             System.err.println("Initial SessionFactory creation failed." + ex);
             throw new ExceptionInInitializerError(ex);
         }
     }
 
+    // phases of the suite's own startup
+    static SessionFactoryBootstrap getBootstrap() {
+        return bootstrap;
+    }
+
     public static Session getSession() {
         return sessionFactory.openSession();
     }
 
+    public static Session getReadSession(Operation operation) {
+        return router.openReadSession(operation);
+    }
+
+    public static SessionRouter getRouter() {
+        return router;
+    }
+
+    public static void setRouter(SessionRouter router) {
+        HibernateUtil.router = router;
+    }
+
+    public static SessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
     public static void shutdown() {
         sessionFactory.close();
     }
@@ -0,0 +1,29 @@
+package org.RealEstate.utils;
+
+import org.RealEstate.dto.PoolStatsDTO;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledConnectionProviderTest {
+    @Test
+    void testStatsTrackAcquisitions() {
+        PooledConnectionProvider provider = PooledConnectionProvider.of(HibernateUtil.getSessionFactory());
+        provider.resetStats();
+
+        for (int i = 0; i < 5; i++) {
+            try (Session session = HibernateUtil.getSession()) {
+                session.createNativeQuery("select 1", Integer.class).getSingleResult();
+            }
+        }
+
+        PoolStatsDTO stats = provider.getStats();
+
+        assertEquals(5, stats.getAcquisitions());
+        assertEquals(0, stats.getActive());
+        assertTrue(stats.getTotal() >= 2);
+        assertTrue(stats.getTotal() <= stats.getMaxSize());
+        assertTrue(stats.getMaxAcquireMicros() >= stats.getAvgAcquireMicros());
+    }
+}
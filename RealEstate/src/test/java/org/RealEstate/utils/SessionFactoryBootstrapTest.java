@@ -0,0 +1,74 @@
+package org.RealEstate.utils;
+
+import org.RealEstate.models.Contract;
+import org.RealEstate.models.Payment;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.hibernate.tool.schema.spi.SchemaManagementException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionFactoryBootstrapTest {
+    @Test
+    void testUpdateThenValidateReportsEachPhase() {
+        String url = "jdbc:h2:mem:bootstrap;DB_CLOSE_DELAY=-1";
+
+        new SessionFactoryBootstrap().build("hibernate-test.cfg.xml", overrides(url, "update")).close();
+
+        SessionFactoryBootstrap bootstrap = new SessionFactoryBootstrap();
+
+        try (SessionFactory sessionFactory = bootstrap.build("hibernate-test.cfg.xml", overrides(url, "validate"))) {
+            assertEquals(List.of("config parse", "pool warm-up", "metamodel", "session factory", "schema validate"),
+                    List.copyOf(bootstrap.getPhases().keySet()));
+            assertTrue(bootstrap.report().startsWith("startup " + bootstrap.getTotalMillis() + " ms: config parse "));
+
+            try (Session session = sessionFactory.openSession()) {
+                assertEquals(0L, session.createQuery("select count(c) from Contract c", Long.class).getSingleResult());
+            }
+        }
+    }
+
+    @Test
+    void testValidateFailsOnMissingTables() {
+        SessionFactoryBootstrap bootstrap = new SessionFactoryBootstrap();
+
+        assertThrows(SchemaManagementException.class,
+                () -> bootstrap.build("hibernate-test.cfg.xml", overrides("jdbc:h2:mem:unmigrated;DB_CLOSE_DELAY=-1", "validate")));
+    }
+
+    // every other test runs on this factory, so the real bootstrap path is what the suite exercises
+    @Test
+    void testSuiteFactoryComesFromBootstrap() {
+        SessionFactoryBootstrap bootstrap = HibernateUtil.getBootstrap();
+
+        assertEquals(List.of("config parse", "pool warm-up", "metamodel", "session factory"), List.copyOf(bootstrap.getPhases().keySet()));
+        assertEquals("create-drop", bootstrap.getSettings().get(SessionFactoryBootstrap.SCHEMA_ACTION));
+        assertEquals(bootstrap.getSettings().get(PooledConnectionProvider.MAX_SIZE),
+                String.valueOf(PooledConnectionProvider.of(HibernateUtil.getSessionFactory()).getMaxSize()));
+
+        try (Session session = HibernateUtil.getSession()) {
+            assertNotNull(session.createQuery("select count(c) from Contract c", Long.class).getSingleResult());
+        }
+    }
+
+    @Test
+    void testEntitiesAreEnhancedAtBuildTime() {
+        assertTrue(ManagedEntity.class.isAssignableFrom(Contract.class));
+        assertTrue(ManagedEntity.class.isAssignableFrom(Payment.class));
+    }
+
+    private static Map<String, String> overrides(String url, String schemaAction) {
+        return Map.of(
+                "hibernate.connection.url", url,
+                "hibernate.hbm2ddl.auto", schemaAction,
+                PooledConnectionProvider.POOL_NAME, "realestate-bootstrap",
+                "hibernate.cache.use_second_level_cache", "false",
+                "hibernate.cache.use_query_cache", "false"
+        );
+    }
+}
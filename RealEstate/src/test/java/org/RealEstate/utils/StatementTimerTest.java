@@ -0,0 +1,162 @@
+package org.RealEstate.utils;
+
+import org.RealEstate.dto.StatementLogDTO;
+import org.junit.jupiter.api.*;
+
+import java.sql.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementTimerTest {
+    Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:statement_timer;DB_CLOSE_DELAY=-1", "sa", "");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table tenant (id bigint primary key, name varchar(50))");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table tenant");
+        }
+
+        connection.close();
+    }
+
+    @Test
+    void testLogsBindsRowsAndTimings() throws SQLException {
+        List<StatementLogDTO> entries = new CopyOnWriteArrayList<>();
+        SlowQueryLog log = new SlowQueryLog(0, 0, 100, "test", entries::add);
+        Connection timed = StatementTimer.wrap(connection, log);
+
+        try (PreparedStatement insert = timed.prepareStatement("insert into tenant (id, name) values (?, ?)")) {
+            for (int i = 1; i <= 3; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "Tenant " + i);
+                insert.addBatch();
+            }
+
+            insert.executeBatch();
+        }
+
+        try (PreparedStatement select = timed.prepareStatement("select name from tenant where id >= ? order by id")) {
+            select.setLong(1, 2);
+
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) assertNotNull(rows.getString(1));
+            }
+        }
+
+        log.close();
+
+        assertEquals(2, entries.size());
+
+        StatementLogDTO insert = entries.get(0);
+        assertEquals("insert into tenant (id, name) values (?, ?)", insert.getSql());
+        assertEquals(3, insert.getRows());
+        assertTrue(insert.isSlow());
+        assertNull(insert.getError());
+
+        StatementLogDTO select = entries.get(1);
+        assertTrue(select.getBound().contains("where id >= ?") && select.getBound().contains("2"), select.getBound());
+        assertEquals(2, select.getRows());
+        assertTrue(select.getExecuteMicros() >= 0 && select.getFetchMicros() >= 0);
+    }
+
+    @Test
+    void testFastStatementsAreSkippedUnlessSampled() throws SQLException {
+        List<StatementLogDTO> entries = new CopyOnWriteArrayList<>();
+        SlowQueryLog quiet = new SlowQueryLog(60_000, 0, 100, "quiet", entries::add);
+        SlowQueryLog sampled = new SlowQueryLog(60_000, 1, 100, "sampled", entries::add);
+
+        int id = 10;
+
+        for (SlowQueryLog log : List.of(quiet, sampled)) {
+            try (Statement statement = StatementTimer.wrap(connection, log).createStatement()) {
+                statement.executeUpdate("insert into tenant (id, name) values (" + id++ + ", 'x')");
+            }
+
+            log.close();
+        }
+
+        assertEquals(1, entries.size());
+        assertFalse(entries.get(0).isSlow());
+        assertEquals(1, entries.get(0).getRows());
+    }
+
+    @Test
+    void testSlowFetchOfAFastQueryIsLoggedAsSlow() throws Exception {
+        List<StatementLogDTO> entries = new CopyOnWriteArrayList<>();
+        SlowQueryLog log = new SlowQueryLog(300, 0, 100, "fetch", entries::add);
+        Connection timed = StatementTimer.wrap(connection, log);
+
+        try (Statement statement = timed.createStatement()) {
+            for (int i = 20; i < 23; i++) statement.executeUpdate("insert into tenant (id, name) values (" + i + ", 'x')");
+
+            try (ResultSet rows = statement.executeQuery("select id from tenant where id >= 20")) {
+                // the caller is slow to consume the rows, not the database to find them
+                while (rows.next()) Thread.sleep(150);
+            }
+        }
+
+        log.close();
+
+        assertEquals(1, entries.size());
+        assertTrue(entries.get(0).isSlow());
+        assertEquals(3, entries.get(0).getRows());
+        assertTrue(entries.get(0).getExecuteMicros() < 300_000 && entries.get(0).getFetchMicros() >= 300_000);
+    }
+
+    @Test
+    void testFailedExecuteIsLoggedWithError() throws SQLException {
+        List<StatementLogDTO> entries = new CopyOnWriteArrayList<>();
+        SlowQueryLog log = new SlowQueryLog(60_000, 0, 100, "failing", entries::add);
+
+        try (PreparedStatement insert = StatementTimer.wrap(connection, log).prepareStatement("insert into tenant (id, name) values (?, ?)")) {
+            insert.setLong(1, 1);
+            insert.setString(2, "first");
+            insert.executeUpdate();
+
+            insert.setString(2, "duplicate");
+            assertThrows(SQLException.class, insert::executeUpdate);
+        }
+
+        log.close();
+
+        assertEquals(1, entries.size());
+        assertFalse(entries.get(0).isSlow());
+        assertTrue(entries.get(0).getBound().contains("duplicate"), entries.get(0).getBound());
+        assertTrue(entries.get(0).getError().contains("SQLIntegrityConstraintViolationException"), entries.get(0).getError());
+    }
+
+    @Test
+    void testFullQueueDropsInsteadOfBlocking() throws SQLException {
+        CountDownLatch release = new CountDownLatch(1);
+        SlowQueryLog log = new SlowQueryLog(0, 0, 1, "blocked", entry -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        try (PreparedStatement select = StatementTimer.wrap(connection, log).prepareStatement("select count(*) from tenant")) {
+            for (int i = 0; i < 10; i++) select.executeQuery().close();
+        }
+
+        // the writer holds one entry and the queue one more; the rest were dropped on the calling thread
+        assertTrue(log.getDropped() >= 8);
+
+        release.countDown();
+        log.close();
+    }
+}